@@ -8,7 +8,6 @@
  */
 package com.publicisgroupe.lawnmower;
 
-import com.publicisgroupe.lawnmower.commands.InitLocaleCommand;
 import com.publicisgroupe.lawnmower.commands.ReadProgramCommand;
 import com.publicisgroupe.lawnmower.services.I18n;
 import org.jetbrains.annotations.NotNull;
@@ -19,11 +18,19 @@ import picocli.CommandLine;
  */
 public class App {
 
+    private static final @NotNull String LOCALE_SHORT_OPTION = "-L"; //$NON-NLS-1$
+    private static final @NotNull String LOCALE_LONG_OPTION = "--locale"; //$NON-NLS-1$
+    private static final @NotNull String END_OF_OPTIONS = "--"; //$NON-NLS-1$
+
     public static void main(final @NotNull String[] args) {
-        // first phase: configure locale
-        new CommandLine(new InitLocaleCommand()).parseArgs(args);
+        // the locale must be known before picocli reads the usage messages, so it is looked for first (without
+        // building a picocli model just for it)
+        final String locale = findLocale(args);
+        if (locale != null) {
+            I18n.setLocale(locale);
+        }
 
-        // second phase: parse all args (ignoring --locale) and run the app
+        // parse all args (the --locale option is ignored) and run the app
         // ReadProgramCommand implements Callable, so parsing, error handling and handling user
         // requests for usage help or version help can be done with one line of code with picocli.
         int exitCode = new CommandLine(new ReadProgramCommand()).execute(args);
@@ -35,4 +42,34 @@ public class App {
         // Sends the error code to the commandline
         System.exit(exitCode);
     }
+
+    /**
+     * Returns the value of the last <code>--locale</code> option of the command line.
+     * <p>
+     * All the picocli syntaxes are accepted: <code>--locale=fr</code>, <code>--locale fr</code>,
+     * <code>-L fr</code>, <code>-L=fr</code> and <code>-Lfr</code>.
+     *
+     * @param args the command line arguments
+     * @return the value of the option, or <code>null</code> if the option is not given
+     */
+    static String findLocale(final @NotNull String[] args) {
+        String locale = null;
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if (END_OF_OPTIONS.equals(arg)) {
+                break;
+            }
+            if (LOCALE_LONG_OPTION.equals(arg) || LOCALE_SHORT_OPTION.equals(arg)) {
+                if (i + 1 < args.length) {
+                    locale = args[++i];
+                }
+            } else if (arg.startsWith(LOCALE_LONG_OPTION + '=')) {
+                locale = arg.substring(LOCALE_LONG_OPTION.length() + 1);
+            } else if (arg.startsWith(LOCALE_SHORT_OPTION)) {
+                final String value = arg.substring(LOCALE_SHORT_OPTION.length());
+                locale = value.startsWith("=") ? value.substring(1) : value; //$NON-NLS-1$
+            }
+        }
+        return locale;
+    }
 }
@@ -26,6 +26,7 @@ public class Constants {
         public static final int READCOMMAND_FORMAT_ERROR = 125;
         public static final int READCOMMAND_MOWER_MISSING_LINE = 124;
         public static final int READCOMMAND_MOWER_INVALID_INSTRUCTIONS = 123;
+        public static final int BATCHCOMMAND_FAILED_PROGRAMS = 122;
 
     }
 }
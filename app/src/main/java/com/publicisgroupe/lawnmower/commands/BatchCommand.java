@@ -0,0 +1,314 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class allows the user to run many 'lawnmower programming files (*.lpf)' at once, in a single JVM.
+ */
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.services.FlightRecording;
+import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.services.ProgramRunner;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.ParentCommand;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class represent the command to run all the Lawnmower Programs of a directory (or matching a glob pattern).
+ * <p>
+ * The programs are run concurrently, on virtual threads when the JVM supports them (Java 21+), on a pool of
+ * <code>--parallelism</code> platform threads otherwise. The final positions of each program are written in the
+ * output directory (<code>name.out</code>, or the extension of the chosen format, plus <code>name.err</code> in case
+ * of error), along with the return code of each program (<code>retcodes.txt</code>).
+ */
+@Command(
+        name = "batch", //$NON-NLS-1$
+        mixinStandardHelpOptions = true,
+        resourceBundle = I18n.MESSAGES_KEY,
+        sortOptions = false
+)
+public class BatchCommand implements Callable<Integer> {
+
+    /**
+     * Extension of the error files.
+     */
+    private static final @NotNull String ERROR_EXTENSION = ".err"; //$NON-NLS-1$
+
+    /**
+     * Name of the file containing the return code of each program.
+     */
+    private static final @NotNull String RETCODES_FILE = "retcodes.txt"; //$NON-NLS-1$
+
+    /**
+     * Glob of the programs, when a directory is given.
+     */
+    private static final @NotNull String DEFAULT_GLOB = "*.lpf"; //$NON-NLS-1$
+
+    /**
+     * The main command, holding the execution options.
+     */
+    @ParentCommand
+    private ReadProgramCommand parent;
+
+    /**
+     * The directory (or glob pattern) of the programs to run.
+     */
+    @Parameters(paramLabel = "PROGRAMS", //$NON-NLS-1$
+            descriptionKey = "batch.parameters.programs" //$NON-NLS-1$
+    )
+    private String programs;
+
+    /**
+     * The <code>--output-dir</code> option, to choose where the results are written.
+     */
+    @Option(names = {"-O", "--output-dir"}, //$NON-NLS-1$ //$NON-NLS-2$
+            required = true,
+            paramLabel = "DIRECTORY", //$NON-NLS-1$
+            descriptionKey = "batch.options.output" //$NON-NLS-1$
+    )
+    private File outputDir;
+
+    /**
+     * The <code>--parallelism</code> option, to choose how many programs are run at the same time.
+     */
+    @Option(names = {"-P", "--parallelism"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "COUNT", //$NON-NLS-1$
+            descriptionKey = "batch.options.parallelism" //$NON-NLS-1$
+    )
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Result of a single program.
+     *
+     * @param file    the program file
+     * @param retcode its return code (see {@link Constants.Retcode})
+     * @param mowers  number of executed mowers
+     */
+    private record ProgramResult(@NotNull Path file, int retcode, int mowers) {
+    }
+
+    /**
+     * The entry point of our command.
+     *
+     * @return <code>0</code> if all the programs went well, {@link Constants.Retcode#BATCHCOMMAND_FAILED_PROGRAMS}
+     * otherwise
+     * @throws Exception if any exception occured on runtime
+     */
+    @Override
+    public @NotNull Integer call() throws Exception {
+        try (final FlightRecording recording = parent.flightRecording()) {
+            return runPrograms();
+        }
+    }
+
+    /**
+     * Runs all the programs, and writes the return codes and the summary.
+     */
+    private int runPrograms() throws Exception {
+        final Path base = baseDirectory(programs);
+        final List<Path> files = findPrograms(base, programs);
+        final Path output = outputDir.toPath();
+        Files.createDirectories(output);
+
+        final ProgramRunner runner = parent.programRunner();
+        final ResultFormat format = parent.resultFormat();
+        final long start = System.nanoTime();
+
+        // one task per program: the virtual threads are not pooled, so a semaphore bounds the number of programs
+        // opened at the same time (the pool of platform threads is bounded by its size)
+        final List<Future<ProgramResult>> futures = new ArrayList<>(files.size());
+        final ExecutorService virtualThreads = newVirtualThreadExecutor();
+        final ExecutorService executor = (virtualThreads != null)
+                ? virtualThreads
+                : Executors.newFixedThreadPool(Math.max(1, parallelism));
+        final Semaphore permits = (virtualThreads != null) ? new Semaphore(Math.max(1, parallelism)) : null;
+        try {
+            for (final Path file : files) {
+                futures.add(executor.submit(() -> {
+                    if (permits != null) {
+                        permits.acquire();
+                    }
+                    try {
+                        return runProgram(runner, format, file, output.resolve(base.relativize(file).toString()));
+                    } finally {
+                        if (permits != null) {
+                            permits.release();
+                        }
+                    }
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final List<ProgramResult> results = new ArrayList<>(files.size());
+        for (final Future<ProgramResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (final ExecutionException ee) {
+                throw (ee.getCause() instanceof Exception cause) ? cause : ee;
+            }
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        writeRetcodes(output.resolve(RETCODES_FILE), base, results);
+        return printSummary(results, elapsedNanos);
+    }
+
+    /**
+     * Runs a single program, writing its results next to the given target path.
+     */
+    private static @NotNull ProgramResult runProgram(final @NotNull ProgramRunner runner,
+                                                     final @NotNull ResultFormat format,
+                                                     final @NotNull Path file,
+                                                     final @NotNull Path target) throws IOException {
+        final Path parentDir = target.getParent();
+        if (parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+        final Path resultFile = Path.of(target + format.extension);
+        final Path errorFile = Path.of(target + ERROR_EXTENSION);
+        Files.deleteIfExists(errorFile);
+
+        int retcode = Constants.Retcode.OK;
+        int mowers = 0;
+        String error = null;
+        try (final FileChannel out = FileChannel.open(resultFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            mowers = runner.run(file, format.open(out));
+
+        } catch (final LawnmowerFileFormatException ex) {
+            retcode = ex.getErrcode();
+            error = ex.getMessage();
+
+        } catch (final IOException | RuntimeException ex) {
+            retcode = (ex instanceof IOException || ex instanceof UncheckedIOException)
+                    ? Constants.Retcode.READCOMMAND_IOERROR_FILE
+                    : CommandLine.ExitCode.SOFTWARE;
+            error = ex.toString();
+        }
+
+        if (error != null) {
+            Files.writeString(errorFile, error + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+        return new ProgramResult(file, retcode, mowers);
+    }
+
+    /**
+     * Writes the return code of each program, one per line (in the order of the file names).
+     */
+    private static void writeRetcodes(final @NotNull Path retcodesFile,
+                                      final @NotNull Path base,
+                                      final @NotNull List<ProgramResult> results) throws IOException {
+        Files.write(retcodesFile, results.stream()
+                .map(result -> result.retcode() + Constants.SPACE + base.relativize(result.file()))
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prints the aggregated results of the batch, and returns the return code of the whole batch.
+     */
+    private static int printSummary(final @NotNull List<ProgramResult> results, final long elapsedNanos) {
+        int failures = 0;
+        long mowers = 0;
+        for (final ProgramResult result : results) {
+            if (result.retcode() != Constants.Retcode.OK) {
+                failures++;
+            }
+            mowers += result.mowers();
+        }
+        final double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        System.out.println(I18n.getMessage("batch.summary", //$NON-NLS-1$
+                results.size(), results.size() - failures, failures, mowers,
+                elapsedNanos / 1_000_000, results.size() / seconds, mowers / seconds));
+
+        return failures == 0 ? Constants.Retcode.OK : Constants.Retcode.BATCHCOMMAND_FAILED_PROGRAMS;
+    }
+
+    /**
+     * Returns the directory to walk through: the given directory, or the part of the glob pattern before the first
+     * wildcard.
+     */
+    static @NotNull Path baseDirectory(final @NotNull String programs) {
+        if (isDirectory(programs)) {
+            return Path.of(programs);
+        }
+        final String prefix = programs.replaceAll("[*?\\[{].*", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        final int separator = prefix.lastIndexOf(File.separatorChar);
+        return separator < 0 ? Path.of("") : Path.of(prefix.substring(0, separator + 1)); //$NON-NLS-1$
+    }
+
+    /**
+     * Finds all the programs matching the given directory or glob pattern, sorted by name.
+     */
+    static @NotNull List<Path> findPrograms(final @NotNull Path base, final @NotNull String programs)
+            throws IOException {
+        final boolean directory = isDirectory(programs);
+        final String glob = directory ? base.resolve(DEFAULT_GLOB).toString() : programs;
+        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob); //$NON-NLS-1$
+
+        // a "**" may cross directories, otherwise there is one directory level per name of the pattern
+        final int baseNames = base.toString().isEmpty() ? 0 : base.getNameCount();
+        final int depth = glob.contains("**") //$NON-NLS-1$
+                ? Integer.MAX_VALUE
+                : Path.of(glob).getNameCount() - baseNames;
+        try (final Stream<Path> walk = Files.walk(base, Math.max(1, depth))) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(matcher::matches)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isDirectory(final @NotNull String programs) {
+        try {
+            return Files.isDirectory(Path.of(programs));
+        } catch (final InvalidPathException ex) {
+            // some glob characters are not allowed in a path on a few file systems
+            return false;
+        }
+    }
+
+    /**
+     * Returns an executor running each task in a new virtual thread if the JVM supports them (Java 21+). The method is
+     * looked up at runtime, so the application still builds and runs on Java 17.
+     *
+     * @return the executor, or <code>null</code> if the JVM has no virtual thread
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor") //$NON-NLS-1$
+                    .invoke(null);
+        } catch (final ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
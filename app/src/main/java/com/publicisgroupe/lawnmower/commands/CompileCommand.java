@@ -0,0 +1,82 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class allows the user to compile a 'lawnmower programming file (*.lpf)' into a binary file (*.lpfb), executed
+ * without any parsing.
+ */
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.services.CompiledProgram;
+import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.services.ProgramCompiler;
+import com.publicisgroupe.lawnmower.services.ProgramFileParser;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * This class represent the command to compile a Lawnmower Program.
+ * <p>
+ * The compiled program is run like the text one (<code>--file=program.lpfb</code>): it is recognized by its first
+ * bytes. See {@link CompiledProgram} for its format.
+ */
+@Command(
+        name = "compile", //$NON-NLS-1$
+        mixinStandardHelpOptions = true,
+        resourceBundle = I18n.MESSAGES_KEY,
+        sortOptions = false
+)
+public class CompileCommand implements Callable<Integer> {
+
+    /**
+     * The program to compile.
+     */
+    @Parameters(paramLabel = "PROGRAM", //$NON-NLS-1$
+            descriptionKey = "compile.parameters.program" //$NON-NLS-1$
+    )
+    private File program;
+
+    /**
+     * The <code>--output</code> option, to choose the compiled file.
+     */
+    @Option(names = {"-o", "--output"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "FILE", //$NON-NLS-1$
+            descriptionKey = "compile.options.output" //$NON-NLS-1$
+    )
+    private File output;
+
+    /**
+     * The entry point of our command.
+     *
+     * @return <code>0</code> if everything went well
+     * @throws Exception if any exception occured on runtime (including an invalid program)
+     */
+    @Override
+    public @NotNull Integer call() throws Exception {
+        final Path target = (output == null) ? defaultOutput(program.toPath()) : output.toPath();
+        final long mowers;
+        try (final ProgramFileParser parser = ProgramFileParser.open(program.toPath())) {
+            mowers = new ProgramCompiler(parser).compile(target);
+        }
+        System.out.println(I18n.getMessage("compile.summary", //$NON-NLS-1$
+                program.getName(), mowers, target, Files.size(target)));
+        return Constants.Retcode.OK;
+    }
+
+    /**
+     * Returns the compiled file of the given program: same name, with the {@link CompiledProgram#EXTENSION}
+     * extension.
+     */
+    static @NotNull Path defaultOutput(final @NotNull Path program) {
+        final String name = program.getFileName().toString();
+        final int dot = name.lastIndexOf('.');
+        return program.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + CompiledProgram.EXTENSION);
+    }
+}
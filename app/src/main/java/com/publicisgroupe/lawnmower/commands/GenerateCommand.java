@@ -0,0 +1,144 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class allows the user to write synthetic 'lawnmower programming files (*.lpf)', to load-test the application.
+ */
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.services.InstructionMix;
+import com.publicisgroupe.lawnmower.services.ProgramGenerator;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+/**
+ * This class represent the command to generate a Lawnmower Program.
+ * <p>
+ * The same options (and seed) always give the same program, which is written while it is generated: its size is not
+ * limited by the memory.
+ */
+@Command(
+        name = "generate", //$NON-NLS-1$
+        mixinStandardHelpOptions = true,
+        resourceBundle = I18n.MESSAGES_KEY,
+        sortOptions = false
+)
+public class GenerateCommand implements Callable<Integer> {
+
+    /**
+     * The picocli model of this command (to report the invalid options).
+     */
+    @Spec
+    private CommandSpec spec;
+
+    /**
+     * The <code>--output</code> option, to choose the generated file (the standard output otherwise).
+     */
+    @Option(names = {"-o", "--output"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "FILE", //$NON-NLS-1$
+            descriptionKey = "generate.options.output" //$NON-NLS-1$
+    )
+    private File output;
+
+    /**
+     * The <code>--max-x</code> option, to choose the maximum coordinate of the lawn on the east direction.
+     */
+    @Option(names = {"-X", "--max-x"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "X", //$NON-NLS-1$
+            descriptionKey = "generate.options.maxx" //$NON-NLS-1$
+    )
+    private int maxX = 99;
+
+    /**
+     * The <code>--max-y</code> option, to choose the maximum coordinate of the lawn on the north direction.
+     */
+    @Option(names = {"-Y", "--max-y"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "Y", //$NON-NLS-1$
+            descriptionKey = "generate.options.maxy" //$NON-NLS-1$
+    )
+    private int maxY = 99;
+
+    /**
+     * The <code>--mowers</code> option, to choose the number of mowers.
+     */
+    @Option(names = {"-M", "--mowers"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "COUNT", //$NON-NLS-1$
+            descriptionKey = "generate.options.mowers" //$NON-NLS-1$
+    )
+    private long mowers = 10;
+
+    /**
+     * The <code>--density</code> option, to choose the number of mowers as a ratio of the number of cells.
+     */
+    @Option(names = {"-D", "--density"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "RATIO", //$NON-NLS-1$
+            descriptionKey = "generate.options.density" //$NON-NLS-1$
+    )
+    private Double density;
+
+    /**
+     * The <code>--instructions</code> option, to choose the number of instructions of each mower.
+     */
+    @Option(names = {"-I", "--instructions"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "COUNT", //$NON-NLS-1$
+            descriptionKey = "generate.options.instructions" //$NON-NLS-1$
+    )
+    private int instructions = 100;
+
+    /**
+     * The <code>--mix</code> option, to choose the kind of instructions.
+     */
+    @Option(names = {"--mix"}, //$NON-NLS-1$
+            paramLabel = "MIX", //$NON-NLS-1$
+            descriptionKey = "generate.options.mix" //$NON-NLS-1$
+    )
+    private @NotNull InstructionMix mix = InstructionMix.BALANCED;
+
+    /**
+     * The <code>--seed</code> option, to get another program with the same options.
+     */
+    @Option(names = {"--seed"}, //$NON-NLS-1$
+            paramLabel = "SEED", //$NON-NLS-1$
+            descriptionKey = "generate.options.seed" //$NON-NLS-1$
+    )
+    private long seed = 0;
+
+    /**
+     * The entry point of our command.
+     *
+     * @return <code>0</code> if everything went well
+     * @throws Exception if any exception occured on runtime
+     */
+    @Override
+    public @NotNull Integer call() throws Exception {
+        final ProgramGenerator generator;
+        try {
+            final long count = (density == null)
+                    ? mowers
+                    : Math.round(density * ProgramGenerator.area(maxX, maxY));
+            generator = new ProgramGenerator(maxX, maxY, count, instructions, mix, seed);
+        } catch (final IllegalArgumentException ex) {
+            throw new ParameterException(spec.commandLine(), ex.getMessage(), ex);
+        }
+
+        if (output == null) {
+            generator.write(System.out);
+            System.out.flush();
+        } else {
+            try (final OutputStream out = Files.newOutputStream(output.toPath())) {
+                generator.write(out);
+            }
+        }
+        return Constants.Retcode.OK;
+    }
+}
@@ -10,23 +10,27 @@
 package com.publicisgroupe.lawnmower.commands;
 
 import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
 import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
-import com.publicisgroupe.lawnmower.models.Lawn;
-import com.publicisgroupe.lawnmower.models.Lawnmower;
-import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
-import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.services.Checkpoints;
+import com.publicisgroupe.lawnmower.services.Diagnostics;
+import com.publicisgroupe.lawnmower.services.FlightRecording;
 import com.publicisgroupe.lawnmower.services.I18n;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.LineIterator;
+import com.publicisgroupe.lawnmower.services.ProgramRunner;
+import com.publicisgroupe.lawnmower.services.TraceWriter;
 import org.jetbrains.annotations.NotNull;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.ScopeType;
+import picocli.CommandLine.Spec;
 
 import java.io.File;
-import java.util.List;
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
 
 /**
  * This class represent the command to read the Lawnmower Program.
@@ -36,14 +40,24 @@ import java.util.stream.Collectors;
         version = "lawnmower 1.0", //$NON-NLS-1$
         mixinStandardHelpOptions = true,
         resourceBundle = I18n.MESSAGES_KEY,
-        sortOptions = false
+        sortOptions = false,
+        subcommands = {BatchCommand.class, ServeCommand.class, GenerateCommand.class, CompileCommand.class,
+                TraceCommand.class}
 )
 public class ReadProgramCommand implements Callable<Integer> {
 
     /**
-     * the <code>--locale</code> option (to be ignored here, in the second phase of parsing).
+     * The picocli model of this command (to report the invalid options).
+     */
+    @Spec
+    private CommandSpec spec;
+
+    /**
+     * the <code>--locale</code> option (to be ignored here, it is read by {@link com.publicisgroupe.lawnmower.App}
+     * before parsing).
      */
     @Option(names = {"-L", "--locale"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
             descriptionKey = "command.options.locale", //$NON-NLS-1$
             paramLabel = "LOCALE" //$NON-NLS-1$
     )
@@ -53,13 +67,125 @@ public class ReadProgramCommand implements Callable<Integer> {
      * The <code>--file</code> option to choose the file to read.
      */
     @Option(names = {"-F", "--file"}, //$NON-NLS-1$  //$NON-NLS-2$
-            required = true,
             paramLabel = "PROGRAM", //$NON-NLS-1$
             descriptionKey = "command.options.file" //$NON-NLS-1$
     )
-    @NotNull
     private File lpfFile;
 
+    /**
+     * The <code>--streaming</code> option, to execute the program in two passes without loading all the instructions
+     * in memory.
+     */
+    @Option(names = {"-S", "--streaming"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
+            descriptionKey = "command.options.streaming" //$NON-NLS-1$
+    )
+    private boolean streaming = false;
+
+    /**
+     * The <code>--pipelined</code> option, to parse, execute and write the mowers on separate threads (in streaming
+     * mode).
+     */
+    @Option(names = {"--pipelined"}, //$NON-NLS-1$
+            scope = ScopeType.INHERIT,
+            descriptionKey = "command.options.pipelined" //$NON-NLS-1$
+    )
+    private boolean pipelined = false;
+
+    /**
+     * The <code>--engine</code> option, to choose how the mowers are executed.
+     */
+    @Option(names = {"-E", "--engine"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
+            paramLabel = "ENGINE", //$NON-NLS-1$
+            descriptionKey = "command.options.engine" //$NON-NLS-1$
+    )
+    private @NotNull EngineType engine = EngineType.SEQUENTIAL;
+
+    /**
+     * The <code>--format</code> option, to choose the format of the results.
+     */
+    @Option(names = {"-f", "--format"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
+            paramLabel = "FORMAT", //$NON-NLS-1$
+            descriptionKey = "command.options.format" //$NON-NLS-1$
+    )
+    private @NotNull ResultFormat format = ResultFormat.TEXT;
+
+    /**
+     * The <code>--diagnostics</code> option, to choose how much of the diagnostics of a program is printed.
+     */
+    @Option(names = {"-d", "--diagnostics"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
+            paramLabel = "LEVEL", //$NON-NLS-1$
+            descriptionKey = "command.options.diagnostics" //$NON-NLS-1$
+    )
+    private @NotNull Diagnostics.Verbosity diagnostics = Diagnostics.Verbosity.SUMMARY;
+
+    /**
+     * The <code>--max-diagnostics</code> option, to limit the number of mowers reported for each kind of event.
+     */
+    @Option(names = {"--max-diagnostics"}, //$NON-NLS-1$
+            scope = ScopeType.INHERIT,
+            paramLabel = "COUNT", //$NON-NLS-1$
+            descriptionKey = "command.options.max.diagnostics" //$NON-NLS-1$
+    )
+    private int maxDiagnostics = Diagnostics.DEFAULT_LIMIT;
+
+    /**
+     * The <code>--coverage</code> option, to track the mowed cells and report them.
+     */
+    @Option(names = {"-C", "--coverage"}, //$NON-NLS-1$ //$NON-NLS-2$
+            scope = ScopeType.INHERIT,
+            descriptionKey = "command.options.coverage" //$NON-NLS-1$
+    )
+    private boolean coverage = false;
+
+    /**
+     * The <code>--checkpoint</code> option, to save the progress of the execution periodically.
+     */
+    @Option(names = {"-K", "--checkpoint"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "FILE", //$NON-NLS-1$
+            descriptionKey = "command.options.checkpoint" //$NON-NLS-1$
+    )
+    private File checkpoint;
+
+    /**
+     * The <code>--checkpoint-interval</code> option, to choose the time between two checkpoints.
+     */
+    @Option(names = {"--checkpoint-interval"}, //$NON-NLS-1$
+            paramLabel = "SECONDS", //$NON-NLS-1$
+            descriptionKey = "command.options.checkpoint.interval" //$NON-NLS-1$
+    )
+    private long checkpointInterval = 60;
+
+    /**
+     * The <code>--resume</code> option, to continue the execution saved in the checkpoint file.
+     */
+    @Option(names = {"-R", "--resume"}, //$NON-NLS-1$ //$NON-NLS-2$
+            descriptionKey = "command.options.resume" //$NON-NLS-1$
+    )
+    private boolean resume = false;
+
+    /**
+     * The <code>--trace</code> option, to record the path of each mower.
+     */
+    @Option(names = {"-T", "--trace"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "FILE", //$NON-NLS-1$
+            descriptionKey = "command.options.trace" //$NON-NLS-1$
+    )
+    private File trace;
+
+    /**
+     * The <code>--jfr</code> option, to record the execution with the Java Flight Recorder.
+     */
+    @Option(names = {"--jfr"}, //$NON-NLS-1$
+            scope = ScopeType.INHERIT,
+            paramLabel = "FILE", //$NON-NLS-1$
+            descriptionKey = "command.options.jfr" //$NON-NLS-1$
+    )
+    private File jfr;
+
     /**
      * The <code>--help</code> option to display the usage message.
      */
@@ -82,204 +208,80 @@ public class ReadProgramCommand implements Callable<Integer> {
         isFileValid();
 
         // starting here, we have a nice file
-        Lawn lawn;
-        try (final @NotNull LineIterator it = FileUtils.lineIterator(lpfFile, Constants.CHARSET_UTF8)) {
-            // iterate on each line of the file
-            lawn = iterateOnFileLines(it);
+        final Checkpoints checkpoints = checkpoints();
+        try (final FlightRecording recording = flightRecording();
+             final TraceWriter traceWriter = (trace == null) ? null : TraceWriter.open(trace.toPath())) {
+            programRunner().run(lpfFile.toPath(), format.open(System.out), checkpoints, traceWriter);
         }
 
-        lawn.moveAllMowers();
-
         // errcode OK = 0 (the other retcodes are contained in the exception)
         return Constants.Retcode.OK;
     }
 
     /**
-     * Iterate on all the lines of the given file (using its iterator)
+     * Returns a runner configured with the options of the command line.
      *
-     * @param it current iterator
-     * @return
-     * @throws LawnmowerFileFormatException in one of those cases :
-     *                                      <ul>
-     *                                          <li>the file is empty</li>
-     *                                          <li>the file format is not valid</li>
-     *                                      </ul>
-     */
-    private @NotNull Lawn iterateOnFileLines(final @NotNull LineIterator it)
-            throws LawnmowerFileFormatException {
-
-        // if the file does not have AT LEAST 1 line, we cannot continue
-        if (!it.hasNext()) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_EMPTYFILE,
-                    I18n.getMessage("readcommand.empty.file.error", lpfFile.getName())); //$NON-NLS-1$
-        }
-
-        // extract the first line of the file
-        final @NotNull Lawn lawn = extractFirstLine(it);
-
-        // iterate on each lawnmower (1 lawnmower = 2 lines)
-        while (it.hasNext()) {
-            final Lawnmower nextMower = extractNextMower(it);
-            if (lawn.contains(nextMower)) {
-                // add the mower to the lawn only if it is not out of bounds
-                lawn.mowers().add(nextMower);
-            } else {
-                // if out of bounds, we display a message but continue (without the lawnmower)
-                System.err.println(
-                        I18n.getMessage("readcommand.mower.out.of.bounds", lawn.mowers().size()) //$NON-NLS-1$
-                );
-            }
-        }
-        return lawn;
-    }
-
-    /**
-     * Extract the next lawnmower in the file.
-     *
-     * @param it current file iterator
-     * @return the associated {@link Lawnmower} instance
-     * @throws LawnmowerFileFormatException if the file format is not valid
+     * @return a new {@link ProgramRunner}
+     * @throws ParameterException if an engine is chosen in streaming mode
      */
-    private static @NotNull Lawnmower extractNextMower(final @NotNull LineIterator it)
-            throws LawnmowerFileFormatException {
-
-        // extract the mower 's init position
-        if (!it.hasNext()) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_MOWER_MISSING_LINE,
-                    I18n.getMessage("readcommand.mower.missing.line.1")); //$NON-NLS-1$
-        }
-        final LawnmowerInitRecord initPosition = extractMowerInitValues(it);
-
-        // extract the mower 's instructions
-        if (!it.hasNext()) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_MOWER_MISSING_LINE,
-                    I18n.getMessage("readcommand.mower.missing.line.2")); //$NON-NLS-1$
+    @NotNull ProgramRunner programRunner() {
+        try {
+            return new ProgramRunner.Builder()
+                    .engine(engine)
+                    .streaming(streaming)
+                    .pipelined(pipelined)
+                    .diagnostics(diagnostics, maxDiagnostics)
+                    .coverage(coverage)
+                    .build();
+        } catch (final IllegalArgumentException ex) {
+            // an engine chosen in streaming mode
+            throw new ParameterException(spec.commandLine(), ex.getMessage(), ex);
         }
-        final List<Character> instructionList = extractMowerInstructions(it);
-
-        // returns the Lawnmower
-        return new Lawnmower(initPosition, instructionList);
     }
 
     /**
-     * Extract the instructions of the lawnmower.
+     * Starts the flight recording asked on the command line.
      *
-     * @param it current file iterator
-     * @return a {@link List} of {@link Character}s, each one of them being an instruction
-     * @throws LawnmowerFileFormatException if the file format is not valid
+     * @return the running recording (written into its file when closed), or <code>null</code> if no recording file
+     * is given
+     * @throws IOException if the recording file cannot be written
      */
-    @NotNull
-    private static List<Character> extractMowerInstructions(final @NotNull LineIterator it)
-            throws LawnmowerFileFormatException {
-        // extract the instructions as a list of characters
-        final String instructionString = it.nextLine();
-        // make sur its content is valid
-        if (!instructionString.matches("[DGA]*")) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS,
-                    I18n.getMessage("readcommand.mower.invalid.instructions", instructionString)); //$NON-NLS-1$
-        }
-        // convert the string into a list of characters
-        return instructionString
-                .chars()
-                .mapToObj(c -> (char) c)
-                .collect(Collectors.toList());
+    FlightRecording flightRecording() throws IOException {
+        return (jfr == null) ? null : FlightRecording.start(jfr.toPath());
     }
 
     /**
-     * Extract the init position of the lawnmower.
+     * Returns the checkpoints chosen on the command line.
      *
-     * @param it current file iterator
-     * @return the current {@link LawnmowerInitRecord}
-     * @throws LawnmowerFileFormatException if the file format is not valid
+     * @return the checkpoints of the execution, or <code>null</code> if no checkpoint file is given
      */
-    private static @NotNull LawnmowerInitRecord extractMowerInitValues(final @NotNull LineIterator it)
-            throws LawnmowerFileFormatException {
-
-        // get the firstline, and split its tokens
-        final @NotNull String firstLine = it.nextLine();
-        final @NotNull String[] tokens = firstLine.split(Constants.SPACE);
-
-        // we expect 3 elements. No more, no less
-        if (tokens.length != 3) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
-                    I18n.getMessage("readcommand.format.error.firstline.args")); //$NON-NLS-1$
+    private Checkpoints checkpoints() {
+        if (checkpoint == null) {
+            if (resume) {
+                throw new ParameterException(spec.commandLine(),
+                        I18n.getMessage("readcommand.resume.without.checkpoint")); //$NON-NLS-1$
+            }
+            return null;
         }
-
-        // Define the 3 starting elements of the mower
-        int x;
-        int y;
-        LawnmowerOrientation orientation;
-
-        // extract the first 2 elements (x and y)
-        try {
-            x = Integer.parseInt(tokens[0]);
-            y = Integer.parseInt(tokens[1]);
-
-        } catch (final @NotNull NumberFormatException nfe) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
-                    I18n.getMessage("readcommand.format.error.firstline.int")); //$NON-NLS-1$
+        if (streaming || pipelined) {
+            // rejected by the runner too, but reported here before any file is opened
+            throw new ParameterException(spec.commandLine(),
+                    I18n.getMessage("readcommand.checkpoint.with.streaming")); //$NON-NLS-1$
         }
-
-        // extract the 3 element (orientation)
-        try {
-            orientation = LawnmowerOrientation
-                    .valueOfInstruction(tokens[2].charAt(0))
-                    .orElseThrow();
-
-        } catch (final @NotNull IllegalArgumentException | IndexOutOfBoundsException | NoSuchElementException ex) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
-                    I18n.getMessage("readcommand.format.error.firstline.orientation")); //$NON-NLS-1$
+        if (checkpointInterval < 0) {
+            throw new ParameterException(spec.commandLine(),
+                    I18n.getMessage("readcommand.negative.checkpoint.interval")); //$NON-NLS-1$
         }
-
-        // return the init record
-        return new LawnmowerInitRecord(x, y, orientation);
+        return new Checkpoints(checkpoint.toPath(), Duration.ofSeconds(checkpointInterval), resume);
     }
 
     /**
-     * Extract the first line of the file.
+     * Returns the format of the results chosen on the command line.
      *
-     * @param it current file iterator
-     * @return the {@link Lawn} of the top right lawn point
-     * @throws LawnmowerFileFormatException if the file format is not valid
+     * @return the format of the results
      */
-    private static @NotNull Lawn extractFirstLine(final @NotNull LineIterator it)
-            throws LawnmowerFileFormatException {
-
-        // get the first line, and split its tokens
-        final @NotNull String firstLine = it.nextLine();
-        final @NotNull String[] tokens = firstLine.split(Constants.SPACE);
-
-        // we expect 2 elements. No more, no less
-        if (tokens.length != 2) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
-                    I18n.getMessage("readcommand.format.error.firstline.args")); //$NON-NLS-1$
-        }
-
-        // Define the coordinates of the lawn
-        int x;
-        int y;
-
-        // extract the first 2 elements (x and y)
-        try {
-            x = Integer.parseInt(tokens[0]);
-            y = Integer.parseInt(tokens[1]);
-
-        } catch (final @NotNull NumberFormatException nfe) {
-            throw new LawnmowerFileFormatException(
-                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
-                    I18n.getMessage("readcommand.format.error.firstline.int")); //$NON-NLS-1$
-        }
-
-        // return the init record
-        return new Lawn(x, y);
+    @NotNull ResultFormat resultFormat() {
+        return format;
     }
 
     /**
@@ -287,12 +289,18 @@ public class ReadProgramCommand implements Callable<Integer> {
      *
      * @throws LawnmowerFileFormatException in one of those cases :
      *                                      <ul>
+     *                                          <li>no file is given</li>
      *                                          <li>the file does not exist</li>
      *                                          <li>the file is NOT a file (a folder for example)</li>
      *                                          <li>the file cannot be read</li>
      *                                      </ul>
      */
     private void isFileValid() throws LawnmowerFileFormatException {
+        if (lpfFile == null) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_MISSING_ILE,
+                    I18n.getMessage("readcommand.file.required")); //$NON-NLS-1$
+        }
         final @NotNull String filename = lpfFile.getName();
 
 
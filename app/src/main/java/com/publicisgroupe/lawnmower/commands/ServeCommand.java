@@ -0,0 +1,153 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class allows the user to keep the application running, and to send it 'lawnmower programming files (*.lpf)'
+ * through a local socket.
+ */
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.services.FlightRecording;
+import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.services.ProgramServer;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represent the command to run a local server executing the Lawnmower Programs sent by its clients.
+ * <p>
+ * The server listens on the loopback interface (or on a Unix-domain socket) until the JVM is stopped, and uses the
+ * execution options of the main command for all the programs. See {@link ProgramServer} for the protocol.
+ */
+@Command(
+        name = "serve", //$NON-NLS-1$
+        mixinStandardHelpOptions = true,
+        resourceBundle = I18n.MESSAGES_KEY,
+        sortOptions = false
+)
+public class ServeCommand implements Callable<Integer> {
+
+    /**
+     * Default TCP port of the server.
+     */
+    static final int DEFAULT_PORT = 7878;
+
+    /**
+     * The main command, holding the execution options.
+     */
+    @ParentCommand
+    private ReadProgramCommand parent;
+
+    /**
+     * The <code>--port</code> option, to choose the TCP port (on the loopback interface).
+     */
+    @Option(names = {"-p", "--port"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "PORT", //$NON-NLS-1$
+            descriptionKey = "serve.options.port" //$NON-NLS-1$
+    )
+    private int port = DEFAULT_PORT;
+
+    /**
+     * The <code>--socket</code> option, to listen on a Unix-domain socket instead of a TCP port.
+     */
+    @Option(names = {"-U", "--socket"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "PATH", //$NON-NLS-1$
+            descriptionKey = "serve.options.socket" //$NON-NLS-1$
+    )
+    private File socket;
+
+    /**
+     * The <code>--workers</code> option, to choose how many programs are run at the same time.
+     */
+    @Option(names = {"-W", "--workers"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "COUNT", //$NON-NLS-1$
+            descriptionKey = "serve.options.workers" //$NON-NLS-1$
+    )
+    private int workers = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The entry point of our command: serves the clients until the JVM is stopped.
+     *
+     * @return <code>0</code> once the server is stopped
+     * @throws Exception if any exception occured on runtime
+     */
+    @Override
+    public @NotNull Integer call() throws Exception {
+        // the recording is also written if the JVM is stopped while serving
+        try (final FlightRecording recording = parent.flightRecording()) {
+            return serve();
+        }
+    }
+
+    /**
+     * Serves the clients until the JVM is stopped.
+     */
+    private int serve() throws Exception {
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers));
+        final ServerSocketChannel server = bind();
+        System.out.println(I18n.getMessage("serve.listening", server.getLocalAddress())); //$NON-NLS-1$
+
+        // stop accepting connections when the JVM is stopped, and let the running programs finish
+        // (the hook cannot wait for the serving thread: it may be blocked in System.exit)
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> stop(server, pool)));
+
+        try {
+            new ProgramServer(parent.programRunner(), parent.resultFormat(), pool).serve(server);
+        } finally {
+            stop(server, pool);
+        }
+        return Constants.Retcode.OK;
+    }
+
+    /**
+     * Closes the server channel, and waits for the running programs.
+     */
+    private void stop(final @NotNull ServerSocketChannel server, final @NotNull ExecutorService pool) {
+        try {
+            server.close();
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+            if (socket != null) {
+                Files.deleteIfExists(socket.toPath());
+            }
+        } catch (final IOException ex) {
+            // nothing more can be done, the server is stopping
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Opens the server channel on the chosen socket.
+     *
+     * @return a bound server channel, in blocking mode
+     * @throws IOException if the socket cannot be bound
+     */
+    @NotNull ServerSocketChannel bind() throws IOException {
+        if (socket != null) {
+            // a file left by a previous server would prevent the bind
+            Files.deleteIfExists(socket.toPath());
+            final ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socket.toPath()));
+            return server;
+        }
+        final ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        return server;
+    }
+}
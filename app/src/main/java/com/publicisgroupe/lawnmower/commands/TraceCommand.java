@@ -0,0 +1,94 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class allows the user to read a trace file (*.lpft), written by the <code>--trace</code> option.
+ */
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.services.TraceReader;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+
+/**
+ * This class represent the command to print the position of a mower at a given step of a traced execution.
+ * <p>
+ * Only the part of the trace needed for this step is read (see {@link TraceReader}).
+ */
+@Command(
+        name = "trace", //$NON-NLS-1$
+        mixinStandardHelpOptions = true,
+        resourceBundle = I18n.MESSAGES_KEY,
+        sortOptions = false
+)
+public class TraceCommand implements Callable<Integer> {
+
+    /**
+     * The picocli model of this command (to report the invalid options).
+     */
+    @Spec
+    private CommandSpec spec;
+
+    /**
+     * The trace file to read.
+     */
+    @Parameters(paramLabel = "TRACE", //$NON-NLS-1$
+            descriptionKey = "trace.parameters.trace" //$NON-NLS-1$
+    )
+    private File trace;
+
+    /**
+     * The <code>--mower</code> option, to choose the mower (in the order of the results).
+     */
+    @Option(names = {"-m", "--mower"}, //$NON-NLS-1$ //$NON-NLS-2$
+            required = true,
+            paramLabel = "INDEX", //$NON-NLS-1$
+            descriptionKey = "trace.options.mower" //$NON-NLS-1$
+    )
+    private long mower;
+
+    /**
+     * The <code>--step</code> option, to choose the step (the final position when absent).
+     */
+    @Option(names = {"-s", "--step"}, //$NON-NLS-1$ //$NON-NLS-2$
+            paramLabel = "STEP", //$NON-NLS-1$
+            descriptionKey = "trace.options.step" //$NON-NLS-1$
+    )
+    private Long step;
+
+    /**
+     * The entry point of our command.
+     *
+     * @return <code>0</code> if everything went well
+     * @throws Exception if any exception occured on runtime (including an invalid trace file)
+     */
+    @Override
+    public @NotNull Integer call() throws Exception {
+        try (final TraceReader reader = TraceReader.open(trace.toPath())) {
+            if (mower < 0 || mower >= reader.mowerCount()) {
+                throw new ParameterException(spec.commandLine(),
+                        I18n.getMessage("trace.invalid.mower", mower, reader.mowerCount())); //$NON-NLS-1$
+            }
+            if (!reader.contains(mower)) {
+                throw new ParameterException(spec.commandLine(),
+                        I18n.getMessage("trace.not.recorded", trace.getName())); //$NON-NLS-1$
+            }
+            final long steps = reader.steps(mower);
+            if (step != null && (step < 0 || step > steps)) {
+                throw new ParameterException(spec.commandLine(),
+                        I18n.getMessage("trace.invalid.step", step, steps)); //$NON-NLS-1$
+            }
+            System.out.println(reader.position(mower, step == null ? steps : step));
+        }
+        return Constants.Retcode.OK;
+    }
+}
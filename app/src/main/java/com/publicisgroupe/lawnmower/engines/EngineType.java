@@ -0,0 +1,48 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.models.Lawn;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * The available engines to execute the mowers of a lawn.
+ * <p>
+ * A new engine is a {@link SimulationEngine} registered here, which makes it available to the <code>--engine</code>
+ * option, and checked against the reference one by the engines tests.
+ */
+public enum EngineType {
+    /**
+     * Step by step execution of the instructions, one mower after the other (the reference engine).
+     */
+    SEQUENTIAL(SequentialEngine::new),
+
+    /**
+     * Sequential execution, where the runs of forward moves are executed in a single jump.
+     */
+    JUMP_AHEAD(JumpAheadEngine::new),
+
+    /**
+     * Concurrent execution of the groups of mowers which cannot interact with each other.
+     */
+    PARALLEL(ParallelEngine::new);
+
+    /**
+     * Creates the engine for a lawn.
+     */
+    private final @NotNull Function<Lawn, SimulationEngine> factory;
+
+    EngineType(final @NotNull Function<Lawn, SimulationEngine> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates an engine of this type for the given lawn.
+     *
+     * @param lawn the lawn and its mowers
+     * @return the engine executing the mowers of the lawn
+     */
+    public @NotNull SimulationEngine create(final @NotNull Lawn lawn) {
+        return factory.apply(lawn);
+    }
+}
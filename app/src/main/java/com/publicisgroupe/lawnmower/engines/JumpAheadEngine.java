@@ -0,0 +1,219 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.LawnExecutionEvent;
+import com.publicisgroupe.lawnmower.events.MowerExecutionEvent;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.models.OccupancyIndex;
+import com.publicisgroupe.lawnmower.models.RepeatBlock;
+import com.publicisgroupe.lawnmower.models.Trajectory;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This engine moves the mowers in straight lines instead of one cell at a time.
+ * <p>
+ * A run of <code>k</code> consecutive 'A' instructions is executed with a single query: the mowers of each row and
+ * of each column are kept sorted, so the first obstacle in front of the mower (another mower or the lawn edge) is
+ * found in logarithmic time, and the mower jumps directly to its final cell.
+ * <p>
+ * The repeated blocks are executed by {@link MowerFleet#executeBlock(int, RepeatBlock, OccupancyIndex,
+ * MowerFleet.InstructionRunner, MowerFleet.CellListener)}: in closed form when the swept rectangle is free, or when the
+ * mower cycles.
+ * <p>
+ * The result is the same as the one of {@link Lawn#moveAllMowers()}: the mowers are executed sequentially, and a
+ * forward move is ignored when the next cell is not free.
+ */
+public class JumpAheadEngine implements SimulationEngine {
+
+    /**
+     * The lawn and its mowers.
+     */
+    private final @NotNull Lawn lawn;
+
+    /**
+     * The mowers of the lawn.
+     */
+    private final @NotNull MowerFleet fleet;
+
+    /**
+     * X coordinates of the mowers of each row (indexed by Y).
+     */
+    private final @NotNull LineIndex rows = new LineIndex();
+
+    /**
+     * Y coordinates of the mowers of each column (indexed by X).
+     */
+    private final @NotNull LineIndex columns = new LineIndex();
+
+    /**
+     * Creates an engine for the given lawn, registering the current position of all its mowers.
+     *
+     * @param lawn the lawn and its mowers
+     */
+    public JumpAheadEngine(final @NotNull Lawn lawn) {
+        this.lawn = lawn;
+        this.fleet = lawn.fleet();
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            addObstacle(fleet.getX(mower), fleet.getY(mower));
+        }
+    }
+
+    /**
+     * Move all the mower sequentially (one at a time), and display their final position.
+     */
+    public void moveAllMowers() {
+        final ResultSink sink = ResultFormat.TEXT.open(System.out);
+        moveAllMowers(sink);
+        sink.flush();
+    }
+
+    /**
+     * Move all the mower sequentially (one at a time), and display their final position.
+     *
+     * @param sink where the final position of each mower is written
+     */
+    @Override
+    public void moveAllMowers(final @NotNull ResultSink sink) {
+        final LawnExecutionEvent event = FlightEvents.isEnabled() ? LawnExecutionEvent.start() : null;
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            execute(mower);
+            sink.accept(fleet, mower);
+        }
+        if (event != null) {
+            event.end(lawn, EngineType.JUMP_AHEAD.name());
+        }
+    }
+
+    /**
+     * Execute all the instructions of the given mower.
+     *
+     * @param mower a mower of the lawn
+     * @throws IllegalArgumentException if the mower has not been added to the lawn
+     */
+    public void execute(final @NotNull Lawnmower mower) {
+        if (mower.getFleet() != fleet) {
+            throw new IllegalArgumentException(mower.toString());
+        }
+        execute(mower.getIndex());
+    }
+
+    /**
+     * Execute all the instructions of the given mower.
+     *
+     * @param mower index of a mower of the lawn
+     */
+    @Override
+    public void execute(final int mower) {
+        final MowerExecutionEvent event = FlightEvents.isEnabled() ? MowerExecutionEvent.start() : null;
+        final long blockedBefore = fleet.getBlockedMoves(mower);
+        final InstructionProgram instructions = fleet.getInstructions(mower);
+        int from = 0;
+        for (int b = 0; b < instructions.blockCount(); b++) {
+            final RepeatBlock block = instructions.block(b);
+            execute(mower, from, block.start());
+            fleet.executeBlock(mower, block, lawn.occupancy(), this::execute, this::moveObstacle);
+            from = block.end();
+        }
+        execute(mower, from, instructions.length());
+        if (event != null) {
+            event.end(fleet, mower, blockedBefore);
+        }
+    }
+
+    /**
+     * Execute the instructions of the mower from <code>from</code> (included) to <code>to</code> (excluded).
+     */
+    private void execute(final int mower, final int from, final int to) {
+        final InstructionProgram instructions = fleet.getInstructions(mower);
+        int i = from;
+        while (i < to) {
+            switch (instructions.get(i)) {
+                case InstructionProgram.RIGHT -> {
+                    fleet.turnRight(mower);
+                    i++;
+                }
+                case InstructionProgram.LEFT -> {
+                    fleet.turnLeft(mower);
+                    i++;
+                }
+                default -> {
+                    final int run = instructions.forwardRun(i, to);
+                    moveForward(mower, run);
+                    i += run;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the mower forward <code>steps</code> times, stopping in front of the first obstacle.
+     */
+    private void moveForward(final int mower, final int steps) {
+        final int x = fleet.getX(mower);
+        final int y = fleet.getY(mower);
+        final LawnmowerOrientation orientation = fleet.getOrientation(mower);
+        final long reachable = switch (orientation) {
+            case NORTH -> columns.distanceToObstacle(x, y, true, lawn.maxY() - (long) y);
+            case SOUTH -> columns.distanceToObstacle(x, y, false, y);
+            case EAST -> rows.distanceToObstacle(y, x, true, lawn.maxX() - (long) x);
+            case WEST -> rows.distanceToObstacle(y, x, false, x);
+        };
+        final int moves = (int) Math.max(0, Math.min(steps, reachable));
+
+        if (moves > 0) {
+            switch (orientation) {
+                case NORTH -> fleet.setY(mower, y + moves);
+                case SOUTH -> fleet.setY(mower, y - moves);
+                case EAST -> fleet.setX(mower, x + moves);
+                case WEST -> fleet.setX(mower, x - moves);
+            }
+            final int toX = fleet.getX(mower);
+            final int toY = fleet.getY(mower);
+            moveObstacle(x, y, toX, toY);
+            lawn.occupancy().remove(x, y);
+            lawn.occupancy().add(toX, toY);
+            if (fleet.tracksCoverage(mower)) {
+                // every cell of the jump is mowed
+                final int dx = Integer.signum(toX - x);
+                final int dy = Integer.signum(toY - y);
+                for (int step = 1; step <= moves; step++) {
+                    fleet.mow(mower, x + step * dx, y + step * dy);
+                }
+            }
+        }
+
+        // every blocked step is counted, like the step by step execution does
+        fleet.addBlockedMoves(mower, steps - moves);
+        final Trajectory trajectory = fleet.getTrajectory(mower);
+        if (trajectory != null) {
+            trajectory.forward(moves);
+            trajectory.blocked(steps - moves);
+        }
+    }
+
+    private void addObstacle(final int x, final int y) {
+        rows.add(y, x);
+        columns.add(x, y);
+    }
+
+    private void moveObstacle(final int fromX, final int fromY, final int toX, final int toY) {
+        if (fromY == toY) {
+            rows.move(fromY, fromX, toX);
+        } else {
+            rows.remove(fromY, fromX);
+            rows.add(toY, toX);
+        }
+        if (fromX == toX) {
+            columns.move(fromX, fromY, toY);
+        } else {
+            columns.remove(fromX, fromY);
+            columns.add(toX, toY);
+        }
+    }
+}
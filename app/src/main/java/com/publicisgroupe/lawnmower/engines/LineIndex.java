@@ -0,0 +1,323 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * This class stores the coordinates of the mowers along each row (or each column) of a lawn, for the
+ * {@link JumpAheadEngine}.
+ * <p>
+ * The lines are the keys of an open addressing hash table (linear probing, without tombstone), each one holding the
+ * root of a treap of the coordinates of its mowers. The nodes of all the treaps are stored in shared <code>int</code>
+ * arrays, without boxing any coordinate, and the nodes of the removed mowers are reused. So adding, removing or
+ * moving a mower, and finding the first mower in front of a cell, take a time logarithmic in the number of mowers of
+ * the line (expected, the priorities of the nodes being random), even on a crowded line. A line without mower is
+ * removed from the table.
+ */
+final class LineIndex {
+
+    /**
+     * Line of a free slot (the lines of the lawn are not negative).
+     */
+    private static final int EMPTY = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The missing node (the node <code>0</code> is never used).
+     */
+    private static final int NIL = 0;
+
+    private static final int INITIAL_NODE_CAPACITY = 64;
+
+    /**
+     * The line of each slot, or {@link #EMPTY}.
+     */
+    private int[] lines = newLines(INITIAL_CAPACITY);
+
+    /**
+     * The root of the treap of each slot.
+     */
+    private int[] roots = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of lines having at least one mower.
+     */
+    private int size;
+
+    /**
+     * The coordinate of each node.
+     */
+    private int[] keys = new int[INITIAL_NODE_CAPACITY];
+
+    /**
+     * The priority of each node (bigger than the ones of its children).
+     */
+    private int[] priorities = new int[INITIAL_NODE_CAPACITY];
+
+    /**
+     * The children of each node (the next free node, in {@link #right}, for the free nodes).
+     */
+    private int[] left = new int[INITIAL_NODE_CAPACITY];
+    private int[] right = new int[INITIAL_NODE_CAPACITY];
+
+    /**
+     * Number of nodes ever used (including {@link #NIL}).
+     */
+    private int nodeCount = 1;
+
+    /**
+     * The first free node, or {@link #NIL}.
+     */
+    private int freeNodes = NIL;
+
+    /**
+     * State of the generator of the priorities (xorshift, never <code>0</code>).
+     */
+    private int seed = 0x9E3779B9;
+
+    /**
+     * Registers a mower on a line.
+     *
+     * @param line       the row (or column) of the mower
+     * @param coordinate its coordinate along the line
+     */
+    void add(final int line, final int coordinate) {
+        int slot = find(line);
+        if (slot < 0) {
+            if ((size + 1) << 1 > lines.length) {
+                // keep the load factor under 1/2
+                rehash(lines.length << 1);
+            }
+            slot = insert(line);
+            size++;
+        }
+        roots[slot] = insertNode(roots[slot], newNode(coordinate));
+    }
+
+    /**
+     * Unregisters a mower from a line.
+     *
+     * @param line       the row (or column) of the mower
+     * @param coordinate its coordinate along the line
+     */
+    void remove(final int line, final int coordinate) {
+        final int slot = find(line);
+        final int root = deleteNode(roots[slot], coordinate);
+        if (root == NIL) {
+            // do not keep every row and column ever visited
+            delete(slot);
+        } else {
+            roots[slot] = root;
+        }
+    }
+
+    /**
+     * Moves a mower along its line.
+     *
+     * @param line the row (or column) of the mower
+     * @param from its current coordinate along the line
+     * @param to   its new coordinate along the line (free)
+     */
+    void move(final int line, final int from, final int to) {
+        final int slot = find(line);
+        // the node of the removed coordinate is reused by the new one
+        final int root = deleteNode(roots[slot], from);
+        roots[slot] = insertNode(root, newNode(to));
+    }
+
+    /**
+     * Returns the number of free cells in front of a mower, along its line.
+     *
+     * @param line       the row (or column) of the mower
+     * @param from       its coordinate along the line
+     * @param increasing <code>true</code> if the mower goes towards bigger coordinates
+     * @param toEdge     number of cells between the mower and the lawn edge
+     * @return the number of cells the mower can move forward
+     */
+    long distanceToObstacle(final int line, final int from, final boolean increasing, final long toEdge) {
+        final int slot = find(line);
+        if (slot < 0) {
+            return toEdge;
+        }
+        long distance = toEdge;
+        // each coordinate met on the way down is closer to the mower than the previous ones on its side
+        for (int node = roots[slot]; node != NIL; ) {
+            final int key = keys[node];
+            if (increasing ? key > from : key < from) {
+                distance = Math.min(distance, Math.abs((long) key - from) - 1);
+                node = increasing ? left[node] : right[node];
+            } else {
+                node = increasing ? right[node] : left[node];
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Adds a node to a treap, and returns its new root.
+     */
+    private int insertNode(final int root, final int node) {
+        if (root == NIL) {
+            return node;
+        }
+        if (keys[node] < keys[root]) {
+            left[root] = insertNode(left[root], node);
+            return priorities[left[root]] > priorities[root] ? rotateRight(root) : root;
+        }
+        right[root] = insertNode(right[root], node);
+        return priorities[right[root]] > priorities[root] ? rotateLeft(root) : root;
+    }
+
+    /**
+     * Removes a coordinate from a treap, and returns its new root ({@link #NIL} if it becomes empty).
+     */
+    private int deleteNode(final int root, final int key) {
+        if (keys[root] == key) {
+            final int merged = merge(left[root], right[root]);
+            right[root] = freeNodes;
+            freeNodes = root;
+            return merged;
+        }
+        if (key < keys[root]) {
+            left[root] = deleteNode(left[root], key);
+        } else {
+            right[root] = deleteNode(right[root], key);
+        }
+        return root;
+    }
+
+    /**
+     * Merges two treaps, all the coordinates of the first one being smaller, and returns the root of the result.
+     */
+    private int merge(final int smaller, final int bigger) {
+        if (smaller == NIL) {
+            return bigger;
+        }
+        if (bigger == NIL) {
+            return smaller;
+        }
+        if (priorities[smaller] > priorities[bigger]) {
+            right[smaller] = merge(right[smaller], bigger);
+            return smaller;
+        }
+        left[bigger] = merge(smaller, left[bigger]);
+        return bigger;
+    }
+
+    private int rotateRight(final int node) {
+        final int child = left[node];
+        left[node] = right[child];
+        right[child] = node;
+        return child;
+    }
+
+    private int rotateLeft(final int node) {
+        final int child = right[node];
+        right[node] = left[child];
+        left[child] = node;
+        return child;
+    }
+
+    /**
+     * Returns a node holding a coordinate, without children (a free node if any).
+     */
+    private int newNode(final int key) {
+        int node = freeNodes;
+        if (node != NIL) {
+            freeNodes = right[node];
+        } else {
+            if (nodeCount == keys.length) {
+                final int capacity = nodeCount << 1;
+                keys = Arrays.copyOf(keys, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+            node = nodeCount++;
+        }
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        keys[node] = key;
+        priorities[node] = seed;
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
+    }
+
+    /**
+     * Returns the slot of a line, or <code>-1</code> if it has no mower.
+     */
+    private int find(final int line) {
+        final int mask = lines.length - 1;
+        for (int slot = hash(line, mask); ; slot = (slot + 1) & mask) {
+            if (lines[slot] == line) {
+                return slot;
+            }
+            if (lines[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Adds a line to the table (without its coordinates), and returns its slot.
+     */
+    private int insert(final int line) {
+        final int mask = lines.length - 1;
+        int slot = hash(line, mask);
+        while (lines[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        lines[slot] = line;
+        roots[slot] = NIL;
+        return slot;
+    }
+
+    /**
+     * Removes the line of a slot, shifting back the following lines of the cluster (no tombstone).
+     */
+    private void delete(final int slot) {
+        final int mask = lines.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; lines[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hash(lines[next], mask);
+            // move the line into the hole only if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                lines[hole] = lines[next];
+                roots[hole] = roots[next];
+                hole = next;
+            }
+        }
+        lines[hole] = EMPTY;
+        roots[hole] = NIL;
+        size--;
+    }
+
+    private void rehash(final int capacity) {
+        final int[] oldLines = lines;
+        final int[] oldRoots = roots;
+        lines = newLines(capacity);
+        roots = new int[capacity];
+        for (int slot = 0; slot < oldLines.length; slot++) {
+            if (oldLines[slot] != EMPTY) {
+                roots[insert(oldLines[slot])] = oldRoots[slot];
+            }
+        }
+    }
+
+    /**
+     * Spreads the lines over the table (Fibonacci hashing).
+     */
+    private static int hash(final int line, final int mask) {
+        return (int) ((line * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static int @NotNull [] newLines(final int capacity) {
+        final int[] newLines = new int[capacity];
+        Arrays.fill(newLines, EMPTY);
+        return newLines;
+    }
+}
@@ -0,0 +1,493 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.LawnExecutionEvent;
+import com.publicisgroupe.lawnmower.models.CoverageMap;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.models.OccupancyIndex;
+import com.publicisgroupe.lawnmower.models.RepeatBlock;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This engine executes independent groups of mowers concurrently.
+ * <p>
+ * The turns of a mower do not depend on the other mowers, so its program tells how many forward moves it may do
+ * towards each direction. This gives a rectangle (its envelope) that the mower cannot leave, whatever blocks it.
+ * Two mowers whose envelopes intersect may interact; the connected components of this conflict graph cannot, so:
+ * <ul>
+ *     <li>the mowers of a component are executed sequentially, in the file order</li>
+ *     <li>the components are executed concurrently on a {@link ForkJoinPool}, each one with its own occupancy
+ *     index covering only its envelopes (and its own coverage map, merged into the lawn one when it is done)</li>
+ * </ul>
+ * The results are displayed in the file order once all the mowers are done, so the output is exactly the one of
+ * {@link Lawn#moveAllMowers()}.
+ */
+public class ParallelEngine implements SimulationEngine {
+
+    /**
+     * Number of batches of components given to each worker thread (to balance the load).
+     */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    /**
+     * The lawn and its mowers.
+     */
+    private final @NotNull Lawn lawn;
+
+    /**
+     * The pool executing the components.
+     */
+    private final @NotNull ForkJoinPool pool;
+
+    /**
+     * Envelope of each mower (in the order of the lawn mowers).
+     */
+    private int[] minX;
+    private int[] minY;
+    private int[] maxX;
+    private int[] maxY;
+
+    /**
+     * Union-find forest of the conflict graph.
+     */
+    private int[] parent;
+
+    /**
+     * Creates an engine for the given lawn, using the common pool.
+     *
+     * @param lawn the lawn and its mowers
+     */
+    public ParallelEngine(final @NotNull Lawn lawn) {
+        this(lawn, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine for the given lawn.
+     *
+     * @param lawn the lawn and its mowers
+     * @param pool the pool executing the independent groups of mowers
+     */
+    public ParallelEngine(final @NotNull Lawn lawn, final @NotNull ForkJoinPool pool) {
+        this.lawn = lawn;
+        this.pool = pool;
+    }
+
+    /**
+     * Move all the mowers, and display their final position in the order of the file.
+     */
+    public void moveAllMowers() {
+        final ResultSink sink = ResultFormat.TEXT.open(System.out);
+        moveAllMowers(sink);
+        sink.flush();
+    }
+
+    /**
+     * Move all the mowers, and display their final position in the order of the file.
+     *
+     * @param sink where the final position of each mower is written
+     */
+    @Override
+    public void moveAllMowers(final @NotNull ResultSink sink) {
+        final LawnExecutionEvent event = FlightEvents.isEnabled() ? LawnExecutionEvent.start() : null;
+        final MowerFleet mowers = lawn.fleet();
+        final int count = mowers.size();
+        final int[] startX = new int[count];
+        final int[] startY = new int[count];
+        for (int i = 0; i < count; i++) {
+            startX[i] = mowers.getX(i);
+            startY[i] = mowers.getY(i);
+        }
+
+        computeEnvelopes();
+        linkConflictingMowers();
+        final List<int[]> components = components();
+
+        if (components.size() == 1) {
+            executeComponent(components.get(0));
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(batches(components))));
+        }
+
+        // the lawn index was not used by the components: update it with the final positions
+        for (int i = 0; i < count; i++) {
+            lawn.occupancy().remove(startX[i], startY[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            lawn.occupancy().add(mowers.getX(i), mowers.getY(i));
+        }
+
+        for (int i = 0; i < count; i++) {
+            sink.accept(mowers, i);
+        }
+        if (event != null) {
+            event.end(lawn, EngineType.PARALLEL.name());
+        }
+    }
+
+    /**
+     * Execute all the instructions of the given mower, sequentially: a single mower has nothing to run concurrently.
+     *
+     * @param mower index of a mower of the lawn
+     */
+    @Override
+    public void execute(final int mower) {
+        lawn.fleet().execute(mower, lawn.occupancy());
+    }
+
+    /**
+     * Computes the rectangle each mower cannot leave: from its start position, as many cells as the number of forward
+     * moves towards each direction (clamped to the lawn).
+     * <p>
+     * The body of a repeated block is scanned once: its iterations start towards the directions given by its
+     * rotation, so its moves are only multiplied and rotated.
+     */
+    private void computeEnvelopes() {
+        final MowerFleet mowers = lawn.fleet();
+        final int count = mowers.size();
+        minX = new int[count];
+        minY = new int[count];
+        maxX = new int[count];
+        maxY = new int[count];
+
+        // forward moves towards the north, east, south and west
+        final long[] moves = new long[4];
+        // forward moves of one iteration of a block, relative to its start direction
+        final long[] body = new long[4];
+        for (int i = 0; i < count; i++) {
+            final InstructionProgram instructions = mowers.getInstructions(i);
+            Arrays.fill(moves, 0);
+            int direction = mowers.getHeading(i);
+            int from = 0;
+            for (int b = 0; b < instructions.blockCount(); b++) {
+                final RepeatBlock block = instructions.block(b);
+                direction = countMoves(instructions, from, block.start(), direction, moves);
+                Arrays.fill(body, 0);
+                countMoves(instructions, block.start(), block.end(), 0, body);
+                final int period = block.period();
+                for (int k = 0; k < period; k++) {
+                    // the iterations k, k + period, k + 2 * period... start towards the same direction
+                    final long iterations = block.count() / period + (k < block.count() % period ? 1 : 0);
+                    final int first = (direction + k * block.turns()) & 3;
+                    for (int d = 0; d < 4; d++) {
+                        moves[(first + d) & 3] += iterations * body[d];
+                    }
+                }
+                direction = (int) ((direction + (long) block.count() * block.turns()) & 3);
+                from = block.end();
+            }
+            countMoves(instructions, from, instructions.length(), direction, moves);
+            minX[i] = (int) Math.max(0, mowers.getX(i) - moves[3]);
+            maxX[i] = (int) Math.min(lawn.maxX(), mowers.getX(i) + moves[1]);
+            minY[i] = (int) Math.max(0, mowers.getY(i) - moves[2]);
+            maxY[i] = (int) Math.min(lawn.maxY(), mowers.getY(i) + moves[0]);
+        }
+    }
+
+    /**
+     * Counts the forward moves towards each direction of the instructions from <code>from</code> (included) to
+     * <code>to</code> (excluded).
+     *
+     * @return the direction at the end of the instructions
+     */
+    private static int countMoves(final @NotNull InstructionProgram instructions, final int from, final int to,
+                                  final int startDirection, final long @NotNull [] moves) {
+        int direction = startDirection;
+        int op = from;
+        while (op < to) {
+            switch (instructions.get(op)) {
+                case InstructionProgram.RIGHT -> {
+                    direction = (direction + 1) & 3;
+                    op++;
+                }
+                case InstructionProgram.LEFT -> {
+                    direction = (direction + 3) & 3;
+                    op++;
+                }
+                default -> {
+                    final int run = instructions.forwardRun(op, to);
+                    moves[direction] += run;
+                    op += run;
+                }
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * Links the mowers whose envelopes intersect, sweeping the envelopes sorted by their west side.
+     * <p>
+     * The envelopes still crossing the sweep line are kept in a {@link ConflictTree} on their south and north sides,
+     * so each envelope is only compared with a few of them, even when they are wide and all overlap.
+     */
+    private void linkConflictingMowers() {
+        final int count = minX.length;
+        parent = new int[count];
+        final long[] sorted = new long[count];
+        final int[] sides = new int[2 * count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+            sorted[i] = ((long) minX[i] << 32) | i;
+            sides[2 * i] = minY[i];
+            sides[2 * i + 1] = maxY[i];
+        }
+        Arrays.sort(sorted);
+        Arrays.sort(sides);
+        int distinct = 0;
+        for (int k = 0; k < sides.length; k++) {
+            if (k == 0 || sides[k] != sides[distinct - 1]) {
+                sides[distinct++] = sides[k];
+            }
+        }
+
+        final ConflictTree tree = new ConflictTree(distinct);
+        for (int a = 0; a < count; a++) {
+            final int i = (int) sorted[a];
+            tree.link(i, Arrays.binarySearch(sides, 0, distinct, minY[i]),
+                    Arrays.binarySearch(sides, 0, distinct, maxY[i]));
+        }
+    }
+
+    /**
+     * Returns the mowers of each component (in the file order), the components being sorted by their first mower.
+     */
+    private @NotNull List<int[]> components() {
+        final int count = parent.length;
+        final int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            sizes[find(i)]++;
+        }
+        final int[][] members = new int[count][];
+        final List<int[]> components = new ArrayList<>();
+        final int[] filled = new int[count];
+        for (int i = 0; i < count; i++) {
+            final int root = find(i);
+            if (members[root] == null) {
+                members[root] = new int[sizes[root]];
+                components.add(members[root]);
+            }
+            members[root][filled[root]++] = i;
+        }
+        return components;
+    }
+
+    /**
+     * Groups the components into batches of similar weight (number of instructions).
+     */
+    private @NotNull List<ForkJoinTask<?>> batches(final @NotNull List<int[]> components) {
+        final MowerFleet mowers = lawn.fleet();
+        long total = 0;
+        for (int i = 0; i < mowers.size(); i++) {
+            total += mowers.getInstructions(i).length() + 1;
+        }
+        final long batchWeight = Math.max(1, total / ((long) pool.getParallelism() * BATCHES_PER_THREAD));
+
+        final List<ForkJoinTask<?>> batches = new ArrayList<>();
+        List<int[]> batch = new ArrayList<>();
+        long weight = 0;
+        for (final int[] component : components) {
+            batch.add(component);
+            for (final int i : component) {
+                weight += mowers.getInstructions(i).length() + 1;
+            }
+            if (weight >= batchWeight) {
+                batches.add(batchTask(batch));
+                batch = new ArrayList<>();
+                weight = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batchTask(batch));
+        }
+        return batches;
+    }
+
+    private @NotNull ForkJoinTask<?> batchTask(final @NotNull List<int[]> batch) {
+        return ForkJoinTask.adapt(() -> batch.forEach(this::executeComponent));
+    }
+
+    /**
+     * Executes the mowers of a component sequentially, with an occupancy index covering only their envelopes.
+     * <p>
+     * If the coverage is tracked, the component records it in a map of its own: the components visit disjoint cells,
+     * so their maps are merged into the lawn one without changing the contribution of any mower.
+     */
+    private void executeComponent(final int @NotNull [] component) {
+        int left = Integer.MAX_VALUE;
+        int bottom = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int top = Integer.MIN_VALUE;
+        for (final int i : component) {
+            left = Math.min(left, minX[i]);
+            bottom = Math.min(bottom, minY[i]);
+            right = Math.max(right, maxX[i]);
+            top = Math.max(top, maxY[i]);
+        }
+
+        final OccupancyIndex occupancy = new OccupancyIndex(left, bottom, right, top);
+        final MowerFleet mowers = lawn.fleet();
+        for (final int i : component) {
+            occupancy.add(mowers.getX(i), mowers.getY(i));
+        }
+        final CoverageMap coverage = lawn.coverage() == null ? null : new CoverageMap();
+        if (coverage != null) {
+            for (final int i : component) {
+                // the init positions are already mowed (and counted)
+                coverage.add(mowers.getX(i), mowers.getY(i));
+                mowers.trackCoverage(i, coverage);
+            }
+        }
+        for (final int i : component) {
+            mowers.execute(i, occupancy);
+        }
+        if (coverage != null) {
+            synchronized (lawn.coverage()) {
+                lawn.coverage().addAll(coverage);
+            }
+            for (final int i : component) {
+                mowers.trackCoverage(i, lawn.coverage());
+            }
+        }
+    }
+
+    private int find(final int i) {
+        int root = i;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // path compression
+        int current = i;
+        while (parent[current] != root) {
+            final int next = parent[current];
+            parent[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    private void union(final int i, final int j) {
+        final int rootI = find(i);
+        final int rootJ = find(j);
+        if (rootI != rootJ) {
+            parent[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+        }
+    }
+
+    /**
+     * Segment tree on the south and north sides of the envelopes met by the sweep, linking each new envelope to the
+     * ones it intersects.
+     * <p>
+     * Each node keeps the envelopes covering its whole range, and the envelopes crossing some of it. Any envelope
+     * reaching a node intersects all the envelopes covering it, and any envelope covering a node intersects all the
+     * envelopes crossing it: once linked, these envelopes are in the same component and equivalent for the next ones,
+     * so only the one leaving the sweep last is kept. Each envelope is thus compared a logarithmic number of times
+     * (amortized), and the ones left behind by the sweep are dropped when they are met.
+     */
+    private final class ConflictTree {
+
+        /**
+         * Number of distinct sides (leaves of the tree).
+         */
+        private final int leaves;
+
+        /**
+         * Envelopes covering the range of each node, and their number.
+         */
+        private final int[][] covering;
+        private final int[] coveringCount;
+
+        /**
+         * Envelopes crossing the range of each node, and their number.
+         */
+        private final int[][] crossing;
+        private final int[] crossingCount;
+
+        private ConflictTree(final int leaves) {
+            this.leaves = leaves;
+            int nodes = 1;
+            while (nodes < leaves) {
+                nodes <<= 1;
+            }
+            covering = new int[2 * nodes][];
+            coveringCount = new int[2 * nodes];
+            crossing = new int[2 * nodes][];
+            crossingCount = new int[2 * nodes];
+        }
+
+        /**
+         * Links the given envelope with the ones it intersects, then adds it to the tree.
+         *
+         * @param i    the mower of the envelope, whose west side is not before the one of the envelopes of the tree
+         * @param from index of its south side
+         * @param to   index of its north side
+         */
+        private void link(final int i, final int from, final int to) {
+            link(1, 0, leaves - 1, i, from, to);
+        }
+
+        private void link(final int node, final int low, final int high, final int i, final int from, final int to) {
+            final boolean covered = from <= low && high <= to;
+            coveringCount[node] = absorb(covering, coveringCount[node], node, i, covered);
+            if (covered) {
+                crossingCount[node] = absorb(crossing, crossingCount[node], node, i, true);
+                return;
+            }
+            crossingCount[node] = append(crossing, crossingCount[node], node, i);
+            final int middle = (low + high) >>> 1;
+            if (from <= middle) {
+                link(2 * node, low, middle, i, from, to);
+            }
+            if (to > middle) {
+                link(2 * node + 1, middle + 1, high, i, from, to);
+            }
+        }
+
+        /**
+         * Links the envelope with the ones of a node still crossing the sweep line, and keeps only the one leaving it
+         * last (the given envelope included if it must be added).
+         *
+         * @return the new number of envelopes of the node
+         */
+        private int absorb(final int @NotNull [][] lists, final int size, final int node, final int i,
+                           final boolean add) {
+            int kept = add ? i : -1;
+            for (int k = 0; k < size; k++) {
+                final int j = lists[node][k];
+                if (maxX[j] >= minX[i]) {
+                    union(i, j);
+                    if (kept < 0 || maxX[j] > maxX[kept]) {
+                        kept = j;
+                    }
+                }
+            }
+            if (kept < 0) {
+                return 0;
+            }
+            return append(lists, 0, node, kept);
+        }
+
+        /**
+         * Adds an envelope to the ones of a node.
+         *
+         * @return the new number of envelopes of the node
+         */
+        private static int append(final int @NotNull [][] lists, final int size, final int node, final int i) {
+            if (lists[node] == null) {
+                lists[node] = new int[2];
+            } else if (size == lists[node].length) {
+                lists[node] = Arrays.copyOf(lists[node], 2 * size);
+            }
+            lists[node][size] = i;
+            return size + 1;
+        }
+    }
+}
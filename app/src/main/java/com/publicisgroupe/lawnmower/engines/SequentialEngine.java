@@ -0,0 +1,36 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The reference engine: the mowers are executed step by step by the lawn itself (see
+ * {@link Lawn#moveAllMowers(ResultSink)}), the other engines must give the same results.
+ */
+public class SequentialEngine implements SimulationEngine {
+
+    /**
+     * The lawn and its mowers.
+     */
+    private final @NotNull Lawn lawn;
+
+    /**
+     * Creates an engine for the given lawn.
+     *
+     * @param lawn the lawn and its mowers
+     */
+    public SequentialEngine(final @NotNull Lawn lawn) {
+        this.lawn = lawn;
+    }
+
+    @Override
+    public void moveAllMowers(final @NotNull ResultSink sink) {
+        lawn.moveAllMowers(sink);
+    }
+
+    @Override
+    public void execute(final int mower) {
+        lawn.fleet().execute(mower, lawn.occupancy());
+    }
+}
@@ -0,0 +1,29 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An engine executing the mowers of a lawn, created for that lawn by its {@link EngineType}.
+ * <p>
+ * Every engine must give the results of the reference one, {@link SequentialEngine} (the mowers are executed one
+ * after the other, in the order of the lawn, and a forward move is ignored when the next cell is not free): the same
+ * final position, orientation and blocked moves for each mower, and the same occupied cells.
+ */
+public interface SimulationEngine {
+
+    /**
+     * Executes all the mowers of the lawn, and writes their final position in the order of the lawn.
+     *
+     * @param sink where the final position of each mower is written
+     */
+    void moveAllMowers(@NotNull ResultSink sink);
+
+    /**
+     * Executes all the instructions of one mower, the previous ones of the lawn being already executed.
+     *
+     * @param mower index of a mower of the lawn (see {@link Lawn#fleet()})
+     */
+    void execute(int mower);
+}
@@ -0,0 +1,46 @@
+package com.publicisgroupe.lawnmower.events;
+
+import com.publicisgroupe.lawnmower.services.I18n;
+
+/**
+ * Switch of the flight recorder events of the application.
+ * <p>
+ * The first load of a {@link jdk.jfr.Event} class makes the JVM set up its event instrumentation, which costs a few
+ * hundred milliseconds: far more than most runs. So the events are only created when they are switched on, and their
+ * classes are not even loaded otherwise: the instrumented code starts with a check of {@link #isEnabled()}.
+ * <p>
+ * They are switched on by {@link com.publicisgroupe.lawnmower.services.FlightRecording} (the <code>--jfr</code>
+ * option), or with the <code>lawnmower.jfr</code> system property (<code>-Dlawnmower.jfr=true</code>) for a recording
+ * started outside of the application (<code>-XX:StartFlightRecording</code>, <code>jcmd JFR.start</code>).
+ */
+public final class FlightEvents {
+
+    /**
+     * <code>true</code> to create the events.
+     */
+    private static volatile boolean enabled = Boolean.getBoolean("lawnmower.jfr"); //$NON-NLS-1$
+
+    private FlightEvents() {
+        throw new RuntimeException(
+                I18n.getMessage("private.class.instantiation") //$NON-NLS-1$
+        );
+    }
+
+    /**
+     * Tells if the events are created.
+     *
+     * @return <code>true</code> if the events are switched on
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches the events on or off.
+     *
+     * @param enabled <code>true</code> to create the events
+     */
+    public static void setEnabled(final boolean enabled) {
+        FlightEvents.enabled = enabled;
+    }
+}
@@ -0,0 +1,72 @@
+package com.publicisgroupe.lawnmower.events;
+
+import com.publicisgroupe.lawnmower.models.Lawn;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of the execution of all the mowers of a lawn, by one of the engines.
+ * <p>
+ * Like {@link MowerExecutionEvent}, it is only created when the events are switched on.
+ */
+@Name("com.publicisgroupe.lawnmower.LawnExecution") //$NON-NLS-1$
+@Label("Lawn Execution") //$NON-NLS-1$
+@Category("Lawnmower") //$NON-NLS-1$
+@Description("Execution of all the mowers of a lawn") //$NON-NLS-1$
+@StackTrace(false)
+public class LawnExecutionEvent extends Event {
+
+    @Label("Engine") //$NON-NLS-1$
+    String engine;
+
+    @Label("Width") //$NON-NLS-1$
+    int width;
+
+    @Label("Height") //$NON-NLS-1$
+    int height;
+
+    @Label("Mowers") //$NON-NLS-1$
+    int mowers;
+
+    @Label("Blocked Moves") //$NON-NLS-1$
+    @Description("Forward moves blocked by another mower or by the lawn edge, for all the mowers") //$NON-NLS-1$
+    long blockedMoves;
+
+    /**
+     * Begins the event of the execution of a lawn.
+     * <p>
+     * This must only be called when the events are switched on (see {@link FlightEvents#isEnabled()}).
+     *
+     * @return a new event
+     */
+    public static @NotNull LawnExecutionEvent start() {
+        final LawnExecutionEvent event = new LawnExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event, and commits it if it is recorded.
+     *
+     * @param lawn   the executed lawn
+     * @param engine name of the engine (see {@link com.publicisgroupe.lawnmower.engines.EngineType})
+     */
+    public void end(final @NotNull Lawn lawn, final @NotNull String engine) {
+        end();
+        if (shouldCommit()) {
+            this.engine = engine;
+            width = lawn.maxX() + 1;
+            height = lawn.maxY() + 1;
+            mowers = lawn.fleet().size();
+            for (int mower = 0; mower < mowers; mower++) {
+                blockedMoves += lawn.fleet().getBlockedMoves(mower);
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.publicisgroupe.lawnmower.events;
+
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of the execution of all the instructions of a mower.
+ * <p>
+ * It is only created when the events are switched on (see {@link FlightEvents}), and its fields are only set if it
+ * is committed (see {@link #end(MowerFleet, int, long)}).
+ */
+@Name("com.publicisgroupe.lawnmower.MowerExecution") //$NON-NLS-1$
+@Label("Mower Execution") //$NON-NLS-1$
+@Category("Lawnmower") //$NON-NLS-1$
+@Description("Execution of all the instructions of a mower") //$NON-NLS-1$
+@StackTrace(false)
+public class MowerExecutionEvent extends Event {
+
+    @Label("Instructions") //$NON-NLS-1$
+    @Description("Number of executed instructions (the iterations of the repeated blocks included)") //$NON-NLS-1$
+    long instructions;
+
+    @Label("Repeated Blocks") //$NON-NLS-1$
+    int repeatedBlocks;
+
+    @Label("Blocked Moves") //$NON-NLS-1$
+    @Description("Forward moves blocked by another mower or by the lawn edge") //$NON-NLS-1$
+    long blockedMoves;
+
+    @Label("Final X") //$NON-NLS-1$
+    int x;
+
+    @Label("Final Y") //$NON-NLS-1$
+    int y;
+
+    /**
+     * Begins the event of the execution of a mower.
+     * <p>
+     * This must only be called when the events are switched on (see {@link FlightEvents#isEnabled()}).
+     *
+     * @return a new event
+     */
+    public static @NotNull MowerExecutionEvent start() {
+        final MowerExecutionEvent event = new MowerExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event, and commits it if it is recorded.
+     *
+     * @param fleet         the fleet of the executed mower
+     * @param mower         index of the executed mower in the fleet
+     * @param blockedBefore blocked moves of the mower before the execution
+     */
+    public void end(final @NotNull MowerFleet fleet, final int mower, final long blockedBefore) {
+        end();
+        if (shouldCommit()) {
+            instructions = fleet.getInstructions(mower).steps();
+            repeatedBlocks = fleet.getInstructions(mower).blockCount();
+            blockedMoves = fleet.getBlockedMoves(mower) - blockedBefore;
+            x = fleet.getX(mower);
+            y = fleet.getY(mower);
+            commit();
+        }
+    }
+}
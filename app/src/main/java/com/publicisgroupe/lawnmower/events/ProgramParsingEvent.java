@@ -0,0 +1,70 @@
+package com.publicisgroupe.lawnmower.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of the reading of a program: its lawn and the init positions of its mowers (and their
+ * instructions, unless they are read again later by the streaming mode).
+ * <p>
+ * Like {@link MowerExecutionEvent}, it is only created when the events are switched on.
+ */
+@Name("com.publicisgroupe.lawnmower.ProgramParsing") //$NON-NLS-1$
+@Label("Program Parsing") //$NON-NLS-1$
+@Category("Lawnmower") //$NON-NLS-1$
+@Description("Reading of a program file, text or compiled") //$NON-NLS-1$
+@StackTrace(false)
+public class ProgramParsingEvent extends Event {
+
+    @Label("Program") //$NON-NLS-1$
+    String program;
+
+    @Label("Compiled") //$NON-NLS-1$
+    boolean compiled;
+
+    @Label("Size") //$NON-NLS-1$
+    @DataAmount
+    long size;
+
+    @Label("Mowers") //$NON-NLS-1$
+    @Description("Mowers put on the lawn (the ignored ones are not counted)") //$NON-NLS-1$
+    int mowers;
+
+    /**
+     * Begins the event of the reading of a program.
+     * <p>
+     * This must only be called when the events are switched on (see {@link FlightEvents#isEnabled()}).
+     *
+     * @return a new event
+     */
+    public static @NotNull ProgramParsingEvent start() {
+        final ProgramParsingEvent event = new ProgramParsingEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event, and commits it if it is recorded.
+     *
+     * @param program  name of the program
+     * @param compiled <code>true</code> for a compiled program
+     * @param size     size of the program, in bytes
+     * @param mowers   number of mowers put on the lawn
+     */
+    public void end(final @NotNull String program, final boolean compiled, final long size, final int mowers) {
+        end();
+        if (shouldCommit()) {
+            this.program = program;
+            this.compiled = compiled;
+            this.size = size;
+            this.mowers = mowers;
+            commit();
+        }
+    }
+}
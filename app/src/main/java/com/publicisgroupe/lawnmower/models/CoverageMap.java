@@ -0,0 +1,452 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class records the cells of a {@link Lawn} that have been mowed (visited by a lawnmower at least once).
+ * <p>
+ * The lawn is cut into square tiles of {@link #TILE_SIZE} x {@link #TILE_SIZE} cells, and only the visited tiles are
+ * stored, each one in the cheapest of these containers (like a roaring bitmap does):
+ * <ul>
+ *     <li>a sorted array of the visited cells (2 bytes per cell), while the tile has few visited cells</li>
+ *     <li>a bitmap (8 KB) once the array would be bigger</li>
+ *     <li>nothing at all once every cell of the tile is visited</li>
+ * </ul>
+ * So the memory depends on the visited cells, not on the size of the lawn. The tiles are found through an
+ * open-addressing hash table, and the last used tile is kept aside since a mower moves one cell at a time.
+ * <p>
+ * Only cells with non-negative coordinates can be recorded. A map is not thread-safe.
+ */
+public final class CoverageMap {
+
+    /**
+     * Number of bits of the coordinates inside a tile.
+     */
+    private static final int TILE_BITS = 8;
+
+    /**
+     * Width (and height) of a tile, in cells.
+     */
+    public static final int TILE_SIZE = 1 << TILE_BITS;
+
+    /**
+     * Number of cells of a tile.
+     */
+    private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+
+    private static final int CELL_MASK = TILE_SIZE - 1;
+
+    /**
+     * Biggest array container: beyond this, the bitmap is smaller.
+     */
+    private static final int MAX_ARRAY_SIZE = TILE_CELLS / Character.SIZE;
+
+    /**
+     * Bitmap shared by all the full tiles.
+     */
+    private static final long[] FULL = new long[TILE_CELLS / Long.SIZE];
+
+    static {
+        Arrays.fill(FULL, -1L);
+    }
+
+    /**
+     * Marker of a free slot in the hash table (tile keys are never negative).
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * Packed coordinates of each tile of the hash table.
+     */
+    private long[] keys = newKeys(16);
+
+    /**
+     * Tiles of the hash table (at the same slot as their key).
+     */
+    private Tile[] tiles = new Tile[16];
+
+    /**
+     * Number of tiles.
+     */
+    private int tileCount;
+
+    /**
+     * Number of visited cells.
+     */
+    private long cardinality;
+
+    /**
+     * Last used tile, and its key.
+     */
+    private long lastKey = EMPTY;
+
+    private Tile lastTile;
+
+    /**
+     * Records a visited cell.
+     *
+     * @param x X coordinate of the cell (not negative)
+     * @param y Y coordinate of the cell (not negative)
+     * @return <code>true</code> if the cell was not visited before
+     */
+    public boolean add(final int x, final int y) {
+        final long key = pack(x >>> TILE_BITS, y >>> TILE_BITS);
+        final Tile tile = (key == lastKey) ? lastTile : tile(key, true);
+        if (tile.add(((y & CELL_MASK) << TILE_BITS) | (x & CELL_MASK))) {
+            cardinality++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a cell has been visited.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>true</code> if the cell has been visited
+     */
+    public boolean contains(final int x, final int y) {
+        if (x < 0 || y < 0) {
+            return false;
+        }
+        final Tile tile = tile(pack(x >>> TILE_BITS, y >>> TILE_BITS), false);
+        return tile != null && tile.contains(((y & CELL_MASK) << TILE_BITS) | (x & CELL_MASK));
+    }
+
+    /**
+     * Records all the cells visited in another map.
+     *
+     * @param other the other map
+     */
+    public void addAll(final @NotNull CoverageMap other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.keys[slot] != EMPTY) {
+                cardinality += tile(other.keys[slot], true).addAll(other.tiles[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of visited cells.
+     *
+     * @return the number of mowed cells
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Returns the number of tiles having at least one visited cell.
+     *
+     * @return the number of stored tiles
+     */
+    public int tileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Returns an estimation of the memory used by the map.
+     *
+     * @return a number of bytes
+     */
+    public long sizeInBytes() {
+        long bytes = (long) keys.length * (Long.BYTES + Integer.BYTES);
+        for (final Tile tile : tiles) {
+            if (tile != null) {
+                bytes += tile.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Receives the visited tiles of a map.
+     */
+    @FunctionalInterface
+    public interface TileVisitor {
+        /**
+         * Receives a visited tile.
+         *
+         * @param tileX       X coordinate of the tile (its first cell is at <code>tileX * TILE_SIZE</code>)
+         * @param tileY       Y coordinate of the tile
+         * @param cardinality number of visited cells of the tile
+         */
+        void visit(int tileX, int tileY, int cardinality);
+    }
+
+    /**
+     * Calls the visitor for each tile having at least one visited cell (in no particular order).
+     *
+     * @param visitor the visitor of the tiles
+     */
+    public void forEachTile(final @NotNull TileVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                visitor.visit((int) (keys[slot] >>> 32), (int) keys[slot], tiles[slot].size);
+            }
+        }
+    }
+
+    /**
+     * Writes the visited cells, in the compressed form of the tiles.
+     *
+     * @param out where the map is written
+     * @throws IOException if an I/O error occurs
+     * @see #read(DataInput)
+     */
+    public void write(final @NotNull DataOutput out) throws IOException {
+        out.writeInt(tileCount);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                out.writeLong(keys[slot]);
+                tiles[slot].write(out);
+            }
+        }
+    }
+
+    /**
+     * Reads a map written by {@link #write(DataOutput)}.
+     *
+     * @param in where the map is read
+     * @return a new map
+     * @throws IOException if an I/O error occurs, or if the data is not a valid map
+     */
+    public static @NotNull CoverageMap read(final @NotNull DataInput in) throws IOException {
+        final CoverageMap map = new CoverageMap();
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("invalid tile count " + count); //$NON-NLS-1$
+        }
+        for (int i = 0; i < count; i++) {
+            final long key = in.readLong();
+            final Tile tile = key < 0 || (int) key < 0 ? null : map.tile(key, true);
+            if (tile == null || tile.size != 0) {
+                throw new IOException("invalid tile " + Long.toHexString(key)); //$NON-NLS-1$
+            }
+            tile.read(in);
+            map.cardinality += tile.size;
+        }
+        return map;
+    }
+
+    /**
+     * Finds the tile of the given key (creating it if asked).
+     */
+    private Tile tile(final long key, final boolean create) {
+        final int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                if (!create) {
+                    return null;
+                }
+                if ((tileCount + 1) * 4L > keys.length * 3L) {
+                    rehash(keys.length << 1);
+                    return tile(key, true);
+                }
+                keys[slot] = key;
+                tiles[slot] = new Tile();
+                tileCount++;
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (create) {
+            lastKey = key;
+            lastTile = tiles[slot];
+        }
+        return tiles[slot];
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final Tile[] oldTiles = tiles;
+        keys = newKeys(capacity);
+        tiles = new Tile[capacity];
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                tiles[slot] = oldTiles[i];
+            }
+        }
+    }
+
+    private static long[] newKeys(final int capacity) {
+        final long[] newKeys = new long[capacity];
+        Arrays.fill(newKeys, EMPTY);
+        return newKeys;
+    }
+
+    /**
+     * Packs both (positive) tile coordinates into a single <code>long</code>.
+     */
+    private static long pack(final int tileX, final int tileY) {
+        return ((long) tileX << 32) | tileY;
+    }
+
+    /**
+     * Spreads the packed coordinates over the table (Fibonacci hashing).
+     */
+    private static int hash(final long key, final int mask) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    /**
+     * The visited cells of a tile, numbered row by row.
+     */
+    private static final class Tile {
+
+        /**
+         * Sorted visited cells, <code>null</code> once the tile uses a bitmap.
+         */
+        private char[] array = new char[4];
+
+        /**
+         * One bit per cell, <code>null</code> while the tile uses an array.
+         */
+        private long[] bitmap;
+
+        /**
+         * Number of visited cells.
+         */
+        private int size;
+
+        private boolean add(final int cell) {
+            if (bitmap != null) {
+                final int word = cell >>> 6;
+                final long bit = 1L << cell;
+                if ((bitmap[word] & bit) != 0) {
+                    return false;
+                }
+                bitmap[word] |= bit;
+                if (++size == TILE_CELLS) {
+                    // the whole tile is visited: nothing to store anymore
+                    bitmap = FULL;
+                }
+                return true;
+            }
+            int position = Arrays.binarySearch(array, 0, size, (char) cell);
+            if (position >= 0) {
+                return false;
+            }
+            if (size == MAX_ARRAY_SIZE) {
+                toBitmap();
+                return add(cell);
+            }
+            position = -position - 1;
+            if (size == array.length) {
+                array = Arrays.copyOf(array, Math.min(MAX_ARRAY_SIZE, size << 1));
+            }
+            System.arraycopy(array, position, array, position + 1, size - position);
+            array[position] = (char) cell;
+            size++;
+            return true;
+        }
+
+        private boolean contains(final int cell) {
+            if (bitmap != null) {
+                return (bitmap[cell >>> 6] & (1L << cell)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, size, (char) cell) >= 0;
+        }
+
+        /**
+         * Adds the visited cells of another tile, and returns the number of new ones.
+         */
+        private int addAll(final @NotNull Tile other) {
+            final int previousSize = size;
+            if (other.bitmap == null) {
+                for (int i = 0; i < other.size; i++) {
+                    add(other.array[i]);
+                }
+                return size - previousSize;
+            }
+            for (int word = 0; word < other.bitmap.length; word++) {
+                for (long bits = other.bitmap[word]; bits != 0; bits &= bits - 1) {
+                    add((word << 6) | Long.numberOfTrailingZeros(bits));
+                }
+            }
+            return size - previousSize;
+        }
+
+        /**
+         * Writes the number of visited cells, then the bitmap or the sorted cells (nothing for a full tile).
+         */
+        private void write(final @NotNull DataOutput out) throws IOException {
+            out.writeInt(size);
+            if (bitmap == FULL) {
+                return;
+            }
+            if (bitmap != null) {
+                for (final long word : bitmap) {
+                    out.writeLong(word);
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    out.writeChar(array[i]);
+                }
+            }
+        }
+
+        /**
+         * Reads the cells of an empty tile, written by {@link #write(DataOutput)}.
+         */
+        private void read(final @NotNull DataInput in) throws IOException {
+            final int count = in.readInt();
+            if (count <= 0 || count > TILE_CELLS) {
+                throw new IOException("invalid cell count " + count); //$NON-NLS-1$
+            }
+            if (count == TILE_CELLS) {
+                array = null;
+                bitmap = FULL;
+            } else if (count > MAX_ARRAY_SIZE) {
+                array = null;
+                bitmap = new long[TILE_CELLS / Long.SIZE];
+                int bits = 0;
+                for (int word = 0; word < bitmap.length; word++) {
+                    bitmap[word] = in.readLong();
+                    bits += Long.bitCount(bitmap[word]);
+                }
+                if (bits != count) {
+                    throw new IOException("invalid bitmap"); //$NON-NLS-1$
+                }
+            } else {
+                array = new char[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = in.readChar();
+                    if (i > 0 && array[i] <= array[i - 1]) {
+                        throw new IOException("unsorted cells"); //$NON-NLS-1$
+                    }
+                }
+            }
+            size = count;
+        }
+
+        private void toBitmap() {
+            bitmap = new long[TILE_CELLS / Long.SIZE];
+            for (int i = 0; i < size; i++) {
+                bitmap[array[i] >>> 6] |= 1L << array[i];
+            }
+            array = null;
+        }
+
+        private long sizeInBytes() {
+            if (bitmap == FULL) {
+                return 0;
+            }
+            return bitmap != null ? (long) bitmap.length * Long.BYTES : (long) array.length * Character.BYTES;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores the instructions of a lawnmower.
+ * <p>
+ * Each instruction is an opcode packed on 2 bits (4 instructions per byte), so that huge programs only cost a
+ * fraction of a {@link List} of {@link Character}s. The packed opcodes are either owned by the program, or a view on
+ * a bigger buffer (e.g. a memory-mapped compiled program).
+ * <p>
+ * A program may repeat blocks of instructions, written <code>(BODY)*COUNT</code> (e.g. <code>(AAAD)*5000</code>).
+ * The body of such a block is stored once, and described by a {@link RepeatBlock}: {@link #length()} is the number
+ * of stored instructions, {@link #steps()} the number of executed ones. Blocks cannot be nested.
+ */
+public final class InstructionProgram {
+
+    /**
+     * Opcode of the 'A' instruction (move forward).
+     */
+    public static final int FORWARD = 0;
+
+    /**
+     * Opcode of the 'D' instruction (turn right).
+     */
+    public static final int RIGHT = 1;
+
+    /**
+     * Opcode of the 'G' instruction (turn left).
+     */
+    public static final int LEFT = 2;
+
+    /**
+     * Value returned by {@link #opcode(int)} for a character which is not an instruction.
+     */
+    public static final int INVALID = -1;
+
+    /**
+     * Program without any instruction.
+     */
+    public static final @NotNull InstructionProgram EMPTY =
+            new InstructionProgram(ByteBuffer.allocate(0), 0, new int[0]);
+
+    /**
+     * Lookup table giving the opcode of each ASCII character ({@link #INVALID} if not an instruction).
+     */
+    private static final byte[] OPCODES = new byte[128];
+
+    /**
+     * Instruction character of each opcode.
+     */
+    private static final char[] INSTRUCTIONS = {'A', 'D', 'G'};
+
+    static {
+        Arrays.fill(OPCODES, (byte) INVALID);
+        for (int op = 0; op < INSTRUCTIONS.length; op++) {
+            OPCODES[INSTRUCTIONS[op]] = (byte) op;
+        }
+    }
+
+    /**
+     * Packed opcodes (4 per byte, the first instruction in the lowest bits), from index 0.
+     */
+    private final @NotNull ByteBuffer packed;
+
+    /**
+     * Number of instructions.
+     */
+    private final int length;
+
+    /**
+     * The repeated blocks, sorted by their start index.
+     */
+    private final @NotNull RepeatBlock[] blocks;
+
+    /**
+     * Number of executed instructions (the bodies of the blocks being repeated).
+     */
+    private final long steps;
+
+    private InstructionProgram(final @NotNull ByteBuffer packed, final int length, final int @NotNull [] repeats) {
+        this.packed = packed;
+        this.length = length;
+        this.blocks = new RepeatBlock[repeats.length / 3];
+        long executed = length;
+        int previousEnd = 0;
+        for (int b = 0; b < blocks.length; b++) {
+            final int start = repeats[3 * b];
+            final int end = repeats[3 * b + 1];
+            final int count = repeats[3 * b + 2];
+            if (start < previousEnd || end <= start || end > length || count < 1) {
+                throw new IllegalArgumentException(Integer.toString(start));
+            }
+            blocks[b] = RepeatBlock.of(this, start, end, count);
+            executed += (count - 1L) * (end - start);
+            previousEnd = end;
+        }
+        this.steps = executed;
+    }
+
+    /**
+     * Returns the number of bytes needed to pack the given number of instructions.
+     *
+     * @param length number of instructions
+     * @return the size of the packed opcodes
+     */
+    public static int packedSize(final int length) {
+        return (int) ((length + 3L) >>> 2);
+    }
+
+    /**
+     * Creates a program reading the opcodes already packed in the given buffer, without copying them.
+     *
+     * @param packed the packed opcodes, from the position of the buffer (its position is not changed)
+     * @param length number of instructions
+     * @return a program backed by the given buffer
+     * @throws IllegalArgumentException if the buffer does not hold <code>length</code> instructions
+     */
+    public static @NotNull InstructionProgram wrap(final @NotNull ByteBuffer packed, final int length) {
+        return wrap(packed, length, new int[0]);
+    }
+
+    /**
+     * Creates a program reading the opcodes already packed in the given buffer, without copying them.
+     *
+     * @param packed  the packed opcodes, from the position of the buffer (its position is not changed)
+     * @param length  number of instructions
+     * @param repeats the repeated blocks: start index, end index (excluded) and number of iterations of each one,
+     *                sorted by start index
+     * @return a program backed by the given buffer
+     * @throws IllegalArgumentException if the buffer does not hold <code>length</code> instructions, or if the
+     *                                  blocks are not valid
+     */
+    public static @NotNull InstructionProgram wrap(final @NotNull ByteBuffer packed, final int length,
+                                                   final int @NotNull [] repeats) {
+        if (length < 0 || packed.remaining() < packedSize(length) || repeats.length % 3 != 0) {
+            throw new IllegalArgumentException(Integer.toString(length));
+        }
+        return new InstructionProgram(packed.slice(packed.position(), packedSize(length)), length, repeats);
+    }
+
+    /**
+     * Returns the opcode of the given instruction character.
+     *
+     * @param c the instruction character ('A', 'D' or 'G')
+     * @return the opcode, or {@link #INVALID} if the character is not an instruction
+     */
+    public static int opcode(final int c) {
+        return (c & ~0x7F) == 0 ? OPCODES[c] : INVALID;
+    }
+
+    /**
+     * Returns the instruction character of the given opcode.
+     *
+     * @param op the opcode
+     * @return 'A', 'D' or 'G'
+     */
+    public static char instruction(final int op) {
+        return INSTRUCTIONS[op];
+    }
+
+    /**
+     * Validates and packs the given instructions in a single pass.
+     *
+     * @param instructions the instructions, as written in the program file
+     * @return the packed program
+     * @throws IllegalArgumentException if any character is not a valid instruction
+     */
+    public static @NotNull InstructionProgram of(final @NotNull CharSequence instructions) {
+        final Builder builder = new Builder(instructions.length());
+        for (int i = 0; i < instructions.length(); i++) {
+            if (!builder.accept(instructions.charAt(i))) {
+                throw new IllegalArgumentException(instructions.toString());
+            }
+        }
+        if (!builder.complete()) {
+            throw new IllegalArgumentException(instructions.toString());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Validates and packs the given instructions.
+     *
+     * @param instructions the instructions, one character each
+     * @return the packed program
+     * @throws IllegalArgumentException if any character is not a valid instruction
+     */
+    public static @NotNull InstructionProgram of(final @NotNull List<Character> instructions) {
+        final Builder builder = new Builder(instructions.size());
+        for (final char instruction : instructions) {
+            if (!builder.accept(instruction)) {
+                throw new IllegalArgumentException(instructions.toString());
+            }
+        }
+        if (!builder.complete()) {
+            throw new IllegalArgumentException(instructions.toString());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of stored instructions (the body of each block counts once).
+     *
+     * @return the length of the program
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of executed instructions (the body of each block counts as many times as it is repeated).
+     *
+     * @return the number of steps of the program
+     */
+    public long steps() {
+        return steps;
+    }
+
+    /**
+     * Returns the number of repeated blocks.
+     *
+     * @return the number of blocks, 0 for a program without any repetition
+     */
+    public int blockCount() {
+        return blocks.length;
+    }
+
+    /**
+     * Returns a repeated block.
+     *
+     * @param block index of the block (from 0 to {@link #blockCount()} excluded, in the order of the program)
+     * @return the block
+     */
+    public @NotNull RepeatBlock block(final int block) {
+        return blocks[block];
+    }
+
+    /**
+     * Returns the opcode of the instruction at the given index.
+     *
+     * @param index index of the instruction (from 0 to {@link #length()} excluded)
+     * @return {@link #FORWARD}, {@link #RIGHT} or {@link #LEFT}
+     */
+    public int get(final int index) {
+        return (packed.get(index >>> 2) >>> ((index & 3) << 1)) & 3;
+    }
+
+    /**
+     * Returns the packed opcodes (4 per byte, the first instruction in the lowest bits).
+     *
+     * @return a read-only view of the packed opcodes, of {@link #packedSize(int)} bytes
+     */
+    public @NotNull ByteBuffer packed() {
+        return packed.asReadOnlyBuffer();
+    }
+
+    /**
+     * Counts the consecutive {@link #FORWARD} instructions starting at the given index.
+     * <p>
+     * Full bytes of forward moves are skipped at once.
+     *
+     * @param from index of the first instruction to check
+     * @return the number of forward moves (0 if the instruction at <code>from</code> is not a forward move)
+     */
+    public int forwardRun(final int from) {
+        return forwardRun(from, length);
+    }
+
+    /**
+     * Counts the consecutive {@link #FORWARD} instructions starting at the given index, before the given limit.
+     *
+     * @param from index of the first instruction to check
+     * @param to   index of the instruction following the last one to check (e.g. the start of a repeated block)
+     * @return the number of forward moves (0 if the instruction at <code>from</code> is not a forward move)
+     */
+    public int forwardRun(final int from, final int to) {
+        int index = from;
+        while (index < to) {
+            if ((index & 3) == 0 && packed.get(index >>> 2) == 0) {
+                // 4 forward moves (the unused bits of the last byte are 0 too, hence the min below)
+                index += 4;
+            } else if (get(index) == FORWARD) {
+                index++;
+            } else {
+                break;
+            }
+        }
+        return Math.min(index, to) - from;
+    }
+
+    /**
+     * Returns the program as written in the program file.
+     *
+     * @return the instructions characters, and the repeated blocks
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(length + 16 * blocks.length);
+        int block = 0;
+        for (int i = 0; i < length; i++) {
+            if (block < blocks.length && i == blocks[block].start()) {
+                sb.append('(');
+            }
+            sb.append(INSTRUCTIONS[get(i)]);
+            if (block < blocks.length && i == blocks[block].end() - 1) {
+                sb.append(")*").append(blocks[block].count()); //$NON-NLS-1$
+                block++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Builds an {@link InstructionProgram} one opcode (or one character of a program file) at a time.
+     */
+    public static final class Builder {
+
+        /**
+         * States of the parsing of the characters: outside of any block, in the body of a block, after the ')' of a
+         * block, after its '*', and in its count.
+         */
+        private static final int OUTSIDE = 0;
+        private static final int BODY = 1;
+        private static final int CLOSED = 2;
+        private static final int STAR = 3;
+        private static final int COUNT = 4;
+
+        /**
+         * Packed opcodes, <code>null</code> if the builder only validates the syntax.
+         */
+        private byte[] packed;
+
+        private int length;
+
+        /**
+         * The repeated blocks (start, end and count of each one).
+         */
+        private int[] repeats = new int[0];
+
+        private int blocks;
+
+        /**
+         * Parsing state of the characters, start of the current block and its count so far.
+         */
+        private int state = OUTSIDE;
+
+        private int blockStart;
+
+        private long blockCount;
+
+        /**
+         * Creates a builder for a program of about the given length.
+         *
+         * @param expectedLength expected number of instructions
+         */
+        public Builder(final int expectedLength) {
+            this.packed = new byte[Math.max(16, (expectedLength + 3) >>> 2)];
+        }
+
+        private Builder() {
+            this.packed = null;
+        }
+
+        /**
+         * Creates a builder which only validates the characters given to {@link #accept(int)}, without storing the
+         * program (it cannot be built).
+         *
+         * @return a new builder
+         */
+        public static @NotNull Builder validator() {
+            return new Builder();
+        }
+
+        /**
+         * Appends a character of a program file: an instruction, or a part of the <code>(BODY)*COUNT</code> syntax.
+         *
+         * @param c the character
+         * @return <code>false</code> if the character is not valid here
+         */
+        public boolean accept(final int c) {
+            if (state <= BODY) {
+                final int op = opcode(c);
+                if (op != INVALID) {
+                    append(op);
+                    return true;
+                }
+            }
+            final boolean digit = c >= '0' && c <= '9';
+            switch (state) {
+                case OUTSIDE -> {
+                    if (c != '(') {
+                        return false;
+                    }
+                    blockStart = length;
+                    state = BODY;
+                }
+                case BODY -> {
+                    if (c != ')' || length == blockStart) {
+                        return false;
+                    }
+                    state = CLOSED;
+                }
+                case CLOSED -> {
+                    if (c != '*') {
+                        return false;
+                    }
+                    state = STAR;
+                }
+                case STAR -> {
+                    if (!digit) {
+                        return false;
+                    }
+                    blockCount = c - '0';
+                    state = COUNT;
+                }
+                default -> {
+                    if (digit) {
+                        blockCount = blockCount * 10 + (c - '0');
+                        return blockCount <= Integer.MAX_VALUE;
+                    }
+                    // the count is over: this character follows the block
+                    return closeBlock() && accept(c);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks that the characters given to {@link #accept(int)} make a complete program.
+         *
+         * @return <code>false</code> if a block is not complete
+         */
+        public boolean complete() {
+            if (state == COUNT) {
+                return closeBlock();
+            }
+            return state == OUTSIDE;
+        }
+
+        private boolean closeBlock() {
+            if (blockCount < 1) {
+                return false;
+            }
+            if (3 * (blocks + 1) > repeats.length) {
+                repeats = Arrays.copyOf(repeats, Math.max(6, repeats.length << 1));
+            }
+            repeats[3 * blocks] = blockStart;
+            repeats[3 * blocks + 1] = length;
+            repeats[3 * blocks + 2] = (int) blockCount;
+            blocks++;
+            state = OUTSIDE;
+            return true;
+        }
+
+        /**
+         * Appends an instruction at the end of the program.
+         *
+         * @param op opcode of the instruction
+         * @return this builder
+         */
+        public @NotNull Builder append(final int op) {
+            if (packed == null) {
+                length++;
+                return this;
+            }
+            final int index = length >>> 2;
+            if (index == packed.length) {
+                packed = Arrays.copyOf(packed, packed.length << 1);
+            }
+            packed[index] |= (byte) (op << ((length & 3) << 1));
+            length++;
+            return this;
+        }
+
+        /**
+         * Returns the number of instructions appended so far.
+         *
+         * @return the current length of the program
+         */
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Builds the program (trimming the storage to its exact size), once {@link #complete()} is checked.
+         *
+         * @return the packed program
+         * @throws IllegalStateException if the builder only validates the syntax
+         */
+        public @NotNull InstructionProgram build() {
+            if (packed == null) {
+                throw new IllegalStateException();
+            }
+            if (length == 0) {
+                return EMPTY;
+            }
+            return new InstructionProgram(ByteBuffer.wrap(Arrays.copyOf(packed, packedSize(length))), length,
+                    Arrays.copyOf(repeats, 3 * blocks));
+        }
+    }
+}
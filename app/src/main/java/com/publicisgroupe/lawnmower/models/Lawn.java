@@ -1,14 +1,26 @@
 package com.publicisgroupe.lawnmower.models;
 
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.LawnExecutionEvent;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * This record represents a Lawn.
+ * <p>
+ * The mowers of the lawn are stored in a {@link MowerFleet}, and executed by index; {@link #mowers()} gives a view of
+ * them as {@link Lawnmower}s.
+ * <p>
+ * The lawn owns an {@link OccupancyIndex} of the cells taken by its mowers, so that collisions are detected without
+ * looking at every other mower. Mowers must be added with {@link #addMower(Lawnmower)} to be registered in it.
+ * <p>
+ * The lawn may also own a {@link CoverageMap} of the mowed cells (<code>null</code> if the coverage is not tracked):
+ * the mowers added to the lawn record their moves in it, their init position being already mowed.
  */
-public record Lawn(int maxX, int maxY, List<Lawnmower> mowers) {
+public record Lawn(int maxX, int maxY, MowerFleet fleet, OccupancyIndex occupancy, CoverageMap coverage) {
 
     /**
      * Creates a new lawn with no mower.
@@ -17,7 +29,28 @@ public record Lawn(int maxX, int maxY, List<Lawnmower> mowers) {
      * @param maxY maximum coordinate on the north direction
      */
     public Lawn(final int maxX, final int maxY) {
-        this(maxX, maxY, new ArrayList<>());
+        this(maxX, maxY, new MowerFleet(), new OccupancyIndex(maxX, maxY), null);
+    }
+
+    /**
+     * Returns the same lawn, tracking the mowed cells in the given map.
+     * <p>
+     * This must be called before any mower is added.
+     *
+     * @param coverage where the mowed cells are recorded
+     * @return a new {@link Lawn}
+     */
+    public @NotNull Lawn withCoverage(final @NotNull CoverageMap coverage) {
+        return new Lawn(maxX, maxY, fleet, occupancy, coverage);
+    }
+
+    /**
+     * Returns the mowers of the lawn.
+     *
+     * @return a view of the mowers of the fleet, in the order they were added
+     */
+    public @NotNull List<Lawnmower> mowers() {
+        return fleet.views();
     }
 
     /**
@@ -30,20 +63,72 @@ public record Lawn(int maxX, int maxY, List<Lawnmower> mowers) {
         // the mower is inside if its coordinates are smaller than maxX and maxY.
         return (mower.getX() >= 0
                 && mower.getY() >= 0
-                && mower.getY() <= maxX
+                && mower.getX() <= maxX
                 && mower.getY() <= maxY);
     }
 
+    /**
+     * Adds the mower to the lawn, if its init position is inside the lawn and not already taken.
+     * <p>
+     * The mower is copied into the fleet of the lawn, and the given lawnmower becomes a view of the copy.
+     *
+     * @param mower the lawnmower to add
+     * @return <code>true</code> if the mower has been added
+     */
+    public boolean addMower(final @NotNull Lawnmower mower) {
+        if (!addMower(mower.getFleet(), mower.getIndex())) {
+            return false;
+        }
+        mower.moveTo(fleet, fleet.size() - 1);
+        return true;
+    }
+
+    /**
+     * Adds a copy of a mower of another fleet to the lawn, if its position is inside the lawn and not already taken.
+     *
+     * @param mowers the fleet of the mower
+     * @param mower  index of the mower in that fleet
+     * @return <code>true</code> if the mower has been added
+     */
+    public boolean addMower(final @NotNull MowerFleet mowers, final int mower) {
+        final int x = mowers.getX(mower);
+        final int y = mowers.getY(mower);
+        if (!occupancy.add(x, y)) {
+            return false;
+        }
+        final int added = fleet.add(mowers, mower);
+        if (coverage != null) {
+            fleet.trackCoverage(added, coverage);
+            fleet.mow(added, x, y);
+        }
+        return true;
+    }
+
     /**
      * Move all the mower sequentially (one at a time)
      */
     public void moveAllMowers() {
+        final ResultSink sink = ResultFormat.TEXT.open(System.out);
+        moveAllMowers(sink);
+        sink.flush();
+    }
+
+    /**
+     * Move all the mower sequentially (one at a time)
+     *
+     * @param sink where the final position of each mower is written
+     */
+    public void moveAllMowers(final @NotNull ResultSink sink) {
+        final LawnExecutionEvent event = FlightEvents.isEnabled() ? LawnExecutionEvent.start() : null;
         // for each mower
-        for (Lawnmower mower : this.mowers) {
+        for (int mower = 0; mower < fleet.size(); mower++) {
             // execute all of its instructions
-            mower.executeInstructions(this.mowers);
+            fleet.execute(mower, occupancy);
             // display the mower current position and orientation
-            System.out.println(mower);
+            sink.accept(fleet, mower);
+        }
+        if (event != null) {
+            event.end(this, "SEQUENTIAL"); //$NON-NLS-1$
         }
     }
 }
@@ -1,57 +1,92 @@
 package com.publicisgroupe.lawnmower.models;
 
-import com.publicisgroupe.lawnmower.services.I18n;
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.MowerExecutionEvent;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 
 /**
  * This class represents a lawnmower to allow solving our problem.
+ * <p>
+ * A lawnmower is a view of a mower of a {@link MowerFleet}, where its state is stored. A new lawnmower has a fleet
+ * of its own; it is moved into the fleet of a {@link Lawn} when it is added to it (see {@link Lawn#addMower(Lawnmower)}),
+ * and keeps following the mower there.
  */
 public class Lawnmower {
 
     /**
-     * Current X position of the lawn mower.
+     * The fleet storing the mower.
      */
-    private int x;
+    private @NotNull MowerFleet fleet;
 
     /**
-     * Current Y position of the lawn mower.
+     * Index of the mower in its fleet.
      */
-    private int y;
+    private int index;
 
     /**
-     * Current orientation of the mower.
+     * Define a new lawnmower with the given attributes.
+     *
+     * @param initRecord   the {@link LawnmowerInitRecord} representing the initial position of the lawmower
+     * @param instructions all the instructions of the lawmower
+     * @throws IllegalArgumentException if any instruction is not valid
      */
-    private @NotNull LawnmowerOrientation orientation;
+    public Lawnmower(
+            final @NotNull LawnmowerInitRecord initRecord,
+            final @NotNull List<Character> instructions) {
+        this(initRecord, InstructionProgram.of(instructions));
+    }
 
     /**
-     * The initial position / orientation of the lawnmower.
+     * Define a new lawnmower with the given attributes.
+     *
+     * @param initRecord   the {@link LawnmowerInitRecord} representing the initial position of the lawmower
+     * @param instructions all the instructions of the lawmower
      */
-    private final @NotNull LawnmowerInitRecord initRecord;
+    public Lawnmower(
+            final @NotNull LawnmowerInitRecord initRecord,
+            final @NotNull InstructionProgram instructions) {
+        // a fleet of its own, until the mower is added to a lawn
+        this.fleet = new MowerFleet(1);
+        this.index = fleet.add(initRecord, instructions);
+    }
 
     /**
-     * All the lawnmower instructions.
+     * Creates a view of a mower of a fleet.
+     *
+     * @param fleet the fleet storing the mower
+     * @param index index of the mower in the fleet
      */
-    private final @NotNull List<Character> instructions;
+    public Lawnmower(final @NotNull MowerFleet fleet, final int index) {
+        this.fleet = fleet;
+        this.index = index;
+    }
 
     /**
-     * Define a new lawnmower with the given attributes.
+     * Returns the fleet storing the mower.
      *
-     * @param initRecord   the {@link LawnmowerInitRecord} representing the initial position of the lawmower
-     * @param instructions all the instructions of the lawmower
+     * @return the fleet of the lawn the mower was added to, or its own one
      */
-    public Lawnmower(
-            final @NotNull LawnmowerInitRecord initRecord,
-            final @NotNull List<Character> instructions) {
-        // init position and direction, and instructions should never change
-        this.initRecord = initRecord;
-        this.instructions = instructions;
+    public @NotNull MowerFleet getFleet() {
+        return fleet;
+    }
+
+    /**
+     * Returns the index of the mower in its fleet.
+     *
+     * @return index of the mower in {@link #getFleet()}
+     */
+    public int getIndex() {
+        return index;
+    }
 
-        // set the start position and direction
-        this.x = initRecord.startX();
-        this.y = initRecord.startY();
-        this.orientation = initRecord.startOrientation();
+    /**
+     * Follows the mower in another fleet, where it has been copied.
+     */
+    void moveTo(final @NotNull MowerFleet fleet, final int index) {
+        this.fleet = fleet;
+        this.index = index;
     }
 
     /**
@@ -60,7 +95,7 @@ public class Lawnmower {
      * @return int
      */
     public int getX() {
-        return x;
+        return fleet.getX(index);
     }
 
     /**
@@ -69,7 +104,7 @@ public class Lawnmower {
      * @param x new X value
      */
     public void setX(int x) {
-        this.x = x;
+        fleet.setX(index, x);
     }
 
     /**
@@ -78,7 +113,7 @@ public class Lawnmower {
      * @return int
      */
     public int getY() {
-        return y;
+        return fleet.getY(index);
     }
 
     /**
@@ -87,7 +122,7 @@ public class Lawnmower {
      * @param y new Y value
      */
     public void setY(int y) {
-        this.y = y;
+        fleet.setY(index, y);
     }
 
     /**
@@ -96,7 +131,7 @@ public class Lawnmower {
      * @return LawnmowerOrientation
      */
     public @NotNull LawnmowerOrientation getOrientation() {
-        return orientation;
+        return fleet.getOrientation(index);
     }
 
     /**
@@ -105,55 +140,128 @@ public class Lawnmower {
      * @param orientation new orientation to set
      */
     public void setOrientation(final @NotNull LawnmowerOrientation orientation) {
-        this.orientation = orientation;
+        fleet.setOrientation(index, orientation);
+    }
+
+    /**
+     * Returns the number of forward moves ignored because of a collision (or of the lawn edge).
+     *
+     * @return the number of blocked moves
+     */
+    public long getBlockedMoves() {
+        return fleet.getBlockedMoves(index);
+    }
+
+    /**
+     * Counts forward moves ignored because of a collision (or of the lawn edge).
+     *
+     * @param count number of blocked moves to add
+     */
+    public void addBlockedMoves(final long count) {
+        fleet.addBlockedMoves(index, count);
+    }
+
+    /**
+     * Records the cells visited by the mower from now on in the given coverage map.
+     *
+     * @param coverage cells mowed on the lawn (<code>null</code> to stop tracking)
+     */
+    public void trackCoverage(final CoverageMap coverage) {
+        fleet.trackCoverage(index, coverage);
+    }
+
+    /**
+     * Records a cell visited by the mower, if the coverage is tracked.
+     *
+     * @param cellX X coordinate of the visited cell
+     * @param cellY Y coordinate of the visited cell
+     */
+    public void mow(final int cellX, final int cellY) {
+        fleet.mow(index, cellX, cellY);
+    }
+
+    /**
+     * Returns <code>true</code> if the cells visited by the mower are recorded.
+     *
+     * @return <code>true</code> if the coverage is tracked
+     */
+    public boolean tracksCoverage() {
+        return fleet.tracksCoverage(index);
+    }
+
+    /**
+     * Returns the number of cells mowed for the first time by this mower.
+     *
+     * @return the contribution of the mower to the coverage
+     */
+    public long getMowedCells() {
+        return fleet.getMowedCells(index);
+    }
+
+    /**
+     * Counts cells mowed for the first time by this mower.
+     *
+     * @param count number of cells to add
+     */
+    public void addMowedCells(final long count) {
+        fleet.addMowedCells(index, count);
+    }
+
+    /**
+     * Records the steps of the mower from now on in the given trajectory.
+     * <p>
+     * The repeated blocks are then executed step by step, so that no step is skipped.
+     *
+     * @param trajectory the path of the mower (<code>null</code> to stop recording)
+     */
+    public void recordTrajectory(final Trajectory trajectory) {
+        fleet.recordTrajectory(index, trajectory);
+    }
+
+    /**
+     * Returns the recorded path of the mower.
+     *
+     * @return the trajectory, or <code>null</code> if it is not recorded
+     */
+    public Trajectory getTrajectory() {
+        return fleet.getTrajectory(index);
+    }
+
+    /**
+     * Returns the instructions of the lawnmower.
+     *
+     * @return the {@link InstructionProgram} of the lawnmower
+     */
+    public @NotNull InstructionProgram getInstructions() {
+        return fleet.getInstructions(index);
     }
 
     /**
      * Change the orientation of the lawnmower, to the left.
      */
     public void turnLeft() {
-        this.orientation = switch (orientation) {
-            case NORTH -> LawnmowerOrientation.WEST;
-            case WEST -> LawnmowerOrientation.SOUTH;
-            case SOUTH -> LawnmowerOrientation.EAST;
-            case EAST -> LawnmowerOrientation.NORTH;
-        };
+        fleet.turnLeft(index);
     }
 
     /**
      * Change the orientation of the lawnmower, to the right.
      */
     public void turnRight() {
-        this.orientation = switch (orientation) {
-            case NORTH -> LawnmowerOrientation.EAST;
-            case WEST -> LawnmowerOrientation.NORTH;
-            case SOUTH -> LawnmowerOrientation.WEST;
-            case EAST -> LawnmowerOrientation.SOUTH;
-        };
+        fleet.turnRight(index);
     }
 
     /**
      * Allows the lawnmower to move 1 step forward.
      */
     public void moveForward() {
-        switch (orientation) {
-            case NORTH -> y++;
-            case EAST -> x++;
-            case SOUTH -> y--;
-            case WEST -> x--;
-        }
+        fleet.moveForward(index);
     }
 
     /**
      * Allows the lawnmower to move 1 step forward.
      */
     public void moveBackward() {
-        switch (orientation) {
-            case NORTH -> y--;
-            case EAST -> x--;
-            case SOUTH -> y++;
-            case WEST -> x++;
-        }
+        fleet.moveBackward(index);
     }
 
     /**
@@ -168,12 +276,23 @@ public class Lawnmower {
         if (this.collideWithAny(mowers)) {
             // if any collision, we go back to the previous coordinates : the mower will not move
             this.moveBackward();
-            System.err.println(
-                    I18n.getMessage("mower.cannot.move") //$NON-NLS-1$
-            );
+            fleet.blocked(index);
+        } else {
+            fleet.moved(index);
         }
     }
 
+    /**
+     * Move forward if the next cell is free (inside the lawn and not taken by another mower).
+     * <p>
+     * The occupancy index is updated with the new position of the mower.
+     *
+     * @param occupancy index of the cells occupied by all the mowers of the lawn (this one included)
+     */
+    public void moveForwardIfPossible(final @NotNull OccupancyIndex occupancy) {
+        fleet.moveForwardIfPossible(index, occupancy);
+    }
+
     /**
      * Check if the current mower collides with any other mower.
      *
@@ -181,8 +300,17 @@ public class Lawnmower {
      * @return <code>true</code> if a collision is detected
      */
     private boolean collideWithAny(final @NotNull List<Lawnmower> mowers) {
+        final int x = getX();
+        final int y = getY();
         // return true if any mower (not the current one) has the same coordinates
-        return mowers.stream().anyMatch(mower -> mower != this && mower.getX() == x && mower.getY() == y);
+        return mowers.stream().anyMatch(mower -> !isSameMower(mower) && mower.getX() == x && mower.getY() == y);
+    }
+
+    /**
+     * Returns <code>true</code> if the given lawnmower is a view of the same mower.
+     */
+    private boolean isSameMower(final @NotNull Lawnmower mower) {
+        return mower.fleet == fleet && mower.index == index;
     }
 
     /**
@@ -193,17 +321,53 @@ public class Lawnmower {
      * @param otherMowers list of all the other mowers (might include this one) in order to detect collisions
      */
     public void executeInstructions(final @NotNull List<Lawnmower> otherMowers) {
+        final MowerExecutionEvent event = FlightEvents.isEnabled() ? MowerExecutionEvent.start() : null;
+        final long blockedBefore = getBlockedMoves();
+        final InstructionProgram instructions = getInstructions();
+        int from = 0;
+        for (int b = 0; b < instructions.blockCount(); b++) {
+            final RepeatBlock block = instructions.block(b);
+            executeInstructions(from, block.start(), otherMowers);
+            for (int iteration = 0; iteration < block.count(); iteration++) {
+                executeInstructions(block.start(), block.end(), otherMowers);
+            }
+            from = block.end();
+        }
+        executeInstructions(from, instructions.length(), otherMowers);
+        if (event != null) {
+            event.end(fleet, index, blockedBefore);
+        }
+    }
+
+    /**
+     * Execute the instructions from <code>from</code> (included) to <code>to</code> (excluded).
+     */
+    private void executeInstructions(final int from, final int to, final @NotNull List<Lawnmower> otherMowers) {
+        final InstructionProgram instructions = getInstructions();
         // check all instructions
-        for (Character instruction : instructions) {
+        for (int i = from; i < to; i++) {
             // call the right method depending on the instruction
-            switch (instruction) {
-                case 'D' -> turnRight();
-                case 'G' -> turnLeft();
-                case 'A' -> moveForwardIfPossible(otherMowers);
+            switch (instructions.get(i)) {
+                case InstructionProgram.RIGHT -> turnRight();
+                case InstructionProgram.LEFT -> turnLeft();
+                case InstructionProgram.FORWARD -> moveForwardIfPossible(otherMowers);
             }
         }
     }
 
+    /**
+     * Execute all the instructions of the lawn mower, on the lawn described by the given occupancy index.
+     * <p>
+     * If a collision is detected, or if the mower would leave the lawn, the current instruction is ignored, and the
+     * next one started. The repeated blocks are executed in closed form when possible (see
+     * {@link MowerFleet#execute(int, OccupancyIndex)}).
+     *
+     * @param occupancy index of the cells occupied by all the mowers of the lawn (this one included)
+     */
+    public void executeInstructions(final @NotNull OccupancyIndex occupancy) {
+        fleet.execute(index, occupancy);
+    }
+
     /**
      * Returns the String representation of the Lawnmower.
      *
@@ -211,6 +375,6 @@ public class Lawnmower {
      */
     @Override
     public String toString() {
-        return String.format("%s %s %s", x, y, orientation.instruction);
+        return fleet.toString(index);
     }
 }
@@ -19,6 +19,12 @@ public enum LawnmowerOrientation {
      */
     public final char instruction;
 
+    /**
+     * Lookup table giving the orientation of each ASCII character (empty if not an orientation), so that a lookup
+     * neither scans the values nor allocates.
+     */
+    private static final Optional<LawnmowerOrientation>[] BY_INSTRUCTION = lookupTable();
+
     /**
      * Create a new {@link LawnmowerOrientation} given an instruction.
      *
@@ -35,8 +41,16 @@ public enum LawnmowerOrientation {
      * @return maybe a {@link LawnmowerOrientation}
      */
     public static @NotNull Optional<LawnmowerOrientation> valueOfInstruction(final char instruction) {
-        return Arrays.stream(values())
-                .filter(e -> instruction == e.instruction)
-                .findFirst();
+        return instruction < BY_INSTRUCTION.length ? BY_INSTRUCTION[instruction] : Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<LawnmowerOrientation> @NotNull [] lookupTable() {
+        final Optional<LawnmowerOrientation>[] table = new Optional[128];
+        Arrays.fill(table, Optional.empty());
+        for (final LawnmowerOrientation orientation : values()) {
+            table[orientation.instruction] = Optional.of(orientation);
+        }
+        return table;
     }
 }
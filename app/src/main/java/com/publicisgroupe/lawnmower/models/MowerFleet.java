@@ -0,0 +1,731 @@
+package com.publicisgroupe.lawnmower.models;
+
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.MowerExecutionEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores a group of mowers (e.g. all the mowers of a lawn) as parallel arrays, one per attribute.
+ * <p>
+ * A mower is an index in the fleet: its position, orientation and counters are primitives, and its instructions a
+ * reference to its {@link InstructionProgram}, so that a fleet of millions of mowers costs a few arrays instead of
+ * millions of objects. The coverage maps and the trajectories, only used by some runs, are allocated when the first
+ * one is set.
+ * <p>
+ * The mowers are executed by index (see {@link #execute(int, OccupancyIndex)}); a {@link Lawnmower} is a view of one
+ * of them, for the code working on a single mower.
+ * <p>
+ * The orientations are stored as a number of quarter turns clockwise from the north (see
+ * {@link RepeatBlock#quarterTurns(LawnmowerOrientation)}).
+ */
+public final class MowerFleet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Orientation of each number of quarter turns.
+     */
+    private static final LawnmowerOrientation[] ORIENTATIONS = {
+            LawnmowerOrientation.NORTH, LawnmowerOrientation.EAST, LawnmowerOrientation.SOUTH, LawnmowerOrientation.WEST
+    };
+
+    /**
+     * Move on the X axis of a forward move, for each number of quarter turns.
+     */
+    private static final int[] DX = {0, 1, 0, -1};
+
+    /**
+     * Move on the Y axis of a forward move, for each number of quarter turns.
+     */
+    private static final int[] DY = {1, 0, -1, 0};
+
+    /**
+     * Quarter turns to the right of each opcode (see {@link InstructionProgram}): none for a forward move, 1 for a
+     * right turn, 3 for a left one.
+     */
+    private static final int[] TURNS = {0, 1, 3};
+
+    /**
+     * Number of mowers.
+     */
+    private int size;
+
+    /**
+     * Current X position of each mower.
+     */
+    private int[] x;
+
+    /**
+     * Current Y position of each mower.
+     */
+    private int[] y;
+
+    /**
+     * Current orientation of each mower, in quarter turns.
+     */
+    private byte[] heading;
+
+    /**
+     * Number of forward moves of each mower ignored because of a collision (or of the lawn edge).
+     */
+    private long[] blockedMoves;
+
+    /**
+     * Number of cells mowed for the first time by each mower.
+     */
+    private long[] mowedCells;
+
+    /**
+     * Instructions of each mower.
+     */
+    private InstructionProgram[] programs;
+
+    /**
+     * Cells mowed on the lawn, for each mower (<code>null</code> until the coverage of a mower is tracked).
+     */
+    private CoverageMap[] coverages;
+
+    /**
+     * Path of each mower, recorded step by step (<code>null</code> until a trajectory is recorded).
+     */
+    private Trajectory[] trajectories;
+
+    /**
+     * Creates an empty fleet.
+     */
+    public MowerFleet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty fleet.
+     *
+     * @param capacity number of mowers the fleet can hold before growing
+     */
+    public MowerFleet(final int capacity) {
+        x = new int[capacity];
+        y = new int[capacity];
+        heading = new byte[capacity];
+        blockedMoves = new long[capacity];
+        mowedCells = new long[capacity];
+        programs = new InstructionProgram[capacity];
+    }
+
+    /**
+     * Returns the number of mowers.
+     *
+     * @return the size of the fleet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a mower, at its init position.
+     *
+     * @param initRecord   the init position and orientation of the mower
+     * @param instructions the instructions of the mower
+     * @return the index of the new mower
+     */
+    public int add(final @NotNull LawnmowerInitRecord initRecord, final @NotNull InstructionProgram instructions) {
+        final int mower = grow();
+        x[mower] = initRecord.startX();
+        y[mower] = initRecord.startY();
+        heading[mower] = (byte) RepeatBlock.quarterTurns(initRecord.startOrientation());
+        programs[mower] = instructions;
+        return mower;
+    }
+
+    /**
+     * Adds a copy of a mower of another fleet (its position, its counters, its coverage map and its trajectory).
+     *
+     * @param fleet the fleet of the mower
+     * @param mower index of the mower in that fleet
+     * @return the index of the new mower
+     */
+    public int add(final @NotNull MowerFleet fleet, final int mower) {
+        final int copy = grow();
+        x[copy] = fleet.x[mower];
+        y[copy] = fleet.y[mower];
+        heading[copy] = fleet.heading[mower];
+        blockedMoves[copy] = fleet.blockedMoves[mower];
+        mowedCells[copy] = fleet.mowedCells[mower];
+        programs[copy] = fleet.programs[mower];
+        trackCoverage(copy, fleet.coverage(mower));
+        recordTrajectory(copy, fleet.getTrajectory(mower));
+        return copy;
+    }
+
+    /**
+     * Adds copies of all the mowers of another fleet.
+     *
+     * @param fleet the mowers to add, in their order
+     */
+    public void addAll(final @NotNull MowerFleet fleet) {
+        for (int mower = 0; mower < fleet.size; mower++) {
+            add(fleet, mower);
+        }
+    }
+
+    /**
+     * Removes all the mowers.
+     */
+    public void clear() {
+        Arrays.fill(programs, 0, size, null);
+        Arrays.fill(blockedMoves, 0, size, 0);
+        Arrays.fill(mowedCells, 0, size, 0);
+        if (coverages != null) {
+            Arrays.fill(coverages, 0, size, null);
+        }
+        if (trajectories != null) {
+            Arrays.fill(trajectories, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns a view of the mowers, as {@link Lawnmower}s.
+     *
+     * @return a list following the changes of the fleet (each call to {@link List#get(int)} creates a view)
+     */
+    public @NotNull List<Lawnmower> views() {
+        return new AbstractList<>() {
+            @Override
+            public Lawnmower get(final int mower) {
+                return new Lawnmower(MowerFleet.this, checkIndex(mower));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the X coordinate of a mower.
+     *
+     * @param mower index of the mower
+     * @return its current X coordinate
+     */
+    public int getX(final int mower) {
+        return x[mower];
+    }
+
+    /**
+     * Updates the X coordinate of a mower.
+     *
+     * @param mower index of the mower
+     * @param value new X coordinate
+     */
+    public void setX(final int mower, final int value) {
+        x[mower] = value;
+    }
+
+    /**
+     * Returns the Y coordinate of a mower.
+     *
+     * @param mower index of the mower
+     * @return its current Y coordinate
+     */
+    public int getY(final int mower) {
+        return y[mower];
+    }
+
+    /**
+     * Updates the Y coordinate of a mower.
+     *
+     * @param mower index of the mower
+     * @param value new Y coordinate
+     */
+    public void setY(final int mower, final int value) {
+        y[mower] = value;
+    }
+
+    /**
+     * Returns the orientation of a mower.
+     *
+     * @param mower index of the mower
+     * @return its current orientation
+     */
+    public @NotNull LawnmowerOrientation getOrientation(final int mower) {
+        return ORIENTATIONS[heading[mower]];
+    }
+
+    /**
+     * Returns the orientation of a mower, as a number of quarter turns clockwise from the north.
+     *
+     * @param mower index of the mower
+     * @return 0 for the north, 1 for the east, 2 for the south, 3 for the west
+     */
+    public int getHeading(final int mower) {
+        return heading[mower];
+    }
+
+    /**
+     * Updates the orientation of a mower.
+     *
+     * @param mower       index of the mower
+     * @param orientation new orientation
+     */
+    public void setOrientation(final int mower, final @NotNull LawnmowerOrientation orientation) {
+        heading[mower] = (byte) RepeatBlock.quarterTurns(orientation);
+    }
+
+    /**
+     * Returns the number of forward moves of a mower ignored because of a collision (or of the lawn edge).
+     *
+     * @param mower index of the mower
+     * @return the number of blocked moves
+     */
+    public long getBlockedMoves(final int mower) {
+        return blockedMoves[mower];
+    }
+
+    /**
+     * Counts forward moves of a mower ignored because of a collision (or of the lawn edge).
+     *
+     * @param mower index of the mower
+     * @param count number of blocked moves to add
+     */
+    public void addBlockedMoves(final int mower, final long count) {
+        blockedMoves[mower] += count;
+    }
+
+    /**
+     * Returns the number of cells mowed for the first time by a mower.
+     *
+     * @param mower index of the mower
+     * @return the contribution of the mower to the coverage
+     */
+    public long getMowedCells(final int mower) {
+        return mowedCells[mower];
+    }
+
+    /**
+     * Counts cells mowed for the first time by a mower.
+     *
+     * @param mower index of the mower
+     * @param count number of cells to add
+     */
+    public void addMowedCells(final int mower, final long count) {
+        mowedCells[mower] += count;
+    }
+
+    /**
+     * Returns the instructions of a mower.
+     *
+     * @param mower index of the mower
+     * @return its {@link InstructionProgram}
+     */
+    public @NotNull InstructionProgram getInstructions(final int mower) {
+        return programs[mower];
+    }
+
+    /**
+     * Records the cells visited by a mower from now on in the given coverage map.
+     *
+     * @param mower    index of the mower
+     * @param coverage cells mowed on the lawn (<code>null</code> to stop tracking)
+     */
+    public void trackCoverage(final int mower, final CoverageMap coverage) {
+        if (coverages == null) {
+            if (coverage == null) {
+                return;
+            }
+            coverages = new CoverageMap[x.length];
+        }
+        coverages[mower] = coverage;
+    }
+
+    /**
+     * Returns <code>true</code> if the cells visited by a mower are recorded.
+     *
+     * @param mower index of the mower
+     * @return <code>true</code> if its coverage is tracked
+     */
+    public boolean tracksCoverage(final int mower) {
+        return coverage(mower) != null;
+    }
+
+    /**
+     * Records a cell visited by a mower, if its coverage is tracked.
+     *
+     * @param mower index of the mower
+     * @param cellX X coordinate of the visited cell
+     * @param cellY Y coordinate of the visited cell
+     */
+    public void mow(final int mower, final int cellX, final int cellY) {
+        final CoverageMap coverage = coverage(mower);
+        if (coverage != null && coverage.add(cellX, cellY)) {
+            mowedCells[mower]++;
+        }
+    }
+
+    /**
+     * Records the steps of a mower from now on in the given trajectory.
+     * <p>
+     * The repeated blocks are then executed step by step, so that no step is skipped.
+     *
+     * @param mower      index of the mower
+     * @param trajectory the path of the mower (<code>null</code> to stop recording)
+     */
+    public void recordTrajectory(final int mower, final Trajectory trajectory) {
+        if (trajectories == null) {
+            if (trajectory == null) {
+                return;
+            }
+            trajectories = new Trajectory[x.length];
+        }
+        trajectories[mower] = trajectory;
+    }
+
+    /**
+     * Returns the recorded path of a mower.
+     *
+     * @param mower index of the mower
+     * @return the trajectory, or <code>null</code> if it is not recorded
+     */
+    public Trajectory getTrajectory(final int mower) {
+        return trajectories == null ? null : trajectories[mower];
+    }
+
+    /**
+     * Change the orientation of a mower, to the left.
+     *
+     * @param mower index of the mower
+     */
+    public void turnLeft(final int mower) {
+        final Trajectory trajectory = getTrajectory(mower);
+        if (trajectory != null) {
+            trajectory.turnLeft();
+        }
+        heading[mower] = (byte) ((heading[mower] + TURNS[InstructionProgram.LEFT]) & 3);
+    }
+
+    /**
+     * Change the orientation of a mower, to the right.
+     *
+     * @param mower index of the mower
+     */
+    public void turnRight(final int mower) {
+        final Trajectory trajectory = getTrajectory(mower);
+        if (trajectory != null) {
+            trajectory.turnRight();
+        }
+        heading[mower] = (byte) ((heading[mower] + TURNS[InstructionProgram.RIGHT]) & 3);
+    }
+
+    /**
+     * Moves a mower 1 step forward, whatever is there.
+     *
+     * @param mower index of the mower
+     */
+    public void moveForward(final int mower) {
+        x[mower] += DX[heading[mower]];
+        y[mower] += DY[heading[mower]];
+    }
+
+    /**
+     * Moves a mower 1 step backward, whatever is there.
+     *
+     * @param mower index of the mower
+     */
+    public void moveBackward(final int mower) {
+        x[mower] -= DX[heading[mower]];
+        y[mower] -= DY[heading[mower]];
+    }
+
+    /**
+     * Move a mower forward if the next cell is free (inside the lawn and not taken by another mower).
+     * <p>
+     * The occupancy index is updated with the new position of the mower.
+     *
+     * @param mower     index of the mower
+     * @param occupancy index of the cells occupied by all the mowers of the lawn (this one included)
+     */
+    public void moveForwardIfPossible(final int mower, final @NotNull OccupancyIndex occupancy) {
+        final int fromX = x[mower];
+        final int fromY = y[mower];
+        final int toX = fromX + DX[heading[mower]];
+        final int toY = fromY + DY[heading[mower]];
+        if (occupancy.move(fromX, fromY, toX, toY)) {
+            x[mower] = toX;
+            y[mower] = toY;
+            moved(mower);
+        } else {
+            blocked(mower);
+        }
+    }
+
+    /**
+     * Records a forward move of a mower ignored because of a collision (or of the lawn edge).
+     */
+    void blocked(final int mower) {
+        blockedMoves[mower]++;
+        final Trajectory trajectory = getTrajectory(mower);
+        if (trajectory != null) {
+            trajectory.blocked(1);
+        }
+    }
+
+    /**
+     * Records a forward move of a mower to its current cell.
+     */
+    void moved(final int mower) {
+        mow(mower, x[mower], y[mower]);
+        final Trajectory trajectory = getTrajectory(mower);
+        if (trajectory != null) {
+            trajectory.forward(1);
+        }
+    }
+
+    /**
+     * Execute all the instructions of a mower, on the lawn described by the given occupancy index.
+     * <p>
+     * If a collision is detected, or if the mower would leave the lawn, the current instruction is ignored, and the
+     * next one started. The repeated blocks are executed in closed form when possible (see
+     * {@link #executeBlock(int, RepeatBlock, OccupancyIndex, InstructionRunner, CellListener)}).
+     *
+     * @param mower     index of the mower
+     * @param occupancy index of the cells occupied by all the mowers of the lawn (this one included)
+     */
+    public void execute(final int mower, final @NotNull OccupancyIndex occupancy) {
+        final MowerExecutionEvent event = FlightEvents.isEnabled() ? MowerExecutionEvent.start() : null;
+        final long blockedBefore = blockedMoves[mower];
+        final InstructionProgram instructions = programs[mower];
+        int from = 0;
+        for (int b = 0; b < instructions.blockCount(); b++) {
+            final RepeatBlock block = instructions.block(b);
+            execute(mower, instructions, from, block.start(), occupancy);
+            executeBlock(mower, block, occupancy,
+                    (index, start, end) -> execute(index, instructions, start, end, occupancy), null);
+            from = block.end();
+        }
+        execute(mower, instructions, from, instructions.length(), occupancy);
+        if (event != null) {
+            event.end(this, mower, blockedBefore);
+        }
+    }
+
+    /**
+     * Execute the instructions of a mower from <code>from</code> (included) to <code>to</code> (excluded).
+     * <p>
+     * The position and the heading of the mower are kept in local variables while the instructions run: each opcode
+     * turns the heading by {@link #TURNS}, and the forward moves read their direction in {@link #DX} and
+     * {@link #DY}, so that no instruction allocates or dispatches on an {@link LawnmowerOrientation}. A recorded
+     * trajectory needs every step, it is executed instruction by instruction.
+     */
+    private void execute(final int mower, final @NotNull InstructionProgram instructions, final int from,
+                         final int to, final @NotNull OccupancyIndex occupancy) {
+        if (getTrajectory(mower) != null) {
+            for (int i = from; i < to; i++) {
+                switch (instructions.get(i)) {
+                    case InstructionProgram.RIGHT -> turnRight(mower);
+                    case InstructionProgram.LEFT -> turnLeft(mower);
+                    case InstructionProgram.FORWARD -> moveForwardIfPossible(mower, occupancy);
+                }
+            }
+            return;
+        }
+        final CoverageMap coverage = coverage(mower);
+        int cellX = x[mower];
+        int cellY = y[mower];
+        int turns = heading[mower];
+        long blocked = 0;
+        long mowed = 0;
+        for (int i = from; i < to; i++) {
+            final int op = instructions.get(i);
+            if (op != InstructionProgram.FORWARD) {
+                turns = (turns + TURNS[op]) & 3;
+                continue;
+            }
+            final int toX = cellX + DX[turns];
+            final int toY = cellY + DY[turns];
+            if (occupancy.move(cellX, cellY, toX, toY)) {
+                cellX = toX;
+                cellY = toY;
+                if (coverage != null && coverage.add(cellX, cellY)) {
+                    mowed++;
+                }
+            } else {
+                blocked++;
+            }
+        }
+        x[mower] = cellX;
+        y[mower] = cellY;
+        heading[mower] = (byte) turns;
+        blockedMoves[mower] += blocked;
+        mowedCells[mower] += mowed;
+    }
+
+    /**
+     * Executes some instructions of a mower, for {@link #executeBlock(int, RepeatBlock, OccupancyIndex,
+     * InstructionRunner, CellListener)}.
+     */
+    @FunctionalInterface
+    public interface InstructionRunner {
+        /**
+         * Executes the instructions of a mower from <code>from</code> (included) to <code>to</code> (excluded).
+         *
+         * @param mower index of the mower
+         * @param from  index of the first instruction
+         * @param to    index of the instruction following the last one
+         */
+        void execute(int mower, int from, int to);
+    }
+
+    /**
+     * Receives the moves of the mowers jumping to their final cell, for the engines indexing the cells otherwise
+     * than with the {@link OccupancyIndex}.
+     */
+    @FunctionalInterface
+    public interface CellListener {
+        /**
+         * Receives a move of a mower.
+         *
+         * @param fromX X coordinate of the cell left by the mower
+         * @param fromY Y coordinate of the cell left by the mower
+         * @param toX   X coordinate of the cell now taken by the mower
+         * @param toY   Y coordinate of the cell now taken by the mower
+         */
+        void moved(int fromX, int fromY, int toX, int toY);
+    }
+
+    /**
+     * Execute all the iterations of a repeated block.
+     * <p>
+     * The other mowers do not move while this one executes its instructions, so:
+     * <ul>
+     *     <li>if the block does not turn the mower, and the whole rectangle swept by all its iterations is free, no
+     *     move can be blocked: the mower goes directly to its final cell</li>
+     *     <li>otherwise the iterations are executed one period at a time (see {@link RepeatBlock#period()}): as soon
+     *     as a period brings the mower back to the same cell and orientation, every next period does the same, so
+     *     they are skipped (only their blocked moves are counted)</li>
+     * </ul>
+     * Nothing is skipped when the trajectory of the mower is recorded.
+     *
+     * @param mower     index of the mower
+     * @param block     a block of its instructions
+     * @param occupancy index of the cells occupied by all the mowers of the lawn (this one included)
+     * @param runner    executes the instructions of the iterations which are not skipped
+     * @param listener  receives the move of the mower when it goes directly to its final cell (maybe
+     *                  <code>null</code>)
+     */
+    public void executeBlock(final int mower, final @NotNull RepeatBlock block, final @NotNull OccupancyIndex occupancy,
+                             final @NotNull InstructionRunner runner, final CellListener listener) {
+        long remaining = block.count();
+        if (getTrajectory(mower) != null) {
+            for (; remaining > 0; remaining--) {
+                runner.execute(mower, block.start(), block.end());
+            }
+            return;
+        }
+        if (block.turns() == 0 && translate(mower, block, remaining, occupancy, listener)) {
+            return;
+        }
+        final int period = block.period();
+        while (remaining > 0) {
+            final int startX = x[mower];
+            final int startY = y[mower];
+            final byte startHeading = heading[mower];
+            final long startBlockedMoves = blockedMoves[mower];
+            final long iterations = Math.min(period, remaining);
+            for (long iteration = 0; iteration < iterations; iteration++) {
+                runner.execute(mower, block.start(), block.end());
+            }
+            remaining -= iterations;
+            if (x[mower] == startX && y[mower] == startY && heading[mower] == startHeading) {
+                // a cycle: the next periods give the same moves, and the same blocked moves
+                final long periods = remaining / period;
+                blockedMoves[mower] += (blockedMoves[mower] - startBlockedMoves) * periods;
+                remaining -= periods * period;
+            }
+        }
+    }
+
+    /**
+     * Moves a mower to the final cell of the given iterations of a block which does not turn it, if all the cells
+     * it sweeps are free (checking them must also be cheaper than executing the iterations).
+     *
+     * @return <code>true</code> if the mower has been moved, <code>false</code> if the iterations must be executed
+     */
+    private boolean translate(final int mower, final @NotNull RepeatBlock block, final long iterations,
+                              final @NotNull OccupancyIndex occupancy, final CellListener listener) {
+        final int turns = heading[mower];
+        final long dx = block.dx(turns);
+        final long dy = block.dy(turns);
+        if ((dx == 0 && dy == 0) || tracksCoverage(mower)) {
+            // nothing to gain (a cycle), or every mowed cell must be recorded
+            return false;
+        }
+        final int fromX = x[mower];
+        final int fromY = y[mower];
+        final long last = iterations - 1;
+        final long left = fromX + block.minDx(turns) + Math.min(0, last * dx);
+        final long right = fromX + block.maxDx(turns) + Math.max(0, last * dx);
+        final long bottom = fromY + block.minDy(turns) + Math.min(0, last * dy);
+        final long top = fromY + block.maxDy(turns) + Math.max(0, last * dy);
+        if (!occupancy.isFree(left, bottom, right, top, fromX, fromY, iterations * (block.end() - block.start()))) {
+            return false;
+        }
+        final int toX = (int) (fromX + iterations * dx);
+        final int toY = (int) (fromY + iterations * dy);
+        occupancy.move(fromX, fromY, toX, toY);
+        x[mower] = toX;
+        y[mower] = toY;
+        if (listener != null) {
+            listener.moved(fromX, fromY, toX, toY);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the String representation of a mower.
+     *
+     * @param mower index of the mower
+     * @return its position and orientation
+     */
+    public @NotNull String toString(final int mower) {
+        return x[mower] + " " + y[mower] + " " + getOrientation(mower).instruction; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    private CoverageMap coverage(final int mower) {
+        return coverages == null ? null : coverages[mower];
+    }
+
+    private int checkIndex(final int mower) {
+        if (mower < 0 || mower >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(mower));
+        }
+        return mower;
+    }
+
+    /**
+     * Makes room for one more mower.
+     *
+     * @return the index of the new mower
+     */
+    private int grow() {
+        if (size == x.length) {
+            final int capacity = Math.max(DEFAULT_CAPACITY, size << 1);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            heading = Arrays.copyOf(heading, capacity);
+            blockedMoves = Arrays.copyOf(blockedMoves, capacity);
+            mowedCells = Arrays.copyOf(mowedCells, capacity);
+            programs = Arrays.copyOf(programs, capacity);
+            if (coverages != null) {
+                coverages = Arrays.copyOf(coverages, capacity);
+            }
+            if (trajectories != null) {
+                trajectories = Arrays.copyOf(trajectories, capacity);
+            }
+        }
+        return size++;
+    }
+}
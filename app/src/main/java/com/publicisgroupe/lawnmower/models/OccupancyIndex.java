@@ -0,0 +1,429 @@
+package com.publicisgroupe.lawnmower.models;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps track of the cells of a {@link Lawn} that are occupied by a lawnmower.
+ * <p>
+ * Two storages are available, and the cheapest one is chosen depending on the lawn area and the number of mowers:
+ * <ul>
+ *     <li>a bitset grid (1 bit per cell) for dense lawns</li>
+ *     <li>an open-addressing hash set of packed coordinates for sparse lawns</li>
+ * </ul>
+ * The index starts sparse (unless the lawn is small) and switches to the grid as soon as the grid becomes cheaper.
+ * Once built, checking and moving a mower are O(1) and do not allocate.
+ * <p>
+ * Cells outside the lawn are never free: a mower cannot leave the lawn. An index may also cover only a rectangle
+ * of the lawn, when the mowers it tracks are known to stay inside that rectangle.
+ */
+public final class OccupancyIndex {
+
+    /**
+     * Lawns with fewer cells than this always use the grid (8 KB at most).
+     */
+    private static final long SMALL_LAWN_AREA = 1L << 16;
+
+    /**
+     * The grid is used as soon as it costs less than this number of bits per mower.
+     */
+    private static final long DENSE_BITS_PER_MOWER = 128;
+
+    /**
+     * Biggest grid we accept to allocate (in 64-bit words).
+     */
+    private static final long MAX_GRID_WORDS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Marker of a free slot in the hash table (packed coordinates are never negative).
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * Initial capacity of the hash table (must be a power of 2).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Minimum coordinate on the east direction.
+     */
+    private final int minX;
+
+    /**
+     * Minimum coordinate on the north direction.
+     */
+    private final int minY;
+
+    /**
+     * Maximum coordinate on the east direction.
+     */
+    private final int maxX;
+
+    /**
+     * Maximum coordinate on the north direction.
+     */
+    private final int maxY;
+
+    /**
+     * Number of cells of the lawn.
+     */
+    private final long area;
+
+    /**
+     * Dense storage: one bit per cell, <code>null</code> while the index is sparse.
+     */
+    private long[] grid;
+
+    /**
+     * Sparse storage: linear probing hash table of packed coordinates, <code>null</code> once the index is dense.
+     */
+    private long[] table;
+
+    /**
+     * Number of occupied cells.
+     */
+    private int size;
+
+    /**
+     * Creates an empty index for a lawn.
+     *
+     * @param maxX maximum coordinate on the east direction
+     * @param maxY maximum coordinate on the north direction
+     */
+    public OccupancyIndex(final int maxX, final int maxY) {
+        this(0, 0, maxX, maxY);
+    }
+
+    /**
+     * Creates an empty index for a rectangle of a lawn.
+     *
+     * @param minX minimum coordinate on the east direction (not negative)
+     * @param minY minimum coordinate on the north direction (not negative)
+     * @param maxX maximum coordinate on the east direction
+     * @param maxY maximum coordinate on the north direction
+     */
+    public OccupancyIndex(final int minX, final int minY, final int maxX, final int maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.area = (maxX < minX || maxY < minY) ? 0 : ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+
+        if (area <= SMALL_LAWN_AREA) {
+            this.grid = new long[(int) ((area + 63) >>> 6)];
+        } else {
+            this.table = newTable(INITIAL_CAPACITY);
+        }
+    }
+
+    /**
+     * Checks if the given cell is inside the lawn.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>true</code> if the cell belongs to the lawn
+     */
+    public boolean isInside(final int x, final int y) {
+        return x >= minX && y >= minY && x <= maxX && y <= maxY;
+    }
+
+    /**
+     * Checks if a mower can go to the given cell.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>true</code> if the cell is inside the lawn and no mower is on it
+     */
+    public boolean isFree(final int x, final int y) {
+        return isInside(x, y) && !contains(x, y);
+    }
+
+    /**
+     * Checks if a mower can go through a whole rectangle, without looking at each of its cells.
+     * <p>
+     * The grid is checked 64 cells at a time, and the hash table is scanned instead of the rectangle when it is
+     * smaller. The check is given up when it would cost more than <code>budget</code> cell (or word, or slot)
+     * checks: the caller then moves the mower one step at a time, which is never slower.
+     *
+     * @param left   minimum X coordinate of the rectangle
+     * @param bottom minimum Y coordinate of the rectangle
+     * @param right  maximum X coordinate of the rectangle
+     * @param top    maximum Y coordinate of the rectangle
+     * @param ownX   X coordinate of the mower itself (its own cell is not an obstacle)
+     * @param ownY   Y coordinate of the mower itself
+     * @param budget maximum cost of the check
+     * @return <code>true</code> if the rectangle is inside the lawn and no other mower is on it, <code>false</code>
+     * if not, or if the check would cost too much
+     */
+    public boolean isFree(final long left, final long bottom, final long right, final long top,
+                          final int ownX, final int ownY, final long budget) {
+        if (left < minX || bottom < minY || right > maxX || top > maxY || left > right || bottom > top) {
+            return false;
+        }
+        final long rows = top - bottom + 1;
+        final long cells = rows * (right - left + 1);
+        if (grid != null) {
+            if (rows * ((right - left) / 64 + 2) > budget) {
+                return false;
+            }
+            final long own = isInside(ownX, ownY) ? cell(ownX, ownY) : EMPTY;
+            for (long row = bottom; row <= top; row++) {
+                if (!isEmpty(cell((int) left, (int) row), cell((int) right, (int) row), own)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (Math.min(cells, table.length) > budget) {
+            return false;
+        }
+        if (cells <= table.length) {
+            for (long row = bottom; row <= top; row++) {
+                for (long column = left; column <= right; column++) {
+                    if ((column != ownX || row != ownY) && contains((int) column, (int) row)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        for (final long key : table) {
+            if (key != EMPTY) {
+                final int x = (int) (key >>> 32);
+                final int y = (int) key;
+                if (x >= left && x <= right && y >= bottom && y <= top && (x != ownX || y != ownY)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of occupied cells.
+     *
+     * @return the number of mowers registered in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <code>true</code> if the index uses the bitset grid.
+     *
+     * @return <code>true</code> if the index is dense, <code>false</code> if it is sparse
+     */
+    public boolean isDense() {
+        return grid != null;
+    }
+
+    /**
+     * Registers a mower on the given cell.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>false</code> if the cell is outside the lawn or already occupied
+     */
+    public boolean add(final int x, final int y) {
+        if (!isFree(x, y)) {
+            return false;
+        }
+        if (grid == null && ((long) size + 1) * DENSE_BITS_PER_MOWER >= area && (area >>> 6) < MAX_GRID_WORDS) {
+            // the grid is now cheaper than the hash table
+            toGrid();
+        }
+        if (grid != null) {
+            final long cell = cell(x, y);
+            grid[(int) (cell >>> 6)] |= 1L << cell;
+        } else {
+            if (((long) size + 1) << 1 > table.length) {
+                // keep the load factor under 1/2
+                rehash(table.length << 1);
+            }
+            insert(table, pack(x, y));
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Unregisters the mower of the given cell.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>false</code> if no mower was registered on that cell
+     */
+    public boolean remove(final int x, final int y) {
+        if (!isInside(x, y)) {
+            return false;
+        }
+        if (grid != null) {
+            final long cell = cell(x, y);
+            final int word = (int) (cell >>> 6);
+            final long mask = 1L << cell;
+            if ((grid[word] & mask) == 0) {
+                return false;
+            }
+            grid[word] &= ~mask;
+        } else if (!delete(pack(x, y))) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves a mower from one cell to another, if the destination is free.
+     *
+     * @param fromX current X coordinate of the mower
+     * @param fromY current Y coordinate of the mower
+     * @param toX   X coordinate of the destination
+     * @param toY   Y coordinate of the destination
+     * @return <code>true</code> if the mower has been moved, <code>false</code> if the destination is outside the
+     * lawn or occupied by another mower
+     */
+    public boolean move(final int fromX, final int fromY, final int toX, final int toY) {
+        if (!isFree(toX, toY)) {
+            return false;
+        }
+        remove(fromX, fromY);
+        add(toX, toY);
+        return true;
+    }
+
+    /**
+     * Checks if a mower is registered on the given cell.
+     *
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return <code>true</code> if the cell is occupied
+     */
+    public boolean contains(final int x, final int y) {
+        if (!isInside(x, y)) {
+            return false;
+        }
+        if (grid != null) {
+            final long cell = cell(x, y);
+            return (grid[(int) (cell >>> 6)] & (1L << cell)) != 0;
+        }
+        final long key = pack(x, y);
+        final int mask = table.length - 1;
+        for (int slot = hash(key, mask); ; slot = (slot + 1) & mask) {
+            final long current = table[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Checks that no cell of the grid is occupied from <code>from</code> to <code>to</code> (included), except the
+     * <code>own</code> one.
+     */
+    private boolean isEmpty(final long from, final long to, final long own) {
+        final int first = (int) (from >>> 6);
+        final int last = (int) (to >>> 6);
+        for (int word = first; word <= last; word++) {
+            long bits = grid[word];
+            if (word == first) {
+                bits &= -1L << from;
+            }
+            if (word == last) {
+                bits &= -1L >>> (63 - (to & 63));
+            }
+            if (word == (own >>> 6)) {
+                bits &= ~(1L << own);
+            }
+            if (bits != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the cell in the grid (row by row).
+     */
+    private long cell(final int x, final int y) {
+        return (long) (y - minY) * ((long) maxX - minX + 1) + (x - minX);
+    }
+
+    /**
+     * Packs both (positive) coordinates into a single <code>long</code>.
+     */
+    private static long pack(final int x, final int y) {
+        return ((long) x << 32) | y;
+    }
+
+    /**
+     * Spreads the packed coordinates over the table (Fibonacci hashing).
+     */
+    private static int hash(final long key, final int mask) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    private static long[] newTable(final int capacity) {
+        final long[] newTable = new long[capacity];
+        Arrays.fill(newTable, EMPTY);
+        return newTable;
+    }
+
+    private static void insert(final long[] target, final long key) {
+        final int mask = target.length - 1;
+        int slot = hash(key, mask);
+        while (target[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = key;
+    }
+
+    /**
+     * Removes a key from the hash table, shifting back the following keys of the cluster (no tombstone).
+     */
+    private boolean delete(final long key) {
+        final int mask = table.length - 1;
+        int slot = hash(key, mask);
+        while (table[slot] != key) {
+            if (table[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = hash(table[next], mask);
+            // move the key into the hole only if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = EMPTY;
+        return true;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] newTable = newTable(capacity);
+        for (final long key : table) {
+            if (key != EMPTY) {
+                insert(newTable, key);
+            }
+        }
+        table = newTable;
+    }
+
+    private void toGrid() {
+        final long[] newGrid = new long[(int) ((area + 63) >>> 6)];
+        for (final long key : table) {
+            if (key != EMPTY) {
+                final long cell = cell((int) (key >>> 32), (int) key);
+                newGrid[(int) (cell >>> 6)] |= 1L << cell;
+            }
+        }
+        grid = newGrid;
+        table = null;
+    }
+}
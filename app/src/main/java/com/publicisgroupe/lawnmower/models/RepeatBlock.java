@@ -0,0 +1,179 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This record represents a block of instructions repeated several times, written <code>(BODY)*COUNT</code> in the
+ * program files.
+ * <p>
+ * The geometry of one iteration of the body is computed once, for a mower facing north on the cell (0, 0) and
+ * without any obstacle: its rotation, its displacement and the rectangle swept by the mower (its start cell
+ * included). The geometry for another start orientation is the same, rotated.
+ *
+ * @param start index of the first instruction of the body in the {@link InstructionProgram}
+ * @param end   index of the instruction following the body
+ * @param count number of iterations of the body
+ * @param turns rotation of one iteration, in quarter turns to the right (from 0 to 3)
+ * @param dx    displacement of one iteration towards the east
+ * @param dy    displacement of one iteration towards the north
+ * @param minDx west side of the swept rectangle, relative to the start cell
+ * @param maxDx east side of the swept rectangle, relative to the start cell
+ * @param minDy south side of the swept rectangle, relative to the start cell
+ * @param maxDy north side of the swept rectangle, relative to the start cell
+ */
+public record RepeatBlock(int start, int end, int count, int turns,
+                          int dx, int dy, int minDx, int maxDx, int minDy, int maxDy) {
+
+    /**
+     * Computes the geometry of a block of a program.
+     *
+     * @param program the program holding the body
+     * @param start   index of the first instruction of the body
+     * @param end     index of the instruction following the body
+     * @param count   number of iterations of the body
+     * @return the block
+     */
+    static @NotNull RepeatBlock of(final @NotNull InstructionProgram program,
+                                   final int start, final int end, final int count) {
+        // direction: 0 = north, 1 = east, 2 = south, 3 = west
+        int direction = 0;
+        int x = 0;
+        int y = 0;
+        int minX = 0;
+        int maxX = 0;
+        int minY = 0;
+        int maxY = 0;
+        for (int i = start; i < end; i++) {
+            switch (program.get(i)) {
+                case InstructionProgram.RIGHT -> direction = (direction + 1) & 3;
+                case InstructionProgram.LEFT -> direction = (direction + 3) & 3;
+                default -> {
+                    switch (direction) {
+                        case 0 -> maxY = Math.max(maxY, ++y);
+                        case 1 -> maxX = Math.max(maxX, ++x);
+                        case 2 -> minY = Math.min(minY, --y);
+                        default -> minX = Math.min(minX, --x);
+                    }
+                }
+            }
+        }
+        return new RepeatBlock(start, end, count, direction, x, y, minX, maxX, minY, maxY);
+    }
+
+    /**
+     * Returns the number of quarter turns to the right from the north to the given orientation.
+     *
+     * @param orientation an orientation
+     * @return 0 for the north, 1 for the east, 2 for the south, 3 for the west
+     */
+    public static int quarterTurns(final @NotNull LawnmowerOrientation orientation) {
+        return switch (orientation) {
+            case NORTH -> 0;
+            case EAST -> 1;
+            case SOUTH -> 2;
+            case WEST -> 3;
+        };
+    }
+
+    /**
+     * Returns the number of iterations after which a mower faces its start orientation again.
+     * <p>
+     * Without any obstacle, the displacement of such a period is zero when the block turns the mower: a mower
+     * executing the block is back on its start cell after each period.
+     *
+     * @return 1, 2 or 4
+     */
+    public int period() {
+        return turns == 0 ? 1 : (turns == 2 ? 2 : 4);
+    }
+
+    /**
+     * Returns the displacement of one iteration towards the east, for a mower starting with the given orientation.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the displacement on the X axis
+     */
+    public int dx(final int orientation) {
+        return switch (orientation) {
+            case 0 -> dx;
+            case 1 -> dy;
+            case 2 -> -dx;
+            default -> -dy;
+        };
+    }
+
+    /**
+     * Returns the displacement of one iteration towards the north, for a mower starting with the given orientation.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the displacement on the Y axis
+     */
+    public int dy(final int orientation) {
+        return switch (orientation) {
+            case 0 -> dy;
+            case 1 -> -dx;
+            case 2 -> -dy;
+            default -> dx;
+        };
+    }
+
+    /**
+     * Returns the west side of the rectangle swept by one iteration, relative to the start cell.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the minimum displacement on the X axis
+     */
+    public int minDx(final int orientation) {
+        return switch (orientation) {
+            case 0 -> minDx;
+            case 1 -> minDy;
+            case 2 -> -maxDx;
+            default -> -maxDy;
+        };
+    }
+
+    /**
+     * Returns the east side of the rectangle swept by one iteration, relative to the start cell.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the maximum displacement on the X axis
+     */
+    public int maxDx(final int orientation) {
+        return switch (orientation) {
+            case 0 -> maxDx;
+            case 1 -> maxDy;
+            case 2 -> -minDx;
+            default -> -minDy;
+        };
+    }
+
+    /**
+     * Returns the south side of the rectangle swept by one iteration, relative to the start cell.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the minimum displacement on the Y axis
+     */
+    public int minDy(final int orientation) {
+        return switch (orientation) {
+            case 0 -> minDy;
+            case 1 -> -maxDx;
+            case 2 -> -maxDy;
+            default -> minDx;
+        };
+    }
+
+    /**
+     * Returns the north side of the rectangle swept by one iteration, relative to the start cell.
+     *
+     * @param orientation number of quarter turns of the start orientation (see {@link #quarterTurns})
+     * @return the maximum displacement on the Y axis
+     */
+    public int maxDy(final int orientation) {
+        return switch (orientation) {
+            case 0 -> maxDy;
+            case 1 -> -minDx;
+            case 2 -> -minDy;
+            default -> maxDx;
+        };
+    }
+}
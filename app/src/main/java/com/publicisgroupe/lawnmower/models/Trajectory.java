@@ -0,0 +1,300 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class records the path of a {@link Lawnmower}, step by step (one step per executed instruction).
+ * <p>
+ * The path is delta-encoded: each step only changes the previous state of the mower (one cell forward, a blocked
+ * move, a quarter turn). The consecutive steps of the same kind are merged into a token, and each token is written as
+ * a variable-length integer (7 bits per byte, the lowest first): <code>(count &lt;&lt; 2) | kind</code>. A straight
+ * run of a thousand cells takes 2 bytes.
+ * <p>
+ * To find the state of the mower after any step without decoding the whole path, a keyframe is recorded every
+ * {@link #KEYFRAME_INTERVAL} tokens: the number of steps done, the position and the direction of the mower, and the
+ * position of the next token. The directions are numbered in quarter turns to the right from the north (see
+ * {@link RepeatBlock#quarterTurns(LawnmowerOrientation)}).
+ * <p>
+ * A trajectory is recorded by a single thread.
+ */
+public final class Trajectory {
+
+    /**
+     * Kind of the tokens: forward moves.
+     */
+    public static final int FORWARD = 0;
+
+    /**
+     * Kind of the tokens: forward moves blocked by another mower or by the lawn edge.
+     */
+    public static final int BLOCKED = 1;
+
+    /**
+     * Kind of the tokens: quarter turns to the left.
+     */
+    public static final int LEFT = 2;
+
+    /**
+     * Kind of the tokens: quarter turns to the right.
+     */
+    public static final int RIGHT = 3;
+
+    /**
+     * Number of tokens between two keyframes.
+     */
+    public static final int KEYFRAME_INTERVAL = 1024;
+
+    /**
+     * Size of a keyframe, in bytes: steps (long), x and y (ints), direction (byte), position of the next token (int).
+     */
+    public static final int KEYFRAME_SIZE = 21;
+
+    /**
+     * Displacement of a forward move towards each direction.
+     */
+    private static final int[] DX = {0, 1, 0, -1};
+
+    private static final int[] DY = {1, 0, -1, 0};
+
+    /**
+     * Init state of the mower.
+     */
+    private final int startX;
+
+    private final int startY;
+
+    private final int startDirection;
+
+    /**
+     * State of the mower after the written tokens.
+     */
+    private int x;
+
+    private int y;
+
+    private int direction;
+
+    /**
+     * The written tokens.
+     */
+    private byte[] tokens = new byte[64];
+
+    private int size;
+
+    private int tokenCount;
+
+    /**
+     * Number of steps of the written tokens.
+     */
+    private long steps;
+
+    /**
+     * The token not written yet (it may still grow), <code>-1</code> if none.
+     */
+    private int pendingKind = -1;
+
+    private long pendingCount;
+
+    /**
+     * The keyframes: steps, position (x and y) and direction with the position of the next token.
+     */
+    private long[] keyframes = new long[3 * 4];
+
+    private int keyframeCount;
+
+    /**
+     * Starts the trajectory of a mower.
+     *
+     * @param x           init X coordinate
+     * @param y           init Y coordinate
+     * @param orientation init orientation
+     */
+    public Trajectory(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+        this.startX = x;
+        this.startY = y;
+        this.startDirection = RepeatBlock.quarterTurns(orientation);
+        this.x = x;
+        this.y = y;
+        this.direction = startDirection;
+    }
+
+    /**
+     * Records forward moves.
+     *
+     * @param count number of cells
+     */
+    public void forward(final long count) {
+        record(FORWARD, count);
+    }
+
+    /**
+     * Records blocked forward moves.
+     *
+     * @param count number of blocked moves
+     */
+    public void blocked(final long count) {
+        record(BLOCKED, count);
+    }
+
+    /**
+     * Records a quarter turn to the left.
+     */
+    public void turnLeft() {
+        record(LEFT, 1);
+    }
+
+    /**
+     * Records a quarter turn to the right.
+     */
+    public void turnRight() {
+        record(RIGHT, 1);
+    }
+
+    /**
+     * Returns the number of recorded steps.
+     *
+     * @return the number of executed instructions
+     */
+    public long steps() {
+        return steps + (pendingKind < 0 ? 0 : pendingCount);
+    }
+
+    /**
+     * Returns the init X coordinate.
+     *
+     * @return the X coordinate before the first step
+     */
+    public int startX() {
+        return startX;
+    }
+
+    /**
+     * Returns the init Y coordinate.
+     *
+     * @return the Y coordinate before the first step
+     */
+    public int startY() {
+        return startY;
+    }
+
+    /**
+     * Returns the init direction.
+     *
+     * @return the direction before the first step, in quarter turns to the right from the north
+     */
+    public int startDirection() {
+        return startDirection;
+    }
+
+    /**
+     * Writes the last token: nothing can be recorded anymore.
+     */
+    public void finish() {
+        if (pendingKind >= 0) {
+            write(pendingKind, pendingCount);
+            pendingKind = -1;
+        }
+    }
+
+    /**
+     * Returns the tokens, once the trajectory is finished.
+     *
+     * @return a read-only view of the tokens
+     */
+    public @NotNull ByteBuffer tokens() {
+        return ByteBuffer.wrap(tokens, 0, size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the number of keyframes.
+     *
+     * @return the number of keyframes
+     */
+    public int keyframeCount() {
+        return keyframeCount;
+    }
+
+    /**
+     * Writes the keyframes ({@link #KEYFRAME_SIZE} bytes each, big-endian).
+     *
+     * @param out where the keyframes are written
+     */
+    public void writeKeyframes(final @NotNull ByteBuffer out) {
+        for (int k = 0; k < 3 * keyframeCount; k += 3) {
+            out.putLong(keyframes[k])
+                    .putInt((int) (keyframes[k + 1] >> 32))
+                    .putInt((int) keyframes[k + 1])
+                    .put((byte) (keyframes[k + 2] & 3))
+                    .putInt((int) (keyframes[k + 2] >>> 2));
+        }
+    }
+
+    /**
+     * Applies the steps of a token to the state of a mower.
+     *
+     * @param state the X coordinate, the Y coordinate and the direction of the mower (updated)
+     * @param kind  kind of the token
+     * @param count number of steps
+     */
+    public static void apply(final int @NotNull [] state, final int kind, final long count) {
+        switch (kind) {
+            case FORWARD -> {
+                state[0] += (int) (count * DX[state[2]]);
+                state[1] += (int) (count * DY[state[2]]);
+            }
+            case LEFT -> state[2] = (int) ((state[2] - count) & 3);
+            case RIGHT -> state[2] = (int) ((state[2] + count) & 3);
+            default -> {
+                // a blocked move does not change the state
+            }
+        }
+    }
+
+    private void record(final int kind, final long count) {
+        if (kind == pendingKind) {
+            pendingCount += count;
+        } else if (count > 0) {
+            finish();
+            pendingKind = kind;
+            pendingCount = count;
+        }
+    }
+
+    private void write(final int kind, final long count) {
+        if (size + 10 > tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokens.length << 1);
+        }
+        long value = (count << 2) | kind;
+        while ((value & ~0x7FL) != 0) {
+            tokens[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        tokens[size++] = (byte) value;
+        steps += count;
+
+        switch (kind) {
+            case FORWARD -> {
+                x += (int) (count * DX[direction]);
+                y += (int) (count * DY[direction]);
+            }
+            case LEFT -> direction = (int) ((direction - count) & 3);
+            case RIGHT -> direction = (int) ((direction + count) & 3);
+            default -> {
+                // a blocked move does not change the state
+            }
+        }
+
+        if (++tokenCount % KEYFRAME_INTERVAL == 0) {
+            if (3 * keyframeCount == keyframes.length) {
+                keyframes = Arrays.copyOf(keyframes, keyframes.length << 1);
+            }
+            keyframes[3 * keyframeCount] = steps;
+            keyframes[3 * keyframeCount + 1] = ((long) x << 32) | (y & 0xFFFFFFFFL);
+            keyframes[3 * keyframeCount + 2] = ((long) size << 2) | direction;
+            keyframeCount++;
+        }
+    }
+}
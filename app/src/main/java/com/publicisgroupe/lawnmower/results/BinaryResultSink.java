@@ -0,0 +1,25 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sink of the {@link ResultFormat#BINARY} format.
+ */
+final class BinaryResultSink extends BufferedResultSink {
+
+    BinaryResultSink(final @NotNull WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void accept(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+        reserve();
+        buffer.putInt(x);
+        buffer.putInt(y);
+        buffer.put((byte) orientation.instruction);
+        count++;
+    }
+}
@@ -0,0 +1,104 @@
+package com.publicisgroupe.lawnmower.results;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Base class of the sinks: the results are encoded into a byte buffer, written to the channel when it is full.
+ * <p>
+ * The numbers are written digit by digit, without creating any {@link String}.
+ */
+abstract class BufferedResultSink implements ResultSink {
+
+    /**
+     * Size of the buffer.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Space needed by the longest record of all the formats.
+     */
+    private static final int MAX_RECORD_SIZE = 128;
+
+    /**
+     * Digits of a number, from the last one.
+     */
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Destination of the results.
+     */
+    private final @NotNull WritableByteChannel channel;
+
+    /**
+     * Encoded results not written yet.
+     */
+    protected final @NotNull ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Index of the next mower.
+     */
+    protected long count;
+
+    protected BufferedResultSink(final @NotNull WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Makes sure the buffer can hold the next record.
+     */
+    protected void reserve() {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            drain();
+        }
+    }
+
+    @Override
+    public void flush() {
+        drain();
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the decimal representation of a number.
+     */
+    protected void putNumber(final long number) {
+        long value = number;
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+    }
+
+    /**
+     * Writes an ASCII text.
+     */
+    protected void putAscii(final @NotNull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+}
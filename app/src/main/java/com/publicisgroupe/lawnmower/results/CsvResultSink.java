@@ -0,0 +1,31 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sink of the {@link ResultFormat#CSV} format.
+ */
+final class CsvResultSink extends BufferedResultSink {
+
+    CsvResultSink(final @NotNull WritableByteChannel channel) {
+        super(channel);
+        putAscii("mower,x,y,orientation\n"); //$NON-NLS-1$
+    }
+
+    @Override
+    public void accept(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+        reserve();
+        putNumber(count);
+        buffer.put((byte) ',');
+        putNumber(x);
+        buffer.put((byte) ',');
+        putNumber(y);
+        buffer.put((byte) ',');
+        buffer.put((byte) orientation.instruction);
+        buffer.put((byte) '\n');
+        count++;
+    }
+}
@@ -0,0 +1,31 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sink of the {@link ResultFormat#NDJSON} format.
+ */
+final class NdjsonResultSink extends BufferedResultSink {
+
+    NdjsonResultSink(final @NotNull WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void accept(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+        reserve();
+        putAscii("{\"mower\":"); //$NON-NLS-1$
+        putNumber(count);
+        putAscii(",\"x\":"); //$NON-NLS-1$
+        putNumber(x);
+        putAscii(",\"y\":"); //$NON-NLS-1$
+        putNumber(y);
+        putAscii(",\"orientation\":\""); //$NON-NLS-1$
+        buffer.put((byte) orientation.instruction);
+        putAscii("\"}\n"); //$NON-NLS-1$
+        count++;
+    }
+}
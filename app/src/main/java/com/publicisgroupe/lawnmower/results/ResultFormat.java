@@ -0,0 +1,66 @@
+package com.publicisgroupe.lawnmower.results;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The available formats of the results.
+ */
+public enum ResultFormat {
+    /**
+     * One line per mower: <code>x y orientation</code> (the format of the exercise).
+     */
+    TEXT(".out"), //$NON-NLS-1$
+
+    /**
+     * One JSON object per line: <code>{"mower":0,"x":1,"y":3,"orientation":"N"}</code>.
+     */
+    NDJSON(".ndjson"), //$NON-NLS-1$
+
+    /**
+     * A header line (<code>mower,x,y,orientation</code>), then one line per mower.
+     */
+    CSV(".csv"), //$NON-NLS-1$
+
+    /**
+     * 9 bytes per mower: x and y as big-endian 32-bit integers, then the orientation letter (ASCII).
+     */
+    BINARY(".bin"); //$NON-NLS-1$
+
+    /**
+     * Extension of the files written in this format.
+     */
+    public final @NotNull String extension;
+
+    ResultFormat(final @NotNull String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Creates a sink writing the results to the given channel, in this format.
+     *
+     * @param channel destination of the results (it is not closed by the sink)
+     * @return a new sink
+     */
+    public @NotNull ResultSink open(final @NotNull WritableByteChannel channel) {
+        return switch (this) {
+            case TEXT -> new TextResultSink(channel);
+            case NDJSON -> new NdjsonResultSink(channel);
+            case CSV -> new CsvResultSink(channel);
+            case BINARY -> new BinaryResultSink(channel);
+        };
+    }
+
+    /**
+     * Creates a sink writing the results to the given stream, in this format.
+     *
+     * @param out destination of the results (it is not closed by the sink)
+     * @return a new sink
+     */
+    public @NotNull ResultSink open(final @NotNull OutputStream out) {
+        return open(Channels.newChannel(out));
+    }
+}
@@ -0,0 +1,53 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Flushable;
+
+/**
+ * Destination of the final positions of the mowers.
+ * <p>
+ * The results are given in the order of the mowers, and may be buffered until {@link #flush()} is called. A sink
+ * is used by a single thread, and does not close its destination: its creator does.
+ * <p>
+ * The I/O errors are thrown as {@link java.io.UncheckedIOException}.
+ */
+public interface ResultSink extends Flushable {
+
+    /**
+     * Adds the final position of the next mower.
+     *
+     * @param x           final X coordinate
+     * @param y           final Y coordinate
+     * @param orientation final orientation
+     */
+    void accept(int x, int y, @NotNull LawnmowerOrientation orientation);
+
+    /**
+     * Adds the final position of the next mower.
+     *
+     * @param mower the mower, once all its instructions are executed
+     */
+    default void accept(final @NotNull Lawnmower mower) {
+        accept(mower.getFleet(), mower.getIndex());
+    }
+
+    /**
+     * Adds the final position of the next mower.
+     *
+     * @param fleet the fleet of the mower
+     * @param mower index of the mower in the fleet, once all its instructions are executed
+     */
+    default void accept(final @NotNull MowerFleet fleet, final int mower) {
+        accept(fleet.getX(mower), fleet.getY(mower), fleet.getOrientation(mower));
+    }
+
+    /**
+     * Writes all the buffered results to the destination.
+     */
+    @Override
+    void flush();
+}
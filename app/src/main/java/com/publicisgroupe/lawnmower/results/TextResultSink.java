@@ -0,0 +1,33 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sink of the {@link ResultFormat#TEXT} format.
+ */
+final class TextResultSink extends BufferedResultSink {
+
+    /**
+     * End of line of the platform (like <code>println</code>).
+     */
+    private static final @NotNull String LINE_SEPARATOR = System.lineSeparator();
+
+    TextResultSink(final @NotNull WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void accept(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+        reserve();
+        putNumber(x);
+        buffer.put((byte) ' ');
+        putNumber(y);
+        buffer.put((byte) ' ');
+        buffer.put((byte) orientation.instruction);
+        putAscii(LINE_SEPARATOR);
+        count++;
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class saves the progress of a 'lawnmower programming file (*.lpf)' execution, so that it can be resumed.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.CoverageMap;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * Periodic checkpoints of the sequential execution of a {@link Lawn}.
+ * <p>
+ * The mowers are executed one after the other, so the state of the execution is the index of the next mower, and the
+ * state of the mowers already executed: their final position and orientation, their blocked moves and the cells they
+ * mowed first. The other mowers are still on their init position, which is read from the program again. When the
+ * coverage is tracked, the {@link CoverageMap} is saved too.
+ * <p>
+ * The file is made of (all the numbers are big-endian):
+ * <ol>
+ *     <li>the magic number <code>LPFC</code> and the version of the format (ints)</li>
+ *     <li>the fingerprint of the program (long), so that a checkpoint is never restored into another program</li>
+ *     <li>the index of the next mower (int), then 25 bytes for each mower before it: x and y (ints), the orientation
+ *     letter (ASCII), the blocked moves and the mowed cells (longs)</li>
+ *     <li>a boolean telling if the coverage map follows, then the map</li>
+ * </ol>
+ * A checkpoint is written into a temporary file, then moved over the previous one: a run interrupted while writing it
+ * still finds the previous checkpoint.
+ * <p>
+ * The I/O errors are thrown as {@link UncheckedIOException}, like the result sinks do.
+ */
+public class Checkpoints {
+
+    /**
+     * First bytes of a checkpoint ("LPFC").
+     */
+    static final int MAGIC = 0x4C504643;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the buffers of the file.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The checkpoint file.
+     */
+    private final @NotNull Path file;
+
+    /**
+     * The file written before replacing the checkpoint file.
+     */
+    private final @NotNull Path temporary;
+
+    /**
+     * Minimum time between two checkpoints, in nanoseconds.
+     */
+    private final long interval;
+
+    /**
+     * <code>true</code> to restore the checkpoint file (if it exists) before executing the mowers.
+     */
+    private final boolean resume;
+
+    /**
+     * Fingerprint of the executed program.
+     */
+    private long fingerprint;
+
+    /**
+     * Time of the last checkpoint (or of the start of the execution).
+     */
+    private long lastCheckpoint;
+
+    /**
+     * Creates the checkpoints of an execution.
+     *
+     * @param file     the checkpoint file
+     * @param interval minimum time between two checkpoints (zero to write one after each mower)
+     * @param resume   <code>true</code> to restore the checkpoint file (if it exists) before executing the mowers
+     */
+    public Checkpoints(final @NotNull Path file, final @NotNull Duration interval, final boolean resume) {
+        this.file = file;
+        this.temporary = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+        this.interval = interval.toNanos();
+        this.resume = resume;
+    }
+
+    /**
+     * Starts the execution of the lawn, restoring the checkpoint file if asked.
+     * <p>
+     * This must be called before any mower moves: the mowers before the returned index get their saved state (and
+     * their saved position in the occupancy index), the coverage map gets the saved cells.
+     *
+     * @param lawn the lawn, with all its mowers on their init position
+     * @return the index of the next mower to execute (zero when nothing is restored)
+     * @throws LawnmowerFileFormatException if the checkpoint file is not valid, or was written for another program
+     */
+    public int start(final @NotNull Lawn lawn) throws LawnmowerFileFormatException {
+        this.fingerprint = fingerprint(lawn);
+        this.lastCheckpoint = System.nanoTime();
+        if (!resume) {
+            return 0;
+        }
+        try (final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            return restore(lawn, in);
+        } catch (final NoSuchFileException e) {
+            // nothing to resume: the execution starts from the first mower
+            return 0;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records that a mower has been executed, and writes a checkpoint if the last one is old enough.
+     *
+     * @param lawn the lawn
+     * @param next the index of the next mower to execute
+     */
+    public void executed(final @NotNull Lawn lawn, final int next) {
+        if (System.nanoTime() - lastCheckpoint >= interval) {
+            save(lawn, next);
+        }
+    }
+
+    /**
+     * Writes a checkpoint.
+     *
+     * @param lawn the lawn
+     * @param next the index of the next mower to execute
+     */
+    public void save(final @NotNull Lawn lawn, final int next) {
+        try {
+            try (final DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fingerprint);
+                out.writeInt(next);
+                final MowerFleet mowers = lawn.fleet();
+                for (int i = 0; i < next; i++) {
+                    out.writeInt(mowers.getX(i));
+                    out.writeInt(mowers.getY(i));
+                    out.writeByte(mowers.getOrientation(i).instruction);
+                    out.writeLong(mowers.getBlockedMoves(i));
+                    out.writeLong(mowers.getMowedCells(i));
+                }
+                out.writeBoolean(lawn.coverage() != null);
+                if (lawn.coverage() != null) {
+                    lawn.coverage().write(out);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Deletes the checkpoint file (and the one an interrupted run may have left), once all the mowers are executed.
+     */
+    public void complete() {
+        try {
+            Files.deleteIfExists(temporary);
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Restores a checkpoint into the lawn.
+     */
+    private int restore(final @NotNull Lawn lawn, final @NotNull DataInputStream in)
+            throws LawnmowerFileFormatException {
+        final int next;
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw invalid();
+            }
+            if (in.readLong() != fingerprint) {
+                throw new LawnmowerFileFormatException(
+                        Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                        I18n.getMessage("checkpoint.other.program", file)); //$NON-NLS-1$
+            }
+            next = in.readInt();
+            final MowerFleet mowers = lawn.fleet();
+            if (next < 0 || next > mowers.size()) {
+                throw invalid();
+            }
+
+            // the executed mowers leave their init position before any of them takes its saved position
+            for (int i = 0; i < next; i++) {
+                lawn.occupancy().remove(mowers.getX(i), mowers.getY(i));
+            }
+            for (int i = 0; i < next; i++) {
+                final int x = in.readInt();
+                final int y = in.readInt();
+                final LawnmowerOrientation orientation = LawnmowerOrientation
+                        .valueOfInstruction((char) in.readUnsignedByte()).orElse(null);
+                if (orientation == null || !lawn.occupancy().isInside(x, y) || !lawn.occupancy().add(x, y)) {
+                    throw invalid();
+                }
+                mowers.setX(i, x);
+                mowers.setY(i, y);
+                mowers.setOrientation(i, orientation);
+                mowers.addBlockedMoves(i, in.readLong() - mowers.getBlockedMoves(i));
+                mowers.addMowedCells(i, in.readLong() - mowers.getMowedCells(i));
+            }
+
+            if (in.readBoolean() != (lawn.coverage() != null)) {
+                throw invalid();
+            }
+            if (lawn.coverage() != null) {
+                lawn.coverage().addAll(CoverageMap.read(in));
+            }
+            if (in.read() >= 0) {
+                throw invalid();
+            }
+        } catch (final IOException e) {
+            // truncated or corrupted file
+            throw invalid();
+        }
+        lastCheckpoint = System.nanoTime();
+        return next;
+    }
+
+    /**
+     * Computes the fingerprint of a program from its lawn, the init positions and the instructions of its mowers.
+     */
+    private static long fingerprint(final @NotNull Lawn lawn) {
+        long hash = ((long) lawn.maxX() << 32) ^ lawn.maxY();
+        final MowerFleet mowers = lawn.fleet();
+        hash = hash * 31 + mowers.size();
+        for (int i = 0; i < mowers.size(); i++) {
+            final InstructionProgram instructions = mowers.getInstructions(i);
+            hash = hash * 31 + (((long) mowers.getX(i) << 32) ^ mowers.getY(i));
+            hash = hash * 31 + mowers.getOrientation(i).ordinal();
+            hash = hash * 31 + instructions.steps();
+            hash = hash * 31 + instructions.blockCount();
+            hash = hash * 31 + instructions.packed().hashCode();
+        }
+        return hash;
+    }
+
+    private @NotNull LawnmowerFileFormatException invalid() {
+        return new LawnmowerFileFormatException(
+                Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                I18n.getMessage("checkpoint.invalid", file)); //$NON-NLS-1$
+    }
+}
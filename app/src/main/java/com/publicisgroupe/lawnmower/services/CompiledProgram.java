@@ -0,0 +1,331 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reads a 'compiled lawnmower programming file (*.lpfb)', written by {@link ProgramCompiler}.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compiled program, memory-mapped: nothing is parsed, and the instructions of the mowers are read in place.
+ * <p>
+ * The file is made of (all the numbers are big-endian):
+ * <ol>
+ *     <li>a header of {@link #HEADER_SIZE} bytes: the magic number <code>LPFB</code>, the version of the format
+ *     (short), a reserved short, the coordinates of the top right point of the lawn (2 ints) and the number of
+ *     mowers (long)</li>
+ *     <li>the table of the init positions, {@link #POSITION_SIZE} bytes per mower: x and y (ints) and the
+ *     orientation letter (ASCII)</li>
+ *     <li>the index of the instructions, {@link #INDEX_ENTRY_SIZE} bytes per mower: the position of its instructions
+ *     in the file (long), their number (int) and the number of repeated blocks (int)</li>
+ *     <li>the instructions of the mowers, packed on 2 bits each like {@link InstructionProgram} does, each one
+ *     followed by its repeated blocks ({@link #BLOCK_SIZE} bytes each: start, end and count, all ints)</li>
+ * </ol>
+ * Since the tables have fixed-width entries, any mower can be read by its index, without reading the other ones.
+ */
+public class CompiledProgram implements Closeable {
+
+    /**
+     * Extension of the compiled programs.
+     */
+    public static final @NotNull String EXTENSION = ".lpfb"; //$NON-NLS-1$
+
+    /**
+     * First bytes of a compiled program ("LPFB").
+     */
+    static final int MAGIC = 0x4C504642;
+
+    /**
+     * Version of the format written by {@link ProgramCompiler}.
+     */
+    static final short VERSION = 2;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * Size of an init position, in bytes.
+     */
+    static final int POSITION_SIZE = 9;
+
+    /**
+     * Size of an entry of the instructions index, in bytes.
+     */
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    /**
+     * Size of a repeated block, in bytes.
+     */
+    static final int BLOCK_SIZE = 12;
+
+    /**
+     * Maximum number of bytes mapped at once.
+     */
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    /**
+     * Name of the program (used in the error messages).
+     */
+    private final @NotNull String name;
+
+    /**
+     * The compiled file.
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * Size of the file, in bytes.
+     */
+    private final long size;
+
+    /**
+     * Coordinates of the top right point of the lawn.
+     */
+    private final int maxX;
+
+    private final int maxY;
+
+    /**
+     * Number of mowers.
+     */
+    private final long mowers;
+
+    /**
+     * Windows on the position table, on the index and on the instructions (so that reading the mowers one after the
+     * other does not remap the file for each of them).
+     */
+    private final @NotNull Window positions;
+
+    private final @NotNull Window index;
+
+    private final @NotNull Window instructions;
+
+    private CompiledProgram(final @NotNull String name, final @NotNull FileChannel channel)
+            throws IOException, LawnmowerFileFormatException {
+        this.name = name;
+        this.channel = channel;
+        this.size = channel.size();
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // read until the header is full, or the end of the file
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw invalid();
+        }
+        header.getShort();
+        this.maxX = header.getInt();
+        this.maxY = header.getInt();
+        this.mowers = header.getLong();
+        if (mowers < 0 || mowers > (size - HEADER_SIZE) / (POSITION_SIZE + INDEX_ENTRY_SIZE)) {
+            throw invalid();
+        }
+        this.positions = new Window();
+        this.index = new Window();
+        this.instructions = new Window();
+    }
+
+    /**
+     * Opens the given compiled program.
+     *
+     * @param file the compiled program
+     * @return the compiled program, that must be closed
+     * @throws LawnmowerFileFormatException if the file is not a compiled program (or not of this version)
+     * @throws IOException                  if the file cannot be read
+     */
+    public static @NotNull CompiledProgram open(final @NotNull Path file)
+            throws LawnmowerFileFormatException, IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new CompiledProgram(file.getFileName().toString(), channel);
+        } catch (final IOException | LawnmowerFileFormatException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the given file starts like a compiled program.
+     *
+     * @param file the file to check
+     * @return <code>true</code> for a compiled program, <code>false</code> for a text program
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompiled(final @NotNull Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // read until the magic number is complete, or the end of the file
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Returns the name of the program.
+     *
+     * @return the name used in the error messages
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the size of the compiled program.
+     *
+     * @return the number of bytes of the file
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the lawn of the program, without any mower.
+     *
+     * @return a new {@link Lawn}
+     */
+    public @NotNull Lawn readLawn() {
+        return new Lawn(maxX, maxY);
+    }
+
+    /**
+     * Returns the number of mowers of the program.
+     *
+     * @return the number of mowers
+     */
+    public long mowerCount() {
+        return mowers;
+    }
+
+    /**
+     * Reads the init position of a mower.
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @return its init position
+     * @throws LawnmowerFileFormatException if the entry of the mower is not valid
+     */
+    public @NotNull LawnmowerInitRecord readInitRecord(final long mower) throws LawnmowerFileFormatException {
+        final ByteBuffer entry = positions.slice(HEADER_SIZE + checkIndex(mower) * POSITION_SIZE, POSITION_SIZE);
+        final int x = entry.getInt(0);
+        final int y = entry.getInt(Integer.BYTES);
+        final LawnmowerOrientation orientation = LawnmowerOrientation
+                .valueOfInstruction((char) entry.get(2 * Integer.BYTES))
+                .orElseThrow(this::invalid);
+        return new LawnmowerInitRecord(x, y, orientation);
+    }
+
+    /**
+     * Returns the instructions of a mower, read in place from the mapped file.
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @return its instructions
+     * @throws LawnmowerFileFormatException if the entry of the mower is not valid
+     */
+    public @NotNull InstructionProgram readInstructions(final long mower) throws LawnmowerFileFormatException {
+        final ByteBuffer entry = index.slice(
+                HEADER_SIZE + mowers * POSITION_SIZE + checkIndex(mower) * INDEX_ENTRY_SIZE, INDEX_ENTRY_SIZE);
+        final long offset = entry.getLong(0);
+        final int length = entry.getInt(Long.BYTES);
+        final int blocks = entry.getInt(Long.BYTES + Integer.BYTES);
+        if (offset < HEADER_SIZE || offset > size || length < 0 || blocks < 0 || blocks > length) {
+            throw invalid();
+        }
+        final int packedSize = InstructionProgram.packedSize(length);
+        // check that the blocks fit in the file before allocating them (a corrupt count would overflow the sizes)
+        final long available = size - offset - packedSize;
+        if (available < 0 || blocks > Math.min(available / BLOCK_SIZE, Integer.MAX_VALUE / BLOCK_SIZE)) {
+            throw invalid();
+        }
+        final int[] repeats = new int[3 * blocks];
+        if (blocks > 0) {
+            instructions.slice(offset + packedSize, blocks * BLOCK_SIZE).asIntBuffer().get(repeats);
+        }
+        try {
+            return InstructionProgram.wrap(instructions.slice(offset, packedSize), length, repeats);
+        } catch (final IllegalArgumentException iae) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Reads a mower, at its init position.
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @return the mower, with its instructions
+     * @throws LawnmowerFileFormatException if the entries of the mower are not valid
+     */
+    public @NotNull Lawnmower readMower(final long mower) throws LawnmowerFileFormatException {
+        return new Lawnmower(readInitRecord(mower), readInstructions(mower));
+    }
+
+    /**
+     * Closes the file (the instructions already read remain readable).
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long checkIndex(final long mower) {
+        if (mower < 0 || mower >= mowers) {
+            throw new IndexOutOfBoundsException(Long.toString(mower));
+        }
+        return mower;
+    }
+
+    private @NotNull LawnmowerFileFormatException invalid() {
+        return new LawnmowerFileFormatException(
+                Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                I18n.getMessage("readcommand.compiled.invalid", name, VERSION)); //$NON-NLS-1$
+    }
+
+    /**
+     * A mapped window of the file, moved when a region outside of it is read.
+     */
+    private final class Window {
+
+        private ByteBuffer window = ByteBuffer.allocate(0);
+
+        private long windowStart;
+
+        /**
+         * Returns the given region of the file (mapping it if needed).
+         */
+        private @NotNull ByteBuffer slice(final long position, final int length) throws LawnmowerFileFormatException {
+            if (position < 0 || length > size - position) {
+                throw invalid();
+            }
+            if (position < windowStart || position + length > windowStart + window.limit()) {
+                try {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.max(length, Math.min(WINDOW_SIZE, size - position)));
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }
+            return window.slice((int) (position - windowStart), length);
+        }
+    }
+}
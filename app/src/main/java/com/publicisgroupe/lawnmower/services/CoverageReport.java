@@ -0,0 +1,191 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reports which part of the lawn of a 'lawnmower programming file (*.lpf)' has been mowed.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.models.CoverageMap;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Tracks the cells mowed by a program in a {@link CoverageMap}, and prints a single report once the program is
+ * executed: the mowed percentage, the regions (tiles of the map) never mowed or the least mowed, and the mowers which
+ * mowed the most new cells.
+ * <p>
+ * Only the best mowers are kept while they are recorded, so that the report does not depend on the number of mowers.
+ * An instance is used by a single program, from a single thread.
+ */
+public class CoverageReport {
+
+    /**
+     * Maximum number of regions and of mowers listed.
+     */
+    private final int limit;
+
+    /**
+     * The mowed cells.
+     */
+    private final @NotNull CoverageMap coverage = new CoverageMap();
+
+    /**
+     * Coordinates of the top right point of the lawn.
+     */
+    private int maxX;
+
+    private int maxY;
+
+    /**
+     * The mowers which mowed the most new cells (number of cells, number of the mower), the smallest contribution
+     * first.
+     */
+    private final @NotNull PriorityQueue<long[]> bestMowers = new PriorityQueue<>(
+            Comparator.<long[]>comparingLong(mower -> mower[0]).thenComparingLong(mower -> -mower[1]));
+
+    /**
+     * Creates a report.
+     *
+     * @param limit maximum number of regions and of mowers listed
+     */
+    public CoverageReport(final int limit) {
+        this.limit = Math.max(0, limit);
+    }
+
+    /**
+     * Tracks the coverage of the given lawn (before any mower is added).
+     *
+     * @param lawn the lawn of the program
+     * @return the lawn to use, recording the mowed cells
+     */
+    public @NotNull Lawn attach(final @NotNull Lawn lawn) {
+        this.maxX = lawn.maxX();
+        this.maxY = lawn.maxY();
+        return lawn.withCoverage(coverage);
+    }
+
+    /**
+     * Returns the mowed cells.
+     *
+     * @return the coverage map of the lawn
+     */
+    public @NotNull CoverageMap coverage() {
+        return coverage;
+    }
+
+    /**
+     * Records the contribution of a mower.
+     *
+     * @param mower      number of the mower (in the order of the results)
+     * @param mowedCells number of cells it mowed first
+     */
+    public void recordMower(final long mower, final long mowedCells) {
+        if (limit == 0) {
+            return;
+        }
+        if (bestMowers.size() < limit) {
+            bestMowers.add(new long[]{mowedCells, mower});
+        } else if (mowedCells > bestMowers.peek()[0]) {
+            bestMowers.poll();
+            bestMowers.add(new long[]{mowedCells, mower});
+        }
+    }
+
+    /**
+     * Records the contribution of executed mowers.
+     *
+     * @param executed the executed mowers, in the order of the results
+     */
+    public void recordMowers(final @NotNull MowerFleet executed) {
+        for (int i = 0; i < executed.size(); i++) {
+            recordMower(i, executed.getMowedCells(i));
+        }
+    }
+
+    /**
+     * Returns the part of the lawn which has been mowed.
+     *
+     * @return a ratio, from 0 to 1
+     */
+    public double mowedRatio() {
+        return (double) coverage.cardinality() / ((maxX + 1L) * (maxY + 1L));
+    }
+
+    /**
+     * Prints the report.
+     *
+     * @param program name of the program
+     * @param out     where the report is printed
+     */
+    public void print(final @NotNull String program, final @NotNull PrintStream out) {
+        final long tilesX = maxX / CoverageMap.TILE_SIZE + 1L;
+        final long tilesY = maxY / CoverageMap.TILE_SIZE + 1L;
+
+        final StringBuilder report = new StringBuilder();
+        for (final long[] region : leastMowedRegions()) {
+            final long left = region[1] * CoverageMap.TILE_SIZE;
+            final long bottom = region[2] * CoverageMap.TILE_SIZE;
+            final long right = Math.min(maxX, left + CoverageMap.TILE_SIZE - 1);
+            final long top = Math.min(maxY, bottom + CoverageMap.TILE_SIZE - 1);
+            report.append(I18n.getMessage("coverage.region", //$NON-NLS-1$
+                            left, bottom, right, top, region[0], regionRatio(region)))
+                    .append(System.lineSeparator());
+        }
+        final List<long[]> mowers = new ArrayList<>(bestMowers);
+        mowers.sort(bestMowers.comparator().reversed());
+        for (final long[] mower : mowers) {
+            report.append(I18n.getMessage("coverage.mower", mower[1], mower[0])) //$NON-NLS-1$
+                    .append(System.lineSeparator());
+        }
+        report.append(I18n.getMessage("coverage.summary", program, //$NON-NLS-1$
+                coverage.cardinality(), (maxX + 1L) * (maxY + 1L), mowedRatio(),
+                tilesX * tilesY - coverage.tileCount(), CoverageMap.TILE_SIZE,
+                (coverage.sizeInBytes() + 1023) / 1024));
+
+        // a single call, so that the reports of concurrent programs are not mixed
+        out.println(report);
+    }
+
+    /**
+     * Returns the partly mowed regions with the smallest mowed part (mowed cells, tile X, tile Y), the least mowed
+     * first.
+     */
+    private @NotNull List<long[]> leastMowedRegions() {
+        final Comparator<long[]> byRatio = Comparator.comparingDouble(this::regionRatio);
+        // the most mowed region kept comes first, to be replaced by a less mowed one
+        final PriorityQueue<long[]> regions = new PriorityQueue<>(byRatio.reversed());
+        if (limit > 0) {
+            coverage.forEachTile((tileX, tileY, cells) -> {
+                final long[] region = {cells, tileX, tileY};
+                if (regionRatio(region) >= 1) {
+                    return;
+                }
+                if (regions.size() < limit) {
+                    regions.add(region);
+                } else if (byRatio.compare(region, regions.peek()) < 0) {
+                    regions.poll();
+                    regions.add(region);
+                }
+            });
+        }
+        final List<long[]> sorted = new ArrayList<>(regions);
+        sorted.sort(byRatio.thenComparingLong(region -> region[2]).thenComparingLong(region -> region[1]));
+        return sorted;
+    }
+
+    /**
+     * Returns the mowed part of a region (mowed cells, tile X, tile Y), clamped to the lawn.
+     */
+    private double regionRatio(final long @NotNull [] region) {
+        final long width = Math.min(CoverageMap.TILE_SIZE, maxX + 1L - region[1] * CoverageMap.TILE_SIZE);
+        final long height = Math.min(CoverageMap.TILE_SIZE, maxY + 1L - region[2] * CoverageMap.TILE_SIZE);
+        return (double) region[0] / (width * height);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class collects the events of the execution of a 'lawnmower programming file (*.lpf)', to report them at the
+ * end.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+
+/**
+ * Counts the events of a program (blocked moves, ignored mowers), per kind and per mower, and prints a single report
+ * once the program is executed.
+ * <p>
+ * The blocked moves are counted by the mowers themselves (a single increment), and collected here when all the mowers
+ * are executed. Only the first mowers of each kind are kept for the detailed report, the other ones are only counted.
+ * An instance is used by a single program, from a single thread.
+ */
+public class Diagnostics {
+
+    /**
+     * Default maximum number of mowers reported for each kind of event.
+     */
+    public static final int DEFAULT_LIMIT = 10;
+
+    /**
+     * How much of the diagnostics is printed.
+     */
+    public enum Verbosity {
+        /**
+         * Nothing is printed.
+         */
+        QUIET,
+
+        /**
+         * A single line with the number of events of each kind, if any.
+         */
+        SUMMARY,
+
+        /**
+         * The summary, plus one line per mower (up to the limit, for each kind).
+         */
+        DETAILED
+    }
+
+    /**
+     * The kinds of events.
+     */
+    public enum Kind {
+        /**
+         * A forward move ignored because of another mower or of the lawn edge.
+         */
+        BLOCKED_MOVE("diagnostics.mower.blocked"), //$NON-NLS-1$
+
+        /**
+         * A mower ignored because its init position is out of the lawn.
+         */
+        OUT_OF_BOUNDS("readcommand.mower.out.of.bounds"), //$NON-NLS-1$
+
+        /**
+         * A mower ignored because its init position is already taken by another mower.
+         */
+        POSITION_TAKEN("readcommand.mower.position.taken"); //$NON-NLS-1$
+
+        /**
+         * Key of the message describing the events of a mower.
+         */
+        private final @NotNull String messageKey;
+
+        Kind(final @NotNull String messageKey) {
+            this.messageKey = messageKey;
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    /**
+     * How much of the diagnostics is printed.
+     */
+    private final @NotNull Verbosity verbosity;
+
+    /**
+     * Maximum number of mowers kept for each kind of event.
+     */
+    private final int limit;
+
+    /**
+     * Number of events, per kind.
+     */
+    private final long[] events = new long[KINDS.length];
+
+    /**
+     * Number of mowers having at least one event, per kind.
+     */
+    private final long[] mowers = new long[KINDS.length];
+
+    /**
+     * Numbers of the first mowers having events, per kind.
+     */
+    private final long[][] reportedMowers;
+
+    /**
+     * Number of events of the first mowers, per kind.
+     */
+    private final long[][] reportedEvents;
+
+    /**
+     * Creates a collector.
+     *
+     * @param verbosity how much of the diagnostics is printed
+     * @param limit     maximum number of mowers reported for each kind of event
+     */
+    public Diagnostics(final @NotNull Verbosity verbosity, final int limit) {
+        this.verbosity = verbosity;
+        this.limit = verbosity == Verbosity.DETAILED ? Math.max(0, limit) : 0;
+        this.reportedMowers = new long[KINDS.length][this.limit];
+        this.reportedEvents = new long[KINDS.length][this.limit];
+    }
+
+    /**
+     * Records the events of a mower.
+     *
+     * @param kind  kind of the events
+     * @param mower number of the mower (in the order of the file, or of the results for the executed mowers)
+     * @param count number of events (nothing is recorded if it is <code>0</code>)
+     */
+    public void record(final @NotNull Kind kind, final long mower, final long count) {
+        if (count <= 0) {
+            return;
+        }
+        final int k = kind.ordinal();
+        if (mowers[k] < limit) {
+            reportedMowers[k][(int) mowers[k]] = mower;
+            reportedEvents[k][(int) mowers[k]] = count;
+        }
+        mowers[k]++;
+        events[k] += count;
+    }
+
+    /**
+     * Records the blocked moves of executed mowers.
+     *
+     * @param executed the executed mowers, in the order of the results
+     */
+    public void recordBlockedMoves(final @NotNull MowerFleet executed) {
+        for (int i = 0; i < executed.size(); i++) {
+            record(Kind.BLOCKED_MOVE, i, executed.getBlockedMoves(i));
+        }
+    }
+
+    /**
+     * Returns the number of recorded events of the given kind.
+     *
+     * @param kind kind of the events
+     * @return number of events
+     */
+    public long count(final @NotNull Kind kind) {
+        return events[kind.ordinal()];
+    }
+
+    /**
+     * Returns <code>true</code> if no event was recorded.
+     *
+     * @return <code>true</code> if there is nothing to report
+     */
+    public boolean isEmpty() {
+        for (final long count : events) {
+            if (count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints the report, depending on the verbosity (nothing is printed if no event was recorded).
+     *
+     * @param program name of the program
+     * @param out     where the report is printed
+     */
+    public void print(final @NotNull String program, final @NotNull PrintStream out) {
+        if (verbosity == Verbosity.QUIET || isEmpty()) {
+            return;
+        }
+        final StringBuilder report = new StringBuilder();
+        if (verbosity == Verbosity.DETAILED) {
+            for (final Kind kind : KINDS) {
+                final int k = kind.ordinal();
+                final int reported = (int) Math.min(mowers[k], limit);
+                for (int i = 0; i < reported; i++) {
+                    report.append(I18n.getMessage(kind.messageKey, reportedMowers[k][i], reportedEvents[k][i]))
+                            .append(System.lineSeparator());
+                }
+                if (mowers[k] > reported) {
+                    report.append(I18n.getMessage("diagnostics.more", mowers[k] - reported)) //$NON-NLS-1$
+                            .append(System.lineSeparator());
+                }
+            }
+        }
+        report.append(I18n.getMessage("diagnostics.summary", program, //$NON-NLS-1$
+                count(Kind.BLOCKED_MOVE), mowers[Kind.BLOCKED_MOVE.ordinal()],
+                mowers[Kind.OUT_OF_BOUNDS.ordinal()], mowers[Kind.POSITION_TAKEN.ordinal()]));
+
+        // a single call, so that the reports of concurrent programs are not mixed
+        out.println(report);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class records the execution of the application with the Java Flight Recorder (JFR).
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.LawnExecutionEvent;
+import com.publicisgroupe.lawnmower.events.MowerExecutionEvent;
+import com.publicisgroupe.lawnmower.events.ProgramParsingEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+/**
+ * A flight recording, written into a file when it is closed (or when the JVM exits, for the long-running commands).
+ * <p>
+ * It uses the <code>default</code> settings of the JDK (the low overhead ones) with all the events of the application:
+ * {@link ProgramParsingEvent}, {@link LawnExecutionEvent} and {@link MowerExecutionEvent}, switched on while it
+ * runs (see {@link FlightEvents}). The file is read with <code>jfr print --categories Lawnmower FILE</code>, or with
+ * JDK Mission Control.
+ */
+public class FlightRecording implements Closeable {
+
+    /**
+     * Name of the JDK settings used by the recording.
+     */
+    private static final @NotNull String SETTINGS = "default"; //$NON-NLS-1$
+
+    /**
+     * The running recording.
+     */
+    private final @NotNull Recording recording;
+
+    /**
+     * <code>true</code> if the events were switched on before the recording.
+     */
+    private final boolean eventsEnabled;
+
+    private FlightRecording(final @NotNull Recording recording, final boolean eventsEnabled) {
+        this.recording = recording;
+        this.eventsEnabled = eventsEnabled;
+    }
+
+    /**
+     * Starts a recording.
+     *
+     * @param file where the recording is written (replaced if it exists)
+     * @return the running recording, that must be closed
+     * @throws IOException if the file cannot be written
+     */
+    public static @NotNull FlightRecording start(final @NotNull Path file) throws IOException {
+        final Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(SETTINGS));
+        } catch (final ParseException e) {
+            // the settings come with the JDK
+            throw new IllegalStateException(e);
+        }
+        recording.setName("lawnmower"); //$NON-NLS-1$
+        recording.enable(ProgramParsingEvent.class);
+        recording.enable(LawnExecutionEvent.class);
+        recording.enable(MowerExecutionEvent.class);
+        recording.setDestination(file);
+        recording.setDumpOnExit(true);
+        recording.start();
+        final boolean eventsEnabled = FlightEvents.isEnabled();
+        FlightEvents.setEnabled(true);
+        return new FlightRecording(recording, eventsEnabled);
+    }
+
+    /**
+     * Stops the recording, and writes it into its file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        FlightEvents.setEnabled(eventsEnabled);
+        try (recording) {
+            recording.stop();
+        }
+    }
+}
@@ -14,9 +14,13 @@ import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * This class contains all the methods needed for the application's internationalisation.
+ * <p>
+ * All the methods can be called from many threads at the same time.
  */
 public class I18n {
     /**
@@ -28,11 +32,23 @@ public class I18n {
     public final static @NotNull String MESSAGES_KEY = "com.publicisgroupe.lawnmower.messages";
 
     /**
-     * Resource bundles containing the locale-specific objects.
+     * Messages of the current locale: the resource bundle, and the formatters already parsed from it.
      * <p>
-     * This objects allows us to load our messages in the user's language.
+     * A new catalog is created (and the formatters of the previous one are dropped) when the locale changes.
+     */
+    private static volatile Catalog catalog;
+
+    /**
+     * The messages of a locale.
+     *
+     * @param locale     locale of the messages
+     * @param bundle     resource bundle containing the messages in that locale
+     * @param formatters formatters of the messages with arguments, by message key (one per thread)
      */
-    private static ResourceBundle bundle;
+    private record Catalog(@NotNull Locale locale,
+                           @NotNull ResourceBundle bundle,
+                           @NotNull ConcurrentMap<String, ThreadLocal<MessageFormat>> formatters) {
+    }
 
     /**
      * Private constructor to forbid instantiation.
@@ -69,6 +85,7 @@ public class I18n {
      */
     public static void setLocale(final @NotNull Locale loc) {
         Locale.setDefault(loc);
+        catalog = null;
     }
 
     /**
@@ -94,10 +111,7 @@ public class I18n {
      * @throws ClassCastException                 if the object found for the given key is not a string
      */
     public static @NotNull String getMessage(final @NotNull String key) {
-        if (bundle == null) {
-            bundle = ResourceBundle.getBundle(MESSAGES_KEY);
-        }
-        return bundle.getString(key);
+        return catalog().bundle().getString(key);
     }
 
     /**
@@ -111,7 +125,23 @@ public class I18n {
      * @throws ClassCastException                 if the object found for the given key is not a string
      */
     public static @NotNull String getMessage(final @NotNull String key, final @NotNull Object... arguments) {
-        final @NotNull MessageFormat formatter = new MessageFormat(getMessage(key), getLocale());
-        return formatter.format(arguments);
+        final @NotNull Catalog current = catalog();
+        // a MessageFormat is not thread-safe: each message is parsed once per locale and per thread
+        return current.formatters().computeIfAbsent(key, k -> ThreadLocal.withInitial(
+                () -> new MessageFormat(current.bundle().getString(k), current.locale()))).get().format(arguments);
+    }
+
+    /**
+     * Returns the messages of the current locale, loading them if the locale has changed.
+     */
+    private static @NotNull Catalog catalog() {
+        final Locale locale = getLocale();
+        Catalog current = catalog;
+        if (current == null || !current.locale().equals(locale)) {
+            // two threads may load the same bundle at the same time, both catalogs are equivalent
+            current = new Catalog(locale, ResourceBundle.getBundle(MESSAGES_KEY, locale), new ConcurrentHashMap<>());
+            catalog = current;
+        }
+        return current;
     }
 }
@@ -0,0 +1,41 @@
+package com.publicisgroupe.lawnmower.services;
+
+/**
+ * The kinds of instructions generated by the {@link ProgramGenerator}.
+ */
+public enum InstructionMix {
+    /**
+     * 80% of forward moves: the mowers cross the lawn.
+     */
+    STRAIGHT_HEAVY(0.8, false),
+
+    /**
+     * 50% of forward moves, 25% of turns on each side.
+     */
+    BALANCED(0.5, false),
+
+    /**
+     * 20% of forward moves: the mowers mostly turn on themselves.
+     */
+    TURN_HEAVY(0.2, false),
+
+    /**
+     * 80% of forward moves, the mowers starting packed in a square at the center of the lawn: most moves are blocked.
+     */
+    COLLISION_HEAVY(0.8, true);
+
+    /**
+     * Probability of a forward move (the turns are equally split between right and left).
+     */
+    public final double forwardRatio;
+
+    /**
+     * <code>true</code> if the mowers start packed at the center of the lawn.
+     */
+    public final boolean clustered;
+
+    InstructionMix(final double forwardRatio, final boolean clustered) {
+        this.forwardRatio = forwardRatio;
+        this.clustered = clustered;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reads the mowers of a big 'lawnmower programming file (*.lpf)' concurrently.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads the mowers of a program (all its lines after the lawn) by chunks, parsed concurrently.
+ * <p>
+ * The mowers are split into byte ranges, one parser of the program per range (see
+ * {@link ProgramFileParser#fork(long)}). Each parser moves to the first mower of its range, then reads the mowers
+ * starting inside the range into its own {@link MowerFleet} (the last one may end after the range). The fleets are
+ * then merged in the file order.
+ * <p>
+ * The first mower of a range is found without reading the previous ranges (see
+ * {@link ProgramFileParser#alignToMower()}), which is only right if the program is valid. So the merge checks that each
+ * chunk starts where the previous one stopped:
+ * <ul>
+ *     <li>if they all do, the error of the first failed chunk (if any) is the first error of the program, the one
+ *     the sequential reading would have thrown</li>
+ *     <li>otherwise the program is not valid, and it is read again sequentially to throw exactly the same error</li>
+ * </ul>
+ * The small programs, and all of them when there is a single thread, are read sequentially.
+ */
+public class ParallelProgramParser {
+
+    /**
+     * Minimum number of bytes of a chunk.
+     */
+    static final long MIN_CHUNK_SIZE = 4L << 20;
+
+    /**
+     * Number of chunks per thread, so that a slow chunk does not keep the other threads waiting.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Parser of the program, just after the lawn line.
+     */
+    private final @NotNull ProgramFileParser parser;
+
+    /**
+     * The pool parsing the chunks.
+     */
+    private final @NotNull ForkJoinPool pool;
+
+    /**
+     * Minimum number of bytes of a chunk.
+     */
+    private final long minChunkSize;
+
+    /**
+     * Creates a reader of the mowers of the program, using the common pool.
+     *
+     * @param parser parser of the program, just after the lawn line
+     */
+    public ParallelProgramParser(final @NotNull ProgramFileParser parser) {
+        this(parser, ForkJoinPool.commonPool(), MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a reader of the mowers of the program.
+     *
+     * @param parser       parser of the program, just after the lawn line
+     * @param pool         the pool parsing the chunks
+     * @param minChunkSize minimum number of bytes of a chunk
+     */
+    ParallelProgramParser(final @NotNull ProgramFileParser parser, final @NotNull ForkJoinPool pool,
+                          final long minChunkSize) {
+        this.parser = parser;
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Reads all the mowers of the program. The parser is then at the end of the program.
+     *
+     * @return the mowers at their init position, in the file order (including the ones outside the lawn)
+     * @throws LawnmowerFileFormatException if a line is missing, or if the file format is not valid
+     */
+    public @NotNull MowerFleet readMowers() throws LawnmowerFileFormatException {
+        final long first = parser.position();
+        final long length = parser.size() - first;
+        final int count = pool.getParallelism() == 1
+                ? 1
+                : (int) Math.min(length / minChunkSize, (long) pool.getParallelism() * CHUNKS_PER_THREAD);
+        if (count <= 1) {
+            return readSequentially(first);
+        }
+
+        final List<Chunk> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            chunks.add(new Chunk(first + length * i / count, first + length * (i + 1) / count));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(chunks.stream()
+                .map(chunk -> ForkJoinTask.adapt(() -> read(chunk, first)))
+                .toList())));
+
+        // merge the chunks, as long as each one starts where the previous one stopped
+        final MowerFleet mowers = new MowerFleet(chunks.stream().mapToInt(chunk -> chunk.mowers.size()).sum());
+        long expected = first;
+        for (Chunk chunk : chunks) {
+            if (chunk.start != expected) {
+                return readSequentially(first);
+            }
+            if (chunk.error != null) {
+                throw chunk.error;
+            }
+            mowers.addAll(chunk.mowers);
+            expected = chunk.stop;
+        }
+        parser.position(expected);
+        return mowers;
+    }
+
+    /**
+     * Reads the mowers of a chunk, with its own parser.
+     */
+    private void read(final @NotNull Chunk chunk, final long first) {
+        final ProgramFileParser reader = parser.fork(chunk.from);
+        if (chunk.from > first) {
+            reader.alignToMower();
+        }
+        chunk.start = reader.position();
+        try {
+            while (reader.position() < chunk.to && reader.hasNextLine()) {
+                chunk.mowers.add(reader.readInitRecord(), reader.readInstructions());
+            }
+        } catch (final LawnmowerFileFormatException e) {
+            chunk.error = e;
+        }
+        chunk.stop = reader.position();
+    }
+
+    /**
+     * Reads the mowers one after the other, from the given position.
+     */
+    private @NotNull MowerFleet readSequentially(final long first) throws LawnmowerFileFormatException {
+        parser.position(first);
+        final MowerFleet mowers = new MowerFleet();
+        while (parser.hasNextLine()) {
+            mowers.add(parser.readInitRecord(), parser.readInstructions());
+        }
+        return mowers;
+    }
+
+    /**
+     * A range of the program, and the mowers starting inside it.
+     */
+    private static final class Chunk {
+
+        /**
+         * Start of the range.
+         */
+        private final long from;
+
+        /**
+         * End of the range (excluded).
+         */
+        private final long to;
+
+        /**
+         * The mowers starting inside the range, in the file order.
+         */
+        private final MowerFleet mowers = new MowerFleet();
+
+        /**
+         * Position of the first mower of the range.
+         */
+        private long start;
+
+        /**
+         * Position following the last mower read.
+         */
+        private long stop;
+
+        /**
+         * The error that stopped the reading, if any.
+         */
+        private LawnmowerFileFormatException error;
+
+        private Chunk(final long from, final long to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
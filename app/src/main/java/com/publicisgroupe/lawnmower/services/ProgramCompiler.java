@@ -0,0 +1,186 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class converts a 'lawnmower programming file (*.lpf)' into a 'compiled lawnmower programming file (*.lpfb)'.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.RepeatBlock;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compiler of the program files into the format read by {@link CompiledProgram}.
+ * <p>
+ * The program is read twice: the first pass validates it and counts the mowers (which gives the size of the tables),
+ * the second one writes the init positions, the index and the instructions of each mower. Only the instructions of a
+ * single mower are in memory at a time. All the mowers are kept, even the ones which will be ignored when the
+ * program is executed: the compiled program gives the same results and diagnostics as the text one.
+ */
+public class ProgramCompiler {
+
+    /**
+     * Size of the buffers of each part of the file.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Parser of the program to compile.
+     */
+    private final @NotNull ProgramFileParser parser;
+
+    /**
+     * Creates a compiler for the given program.
+     *
+     * @param parser parser of the program to compile
+     */
+    public ProgramCompiler(final @NotNull ProgramFileParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Compiles the program into the given file.
+     *
+     * @param output the compiled program (replaced if it exists)
+     * @return the number of compiled mowers
+     * @throws LawnmowerFileFormatException if the program is empty, or if its format is not valid (nothing is written
+     *                                      in this case)
+     * @throws IOException                  if an I/O error occurs
+     */
+    public long compile(final @NotNull Path output) throws LawnmowerFileFormatException, IOException {
+        // first pass: validation, and size of the tables
+        final long start = parser.position();
+        if (!parser.hasNextLine()) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_EMPTYFILE,
+                    I18n.getMessage("readcommand.empty.file.error", parser.getName())); //$NON-NLS-1$
+        }
+        parser.readLawn();
+        long mowers = 0;
+        while (parser.hasNextLine()) {
+            parser.readInitRecord();
+            parser.skipInstructions();
+            mowers++;
+        }
+
+        // second pass: the tables and the instructions
+        parser.position(start);
+        final Lawn lawn = parser.readLawn();
+        final long indexStart = CompiledProgram.HEADER_SIZE + mowers * CompiledProgram.POSITION_SIZE;
+        final long instructionsStart = indexStart + mowers * CompiledProgram.INDEX_ENTRY_SIZE;
+        try (final FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final Section positions = new Section(channel, CompiledProgram.HEADER_SIZE);
+            final Section index = new Section(channel, indexStart);
+            final Section instructions = new Section(channel, instructionsStart);
+
+            for (long mower = 0; mower < mowers; mower++) {
+                final LawnmowerInitRecord init = parser.readInitRecord();
+                final InstructionProgram program = parser.readInstructions();
+
+                positions.reserve(CompiledProgram.POSITION_SIZE)
+                        .putInt(init.startX())
+                        .putInt(init.startY())
+                        .put((byte) init.startOrientation().instruction);
+                index.reserve(CompiledProgram.INDEX_ENTRY_SIZE)
+                        .putLong(instructions.position())
+                        .putInt(program.length())
+                        .putInt(program.blockCount());
+                instructions.write(program.packed());
+                for (int b = 0; b < program.blockCount(); b++) {
+                    final RepeatBlock block = program.block(b);
+                    instructions.reserve(CompiledProgram.BLOCK_SIZE)
+                            .putInt(block.start())
+                            .putInt(block.end())
+                            .putInt(block.count());
+                }
+            }
+            positions.flush();
+            index.flush();
+            instructions.flush();
+
+            // the header is written last: an interrupted compilation does not give a valid file
+            final ByteBuffer header = ByteBuffer.allocate(CompiledProgram.HEADER_SIZE)
+                    .putInt(CompiledProgram.MAGIC)
+                    .putShort(CompiledProgram.VERSION)
+                    .putShort((short) 0)
+                    .putInt(lawn.maxX())
+                    .putInt(lawn.maxY())
+                    .putLong(mowers)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+        return mowers;
+    }
+
+    /**
+     * A part of the compiled file, written sequentially through a buffer.
+     */
+    private static final class Section {
+
+        private final @NotNull FileChannel channel;
+
+        private final @NotNull ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Position in the file of the first byte of the buffer.
+         */
+        private long bufferStart;
+
+        private Section(final @NotNull FileChannel channel, final long start) {
+            this.channel = channel;
+            this.bufferStart = start;
+        }
+
+        /**
+         * Returns the position in the file of the next written byte.
+         */
+        private long position() {
+            return bufferStart + buffer.position();
+        }
+
+        /**
+         * Returns the buffer, with at least <code>bytes</code> bytes remaining.
+         */
+        private @NotNull ByteBuffer reserve(final int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        /**
+         * Writes the given bytes (directly to the file if they do not fit in the buffer).
+         */
+        private void write(final @NotNull ByteBuffer bytes) throws IOException {
+            if (bytes.remaining() <= buffer.remaining()) {
+                buffer.put(bytes);
+                return;
+            }
+            flush();
+            while (bytes.hasRemaining()) {
+                bufferStart += channel.write(bytes, bufferStart);
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bufferStart += channel.write(buffer, bufferStart);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,486 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reads the content of a 'lawnmower programming file (*.lpf)' directly from its bytes.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parser of the lawnmower programming files.
+ * <p>
+ * The file is memory-mapped (by windows of {@link #WINDOW_SIZE} bytes, so that files bigger than 2 GB can be read)
+ * and scanned byte per byte: numbers, orientations and instructions are decoded in place, without creating any
+ * intermediate {@link String}.
+ * <p>
+ * Lines end with '\n', '\r' or "\r\n", and the tokens of a line are separated by a single space, exactly like the
+ * previous implementation based on <code>LineIterator</code> and <code>String.split(" ")</code>.
+ */
+public class ProgramFileParser implements Closeable {
+
+    /**
+     * Maximum number of bytes mapped at once.
+     */
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private static final int EOF = -1;
+
+    /**
+     * Name of the parsed program (used in the error messages).
+     */
+    private final @NotNull String name;
+
+    /**
+     * The mapped file, <code>null</code> if the program is given as a buffer.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Total size of the program, in bytes.
+     */
+    private final long size;
+
+    /**
+     * The bytes currently readable (the whole program, or the current window of the file).
+     */
+    private ByteBuffer window;
+
+    /**
+     * Position of the first byte of the window in the program.
+     */
+    private long windowStart;
+
+    /**
+     * Current position, relative to the window.
+     */
+    private int index;
+
+    /**
+     * Start position (in the program) of each token of the current line.
+     */
+    private final long[] tokenStarts = new long[4];
+
+    /**
+     * End position (in the program, excluded) of each token of the current line.
+     */
+    private final long[] tokenEnds = new long[4];
+
+    /**
+     * Creates a parser reading the given buffer, from its position to its limit.
+     *
+     * @param name    name of the program (used in the error messages)
+     * @param content the content of the program
+     */
+    public ProgramFileParser(final @NotNull String name, final @NotNull ByteBuffer content) {
+        this.name = name;
+        this.channel = null;
+        this.window = content.slice();
+        this.size = window.limit();
+    }
+
+    private ProgramFileParser(final @NotNull String name, final @NotNull FileChannel channel) throws IOException {
+        this.name = name;
+        this.channel = channel;
+        this.size = channel.size();
+        this.window = ByteBuffer.allocate(0);
+        map(0);
+    }
+
+    /**
+     * Creates a parser of the same program as the given one, starting at the given position.
+     */
+    private ProgramFileParser(final @NotNull ProgramFileParser parser, final long position) {
+        this.name = parser.name;
+        this.channel = parser.channel;
+        this.size = parser.size;
+        this.window = channel == null ? parser.window.duplicate() : ByteBuffer.allocate(0);
+        map(position);
+    }
+
+    /**
+     * Opens a parser on the given file.
+     *
+     * @param file the program file
+     * @return a new parser, that must be closed
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static @NotNull ProgramFileParser open(final @NotNull Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new ProgramFileParser(file.getFileName().toString(), channel);
+        } catch (final IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the name of the program.
+     *
+     * @return the name used in the error messages
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the current position in the program.
+     *
+     * @return the position of the next byte to read
+     */
+    public long position() {
+        return windowStart + index;
+    }
+
+    /**
+     * Moves to the given position in the program.
+     *
+     * @param position position of the next byte to read
+     */
+    public void position(final long position) {
+        if (position >= windowStart && position - windowStart <= window.limit()) {
+            index = (int) (position - windowStart);
+        } else {
+            map(position);
+        }
+    }
+
+    /**
+     * Returns the size of the program.
+     *
+     * @return the number of bytes of the program
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns <code>true</code> if there is another line to read.
+     *
+     * @return <code>false</code> at the end of the program
+     */
+    public boolean hasNextLine() {
+        return position() < size;
+    }
+
+    /**
+     * Skips the current line.
+     */
+    public void skipLine() {
+        int b = read();
+        while (b != EOF && b != '\n' && b != '\r') {
+            b = read();
+        }
+        endLine(b);
+    }
+
+    /**
+     * Returns another parser of the same program, starting at the given position, so that several parts of the
+     * program can be read concurrently. It shares the file of this parser: it must not be closed, nor used once this
+     * parser is closed.
+     *
+     * @param position position of the next byte to read
+     * @return a new parser
+     */
+    @NotNull ProgramFileParser fork(final long position) {
+        return new ProgramFileParser(this, position);
+    }
+
+    /**
+     * Moves to the first line of a mower (its init position) starting at or after the current position, that may be
+     * anywhere in a line.
+     * <p>
+     * This is the first line holding a space: the init position of a mower always has some, while its instructions
+     * never do. The result is therefore only meaningful if the program is valid.
+     */
+    void alignToMower() {
+        if (position() > 0) {
+            // move to the start of the next line, unless the current position is already there
+            final int previous = byteAt(position() - 1);
+            if (previous == '\r') {
+                endLine(previous);
+            } else if (previous != '\n') {
+                skipLine();
+            }
+        }
+        while (hasNextLine()) {
+            final long lineStart = position();
+            int b = read();
+            while (b != EOF && b != '\n' && b != '\r') {
+                if (b == ' ') {
+                    position(lineStart);
+                    return;
+                }
+                b = read();
+            }
+            endLine(b);
+        }
+    }
+
+    /**
+     * Reads the first line of the program: the coordinates of the top right point of the lawn.
+     *
+     * @return the described {@link Lawn}, without any mower
+     * @throws LawnmowerFileFormatException if the line format is not valid
+     */
+    public @NotNull Lawn readLawn() throws LawnmowerFileFormatException {
+        // we expect 2 elements. No more, no less
+        splitLine(2);
+        return new Lawn(parseInt(0), parseInt(1));
+    }
+
+    /**
+     * Reads the first line of a mower: its init position and orientation.
+     *
+     * @return the current {@link LawnmowerInitRecord}
+     * @throws LawnmowerFileFormatException if the line is missing or if its format is not valid
+     */
+    public @NotNull LawnmowerInitRecord readInitRecord() throws LawnmowerFileFormatException {
+        if (!hasNextLine()) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_MOWER_MISSING_LINE,
+                    I18n.getMessage("readcommand.mower.missing.line.1")); //$NON-NLS-1$
+        }
+        // we expect 3 elements. No more, no less
+        splitLine(3);
+        final int x = parseInt(0);
+        final int y = parseInt(1);
+        return new LawnmowerInitRecord(x, y, parseOrientation(2));
+    }
+
+    /**
+     * Reads the second line of a mower: its instructions.
+     *
+     * @return the packed instructions
+     * @throws LawnmowerFileFormatException if the line is missing or if any instruction is not valid
+     */
+    public @NotNull InstructionProgram readInstructions() throws LawnmowerFileFormatException {
+        final InstructionProgram.Builder builder = new InstructionProgram.Builder(0);
+        scanInstructions(builder);
+        return builder.build();
+    }
+
+    /**
+     * Skips the second line of a mower, only checking that its instructions are valid.
+     *
+     * @throws LawnmowerFileFormatException if the line is missing or if any instruction is not valid
+     */
+    public void skipInstructions() throws LawnmowerFileFormatException {
+        scanInstructions(InstructionProgram.Builder.validator());
+    }
+
+    /**
+     * Validates the instructions of the current line (and the <code>(BODY)*COUNT</code> blocks), and appends them to
+     * the builder.
+     */
+    private void scanInstructions(final @NotNull InstructionProgram.Builder builder)
+            throws LawnmowerFileFormatException {
+        if (!hasNextLine()) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_MOWER_MISSING_LINE,
+                    I18n.getMessage("readcommand.mower.missing.line.2")); //$NON-NLS-1$
+        }
+        final long lineStart = position();
+        int b = read();
+        while (b != EOF && b != '\n' && b != '\r') {
+            if (!builder.accept(b)) {
+                throw invalidInstructions(lineStart);
+            }
+            b = read();
+        }
+        endLine(b);
+        if (!builder.complete()) {
+            throw invalidInstructions(lineStart);
+        }
+    }
+
+    private @NotNull LawnmowerFileFormatException invalidInstructions(final long lineStart) {
+        return new LawnmowerFileFormatException(
+                Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS,
+                I18n.getMessage("readcommand.mower.invalid.instructions", lineAt(lineStart))); //$NON-NLS-1$
+    }
+
+    /**
+     * Unmaps the file (if any).
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Finds the tokens of the current line, and makes sure there are exactly <code>expected</code> ones (the trailing
+     * empty tokens are ignored, like {@link String#split(String)} does).
+     */
+    private void splitLine(final int expected) throws LawnmowerFileFormatException {
+        int count = 0;
+        int nonEmpty = 0;
+        long start = position();
+        int b = read();
+        while (true) {
+            if (b == ' ' || b == EOF || b == '\n' || b == '\r') {
+                final long end = position() - (b == EOF ? 0 : 1);
+                if (count < tokenStarts.length) {
+                    tokenStarts[count] = start;
+                    tokenEnds[count] = end;
+                }
+                count++;
+                if (end > start) {
+                    nonEmpty = count;
+                }
+                if (b != ' ') {
+                    break;
+                }
+                start = position();
+            }
+            b = read();
+        }
+        endLine(b);
+        if (nonEmpty != expected) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                    I18n.getMessage("readcommand.format.error.firstline.args", name)); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Parses the given token of the current line as a (signed) decimal integer.
+     */
+    private int parseInt(final int token) throws LawnmowerFileFormatException {
+        long position = tokenStarts[token];
+        final long end = tokenEnds[token];
+        final long restore = position();
+        boolean negative = false;
+        if (position < end) {
+            final int sign = byteAt(position);
+            if (sign == '-' || sign == '+') {
+                negative = sign == '-';
+                position++;
+            }
+        }
+        if (position == end) {
+            throw notAnInteger();
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            final int digit = byteAt(position) - '0';
+            if (digit < 0 || digit > 9) {
+                throw notAnInteger();
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw notAnInteger();
+            }
+        }
+        position(restore);
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw notAnInteger();
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the given token of the current line as an orientation (only its first character matters).
+     */
+    private @NotNull LawnmowerOrientation parseOrientation(final int token) throws LawnmowerFileFormatException {
+        final long restore = position();
+        final int first = byteAt(tokenStarts[token]);
+        position(restore);
+        return LawnmowerOrientation.valueOfInstruction((char) first)
+                .orElseThrow(() -> new LawnmowerFileFormatException(
+                        Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                        I18n.getMessage("readcommand.format.error.firstline.orientation", name))); //$NON-NLS-1$
+    }
+
+    private @NotNull LawnmowerFileFormatException notAnInteger() {
+        return new LawnmowerFileFormatException(
+                Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                I18n.getMessage("readcommand.format.error.firstline.int", name)); //$NON-NLS-1$
+    }
+
+    /**
+     * Decodes the line starting at the given position (only used to build error messages).
+     */
+    private @NotNull String lineAt(final long lineStart) {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        position(lineStart);
+        int b = read();
+        while (b != EOF && b != '\n' && b != '\r') {
+            line.write(b);
+            b = read();
+        }
+        endLine(b);
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Consumes the "\n" of a "\r\n" line ending.
+     */
+    private void endLine(final int lastByte) {
+        if (lastByte == '\r' && peek() == '\n') {
+            read();
+        }
+    }
+
+    private int byteAt(final long position) {
+        position(position);
+        return read();
+    }
+
+    private int peek() {
+        final int b = read();
+        if (b != EOF) {
+            index--;
+        }
+        return b;
+    }
+
+    private int read() {
+        if (index == window.limit()) {
+            if (channel == null || windowStart + index >= size) {
+                return EOF;
+            }
+            map(windowStart + index);
+        }
+        return window.get(index++) & 0xFF;
+    }
+
+    private void map(final long position) {
+        if (channel == null) {
+            // the whole program is in the buffer
+            index = (int) position;
+            return;
+        }
+        try {
+            windowStart = position;
+            index = 0;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        } catch (final IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
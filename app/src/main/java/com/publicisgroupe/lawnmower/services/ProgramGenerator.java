@@ -0,0 +1,258 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class writes synthetic 'lawnmower programming files (*.lpf)', to test the application with big programs.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.models.OccupancyIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of valid programs, always the same for the same parameters (and seed).
+ * <p>
+ * The program is written while it is generated, so its size is not limited by the memory: only the start positions
+ * already taken are kept (in an {@link OccupancyIndex}), and none when more than half of the cells get a mower (the
+ * cells are then selected in order, each with the probability needed to get exactly the requested count).
+ */
+public class ProgramGenerator {
+
+    private static final byte[] ORIENTATIONS = {'N', 'E', 'S', 'W'};
+
+    private static final byte FORWARD = 'A';
+    private static final byte RIGHT = 'D';
+    private static final byte LEFT = 'G';
+
+    /**
+     * Size of the buffer of written bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Density of the square of mowers of the {@link InstructionMix#COLLISION_HEAVY} mix.
+     */
+    private static final double CLUSTER_DENSITY = 0.8;
+
+    /**
+     * Maximum coordinate of the lawn on the east direction.
+     */
+    private final int maxX;
+
+    /**
+     * Maximum coordinate of the lawn on the north direction.
+     */
+    private final int maxY;
+
+    /**
+     * Number of mowers.
+     */
+    private final long mowers;
+
+    /**
+     * Number of instructions of each mower.
+     */
+    private final int instructions;
+
+    /**
+     * Kind of instructions.
+     */
+    private final @NotNull InstructionMix mix;
+
+    /**
+     * Seed of the random generator.
+     */
+    private final long seed;
+
+    /**
+     * The rectangle where the mowers start.
+     */
+    private int minStartX;
+    private int minStartY;
+    private int maxStartX;
+    private int maxStartY;
+
+    /**
+     * Bytes not written yet.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int buffered;
+
+    /**
+     * Creates a generator.
+     *
+     * @param maxX         maximum coordinate of the lawn on the east direction
+     * @param maxY         maximum coordinate of the lawn on the north direction
+     * @param mowers       number of mowers (at most the number of cells of the lawn)
+     * @param instructions number of instructions of each mower
+     * @param mix          kind of instructions
+     * @param seed         seed of the random generator
+     * @throws IllegalArgumentException if there are more mowers than cells, or if a number is negative
+     */
+    public ProgramGenerator(final int maxX, final int maxY, final long mowers, final int instructions,
+                            final @NotNull InstructionMix mix, final long seed) {
+        if (maxX < 0 || maxY < 0 || mowers < 0 || instructions < 0) {
+            throw new IllegalArgumentException(I18n.getMessage("generate.negative.value")); //$NON-NLS-1$
+        }
+        if (mowers > area(maxX, maxY)) {
+            throw new IllegalArgumentException(I18n.getMessage("generate.too.many.mowers", //$NON-NLS-1$
+                    mowers, area(maxX, maxY)));
+        }
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.mowers = mowers;
+        this.instructions = instructions;
+        this.mix = mix;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the number of cells of a lawn.
+     *
+     * @param maxX maximum coordinate of the lawn on the east direction
+     * @param maxY maximum coordinate of the lawn on the north direction
+     * @return the number of cells
+     */
+    public static long area(final int maxX, final int maxY) {
+        return ((long) maxX + 1) * ((long) maxY + 1);
+    }
+
+    /**
+     * Writes the program.
+     *
+     * @param out where the program is written (it is not closed)
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final @NotNull OutputStream out) throws IOException {
+        final SplittableRandom random = new SplittableRandom(seed);
+        chooseStartRectangle();
+        buffered = 0;
+
+        writeNumber(maxX, out);
+        write(' ', out);
+        writeNumber(maxY, out);
+        write('\n', out);
+
+        final long startArea = area(maxStartX - minStartX, maxStartY - minStartY);
+        if (mowers * 2 > startArea) {
+            writeDenseMowers(random, startArea, out);
+        } else {
+            writeSparseMowers(random, out);
+        }
+        flush(out);
+    }
+
+    /**
+     * The mowers start anywhere on the lawn, or in a square at its center for the clustered mixes.
+     */
+    private void chooseStartRectangle() {
+        minStartX = 0;
+        minStartY = 0;
+        maxStartX = maxX;
+        maxStartY = maxY;
+        if (mix.clustered) {
+            final long cells = Math.max(1, (long) Math.ceil(mowers / CLUSTER_DENSITY));
+            final long side = (long) Math.ceil(Math.sqrt(cells));
+            // the square becomes a rectangle if the lawn is too narrow
+            final long height = Math.min(ceilDiv(cells, Math.min(side, (long) maxX + 1)), (long) maxY + 1);
+            final long width = Math.min(ceilDiv(cells, height), (long) maxX + 1);
+            minStartX = (int) (((long) maxX + 1 - width) / 2);
+            minStartY = (int) (((long) maxY + 1 - height) / 2);
+            maxStartX = (int) (minStartX + width - 1);
+            maxStartY = (int) (minStartY + height - 1);
+        }
+    }
+
+    /**
+     * Draws random start cells, until a free one is found (few mowers compared to the cells).
+     */
+    private void writeSparseMowers(final @NotNull SplittableRandom random, final @NotNull OutputStream out)
+            throws IOException {
+        final OccupancyIndex taken = new OccupancyIndex(minStartX, minStartY, maxStartX, maxStartY);
+        for (long i = 0; i < mowers; i++) {
+            int x;
+            int y;
+            do {
+                x = (int) random.nextLong(minStartX, maxStartX + 1L);
+                y = (int) random.nextLong(minStartY, maxStartY + 1L);
+            } while (!taken.add(x, y));
+            writeMower(x, y, random, out);
+        }
+    }
+
+    /**
+     * Selects the start cells in order, each one with the probability needed to get exactly the number of mowers
+     * (many mowers compared to the cells).
+     */
+    private void writeDenseMowers(final @NotNull SplittableRandom random, final long startArea,
+                                  final @NotNull OutputStream out) throws IOException {
+        final long width = (long) maxStartX - minStartX + 1;
+        long remaining = mowers;
+        for (long cell = 0; remaining > 0; cell++) {
+            if (random.nextLong(startArea - cell) < remaining) {
+                writeMower((int) (minStartX + cell % width), (int) (minStartY + cell / width), random, out);
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * Writes the two lines of a mower.
+     */
+    private void writeMower(final int x, final int y, final @NotNull SplittableRandom random,
+                            final @NotNull OutputStream out) throws IOException {
+        writeNumber(x, out);
+        write(' ', out);
+        writeNumber(y, out);
+        write(' ', out);
+        write(ORIENTATIONS[random.nextInt(ORIENTATIONS.length)], out);
+        write('\n', out);
+
+        // each random long gives 8 instructions, 1 byte each
+        final int forwardThreshold = (int) Math.round(mix.forwardRatio * 256);
+        final int rightThreshold = forwardThreshold + (256 - forwardThreshold) / 2;
+        long bits = 0;
+        for (int i = 0; i < instructions; ) {
+            if (buffered == BUFFER_SIZE) {
+                flush(out);
+            }
+            // fill the buffer directly, as long as it has room
+            final int end = i + Math.min(instructions - i, BUFFER_SIZE - buffered);
+            for (; i < end; i++) {
+                if ((i & 7) == 0) {
+                    bits = random.nextLong();
+                }
+                final int draw = (int) (bits & 0xFF);
+                bits >>>= 8;
+                buffer[buffered++] = draw < forwardThreshold ? FORWARD : (draw < rightThreshold ? RIGHT : LEFT);
+            }
+        }
+        write('\n', out);
+    }
+
+    private void writeNumber(final int number, final @NotNull OutputStream out) throws IOException {
+        if (number >= 10) {
+            writeNumber(number / 10, out);
+        }
+        write('0' + number % 10, out);
+    }
+
+    private void write(final int b, final @NotNull OutputStream out) throws IOException {
+        if (buffered == BUFFER_SIZE) {
+            flush(out);
+        }
+        buffer[buffered++] = (byte) b;
+    }
+
+    private void flush(final @NotNull OutputStream out) throws IOException {
+        out.write(buffer, 0, buffered);
+        buffered = 0;
+    }
+
+    private static long ceilDiv(final long dividend, final long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
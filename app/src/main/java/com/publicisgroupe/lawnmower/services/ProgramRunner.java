@@ -0,0 +1,476 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reads and executes a 'lawnmower programming file (*.lpf)'.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.engines.SimulationEngine;
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.ProgramParsingEvent;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class parses a program file and executes its mowers with the chosen engine.
+ * <p>
+ * It does not depend on the command line, so that the same program can be run for a single file or for many files
+ * at once.
+ */
+public class ProgramRunner {
+
+    /**
+     * Engine used to execute the mowers (in memory mode).
+     */
+    private final @NotNull EngineType engine;
+
+    /**
+     * <code>true</code> to read the file twice instead of loading all the instructions in memory.
+     */
+    private final boolean streaming;
+
+    /**
+     * <code>true</code> to parse, execute and write the mowers on separate threads (in streaming mode).
+     */
+    private final boolean pipelined;
+
+    /**
+     * How much of the diagnostics of each program is printed.
+     */
+    private final @NotNull Diagnostics.Verbosity verbosity;
+
+    /**
+     * Maximum number of mowers reported for each kind of event.
+     */
+    private final int diagnosticsLimit;
+
+    /**
+     * <code>true</code> to track the mowed cells, and print a coverage report for each program.
+     */
+    private final boolean coverage;
+
+    /**
+     * Creates a runner with the options of the given builder.
+     *
+     * @param builder the options of the runner
+     */
+    private ProgramRunner(final @NotNull Builder builder) {
+        this.engine = builder.engine;
+        this.streaming = builder.streaming || builder.pipelined;
+        this.pipelined = builder.pipelined;
+        this.verbosity = builder.verbosity;
+        this.diagnosticsLimit = builder.diagnosticsLimit;
+        this.coverage = builder.coverage;
+    }
+
+    /**
+     * Reads the given program file, executes all its mowers, and writes their final position.
+     * <p>
+     * A compiled program (see {@link CompiledProgram}) is recognized by its first bytes, and executed without any
+     * parsing (the streaming option is not needed: its instructions are read in place).
+     *
+     * @param file the program file (text or compiled)
+     * @param sink where the final positions are written (they are flushed at the end)
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the file is empty or if its format is not valid
+     * @throws IOException                  if an I/O error occurs
+     */
+    public int run(final @NotNull Path file, final @NotNull ResultSink sink)
+            throws LawnmowerFileFormatException, IOException {
+        return run(file, sink, null);
+    }
+
+    /**
+     * Reads the given program file, executes all its mowers with periodic checkpoints, and writes their final
+     * position.
+     * <p>
+     * With checkpoints, the mowers are executed in memory one after the other (the parallel engine executes them
+     * sequentially), so they cannot be used in streaming mode. When an execution is resumed, the results of the mowers
+     * executed before the checkpoint are written again: the output is the same as the one of an uninterrupted run.
+     *
+     * @param file        the program file (text or compiled)
+     * @param sink        where the final positions are written (they are flushed at the end)
+     * @param checkpoints the checkpoints of the execution, or <code>null</code> for none
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the file is empty, if its format is not valid, or if the checkpoint
+     *                                      to resume is not valid
+     * @throws IOException                  if an I/O error occurs
+     * @throws IllegalArgumentException     if checkpoints are given to a streaming runner
+     */
+    public int run(final @NotNull Path file, final @NotNull ResultSink sink, final Checkpoints checkpoints)
+            throws LawnmowerFileFormatException, IOException {
+        return run(file, sink, checkpoints, null);
+    }
+
+    /**
+     * Reads the given program file, executes all its mowers, writes their final position, and records their path.
+     * <p>
+     * The mowers are numbered in the trace in the order of their results. A mower restored from a checkpoint has no
+     * recorded path. While the paths are recorded, the repeated blocks are executed iteration by iteration (every
+     * step is recorded).
+     *
+     * @param file        the program file (text or compiled)
+     * @param sink        where the final positions are written (they are flushed at the end)
+     * @param checkpoints the checkpoints of the execution, or <code>null</code> for none
+     * @param trace       where the path of each mower is recorded, or <code>null</code> for none
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the file is empty, if its format is not valid, or if the checkpoint
+     *                                      to resume is not valid
+     * @throws IOException                  if an I/O error occurs
+     * @throws IllegalArgumentException     if checkpoints are given to a streaming runner
+     */
+    public int run(final @NotNull Path file, final @NotNull ResultSink sink, final Checkpoints checkpoints,
+                   final TraceWriter trace) throws LawnmowerFileFormatException, IOException {
+        if (CompiledProgram.isCompiled(file)) {
+            try (final @NotNull CompiledProgram program = CompiledProgram.open(file)) {
+                return run(program, sink, checkpoints, trace);
+            }
+        }
+        try (final @NotNull ProgramFileParser parser = ProgramFileParser.open(file)) {
+            return run(parser, sink, checkpoints, trace);
+        }
+    }
+
+    /**
+     * Executes all the mowers of the given compiled program, and writes their final position.
+     *
+     * @param program the compiled program
+     * @param sink    where the final positions are written (they are flushed at the end)
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the compiled program is not valid
+     */
+    public int run(final @NotNull CompiledProgram program, final @NotNull ResultSink sink)
+            throws LawnmowerFileFormatException {
+        return run(program, sink, null, null);
+    }
+
+    /**
+     * Executes all the mowers of the given compiled program, and writes their final position.
+     *
+     * @param program     the compiled program
+     * @param sink        where the final positions are written (they are flushed at the end)
+     * @param checkpoints the checkpoints of the execution, or <code>null</code> for none
+     * @param trace       where the path of each mower is recorded, or <code>null</code> for none
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the compiled program, or the checkpoint to resume, is not valid
+     * @throws IllegalArgumentException     if checkpoints are given to a streaming runner
+     */
+    public int run(final @NotNull CompiledProgram program, final @NotNull ResultSink sink,
+                   final Checkpoints checkpoints, final TraceWriter trace) throws LawnmowerFileFormatException {
+        checkCheckpoints(checkpoints);
+        final Diagnostics diagnostics = new Diagnostics(verbosity, diagnosticsLimit);
+        final CoverageReport coverageReport = newCoverageReport();
+        final ProgramParsingEvent event = FlightEvents.isEnabled() ? ProgramParsingEvent.start() : null;
+        final Lawn lawn = coverageReport == null ? program.readLawn() : coverageReport.attach(program.readLawn());
+        final MowerFleet programMowers = new MowerFleet(Math.toIntExact(program.mowerCount()));
+        for (long index = 0; index < program.mowerCount(); index++) {
+            programMowers.add(program.readInitRecord(index), program.readInstructions(index));
+        }
+        addMowers(lawn, programMowers, diagnostics);
+        if (event != null) {
+            event.end(program.getName(), true, program.size(), lawn.mowers().size());
+        }
+        final int mowers = execute(lawn, sink, diagnostics, coverageReport, checkpoints, trace);
+        sink.flush();
+        printReports(program.getName(), diagnostics, coverageReport);
+        return mowers;
+    }
+
+    /**
+     * Executes all the mowers of the given program, and writes their final position.
+     * <p>
+     * The diagnostics of the program (blocked moves, ignored mowers) are printed once all the mowers are executed.
+     *
+     * @param parser parser of the program
+     * @param sink   where the final positions are written (they are flushed at the end)
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the program is empty or if its format is not valid
+     */
+    public int run(final @NotNull ProgramFileParser parser, final @NotNull ResultSink sink)
+            throws LawnmowerFileFormatException {
+        return run(parser, sink, null, null);
+    }
+
+    /**
+     * Executes all the mowers of the given program, and writes their final position.
+     *
+     * @param parser      parser of the program
+     * @param sink        where the final positions are written (they are flushed at the end)
+     * @param checkpoints the checkpoints of the execution, or <code>null</code> for none
+     * @param trace       where the path of each mower is recorded, or <code>null</code> for none
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the program is empty, if its format is not valid, or if the
+     *                                      checkpoint to resume is not valid
+     * @throws IllegalArgumentException     if checkpoints are given to a streaming runner
+     */
+    public int run(final @NotNull ProgramFileParser parser, final @NotNull ResultSink sink,
+                   final Checkpoints checkpoints, final TraceWriter trace) throws LawnmowerFileFormatException {
+        checkCheckpoints(checkpoints);
+        final Diagnostics diagnostics = new Diagnostics(verbosity, diagnosticsLimit);
+        final CoverageReport coverageReport = newCoverageReport();
+        final int mowers;
+        if (streaming) {
+            // read the file twice, keeping only the init positions in memory
+            mowers = new StreamingProgramRunner.Builder(parser)
+                    .diagnostics(diagnostics)
+                    .coverage(coverageReport)
+                    .trace(trace)
+                    .pipelined(pipelined)
+                    .build()
+                    .run(trace == null ? sink : trace.wrap(sink));
+        } else {
+            // iterate on each line of the file
+            mowers = execute(iterateOnFileLines(parser, diagnostics, coverageReport), sink, diagnostics,
+                    coverageReport, checkpoints, trace);
+        }
+        sink.flush();
+        printReports(parser.getName(), diagnostics, coverageReport);
+        return mowers;
+    }
+
+    /**
+     * Checks that the given checkpoints can be used: they need all the mowers in memory, not in streaming mode.
+     */
+    private void checkCheckpoints(final Checkpoints checkpoints) {
+        if (checkpoints != null && streaming) {
+            throw new IllegalArgumentException(
+                    I18n.getMessage("readcommand.checkpoint.with.streaming")); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns a new coverage report, or <code>null</code> if the coverage is not tracked.
+     */
+    private CoverageReport newCoverageReport() {
+        return coverage ? new CoverageReport(diagnosticsLimit) : null;
+    }
+
+    /**
+     * Prints the diagnostics and the coverage report (if any) of a program.
+     */
+    private static void printReports(final @NotNull String program, final @NotNull Diagnostics diagnostics,
+                                     final CoverageReport coverageReport) {
+        diagnostics.print(program, System.err);
+        if (coverageReport != null) {
+            coverageReport.print(program, System.err);
+        }
+    }
+
+    /**
+     * Executes the mowers of the lawn with the chosen engine, and writes their final position.
+     *
+     * @return the number of executed mowers
+     */
+    private int execute(final @NotNull Lawn lawn, final @NotNull ResultSink sink,
+                        final @NotNull Diagnostics diagnostics, final CoverageReport coverageReport,
+                        final Checkpoints checkpoints, final TraceWriter trace)
+            throws LawnmowerFileFormatException {
+        final ResultSink results = trace == null ? sink : trace.wrap(sink);
+        if (checkpoints != null) {
+            execute(lawn, results, checkpoints, trace);
+        } else {
+            if (trace != null) {
+                trace.attach(lawn, 0);
+            }
+            engine.create(lawn).moveAllMowers(results);
+        }
+        diagnostics.recordBlockedMoves(lawn.fleet());
+        if (coverageReport != null) {
+            coverageReport.recordMowers(lawn.fleet());
+        }
+        return lawn.fleet().size();
+    }
+
+    /**
+     * Executes the mowers of the lawn one after the other, from the restored checkpoint (if any), and writes their
+     * final position.
+     */
+    private void execute(final @NotNull Lawn lawn, final @NotNull ResultSink sink,
+                         final @NotNull Checkpoints checkpoints, final TraceWriter trace)
+            throws LawnmowerFileFormatException {
+        final int next = checkpoints.start(lawn);
+        if (trace != null) {
+            // the mowers restored from the checkpoint are not recorded
+            trace.attach(lawn, next);
+        }
+        final MowerFleet mowers = lawn.fleet();
+        final SimulationEngine executor = engine.create(lawn);
+
+        for (int i = 0; i < next; i++) {
+            // executed before the checkpoint
+            sink.accept(mowers, i);
+        }
+        for (int i = next; i < mowers.size(); i++) {
+            executor.execute(i);
+            sink.accept(mowers, i);
+            checkpoints.executed(lawn, i + 1);
+        }
+        checkpoints.complete();
+    }
+
+    /**
+     * Puts the mowers on the lawn, in their order, except the ones whose init position is out of the lawn or already
+     * taken.
+     */
+    private static void addMowers(final @NotNull Lawn lawn, final @NotNull MowerFleet mowers,
+                                  final @NotNull Diagnostics diagnostics) {
+        for (int index = 0; index < mowers.size(); index++) {
+            addMower(lawn, mowers, index, diagnostics);
+        }
+    }
+
+    /**
+     * Puts the mower on the lawn, unless its init position is out of the lawn or already taken.
+     */
+    private static void addMower(final @NotNull Lawn lawn, final @NotNull MowerFleet mowers, final int index,
+                                 final @NotNull Diagnostics diagnostics) {
+        if (!lawn.occupancy().isInside(mowers.getX(index), mowers.getY(index))) {
+            // if out of bounds, we count it but continue (without the lawnmower)
+            diagnostics.record(Diagnostics.Kind.OUT_OF_BOUNDS, index, 1);
+        } else if (!lawn.addMower(mowers, index)) {
+            // if another mower already starts there, we count it but continue (without the lawnmower)
+            diagnostics.record(Diagnostics.Kind.POSITION_TAKEN, index, 1);
+        }
+    }
+
+    /**
+     * Iterate on all the lines of the given file (using its parser)
+     *
+     * @param parser         current file parser
+     * @param diagnostics    where the ignored mowers are counted
+     * @param coverageReport where the mowed cells are tracked, or <code>null</code>
+     * @return the {@link Lawn} and all its (valid) mowers
+     * @throws LawnmowerFileFormatException in one of those cases :
+     *                                      <ul>
+     *                                          <li>the file is empty</li>
+     *                                          <li>the file format is not valid</li>
+     *                                      </ul>
+     */
+    private static @NotNull Lawn iterateOnFileLines(final @NotNull ProgramFileParser parser,
+                                                    final @NotNull Diagnostics diagnostics,
+                                                    final CoverageReport coverageReport)
+            throws LawnmowerFileFormatException {
+
+        // if the file does not have AT LEAST 1 line, we cannot continue
+        if (!parser.hasNextLine()) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_EMPTYFILE,
+                    I18n.getMessage("readcommand.empty.file.error", parser.getName())); //$NON-NLS-1$
+        }
+        final ProgramParsingEvent event = FlightEvents.isEnabled() ? ProgramParsingEvent.start() : null;
+
+        // extract the first line of the file
+        final @NotNull Lawn lawn = coverageReport == null
+                ? parser.readLawn()
+                : coverageReport.attach(parser.readLawn());
+
+        // read all the lawnmowers (1 lawnmower = 2 lines), concurrently for the big files, then put them on the lawn
+        addMowers(lawn, new ParallelProgramParser(parser).readMowers(), diagnostics);
+        if (event != null) {
+            event.end(parser.getName(), false, parser.size(), lawn.mowers().size());
+        }
+        return lawn;
+    }
+
+    /**
+     * Builds a {@link ProgramRunner}: by default, the mowers are executed in memory by the sequential engine, and a
+     * summary of the diagnostics of each program is printed.
+     */
+    public static final class Builder {
+
+        private @NotNull EngineType engine = EngineType.SEQUENTIAL;
+
+        private boolean streaming;
+
+        private boolean pipelined;
+
+        private @NotNull Diagnostics.Verbosity verbosity = Diagnostics.Verbosity.SUMMARY;
+
+        private int diagnosticsLimit = Diagnostics.DEFAULT_LIMIT;
+
+        private boolean coverage;
+
+        /**
+         * Chooses the engine executing the mowers.
+         *
+         * @param engine engine used to execute the mowers (only the sequential one in streaming mode)
+         * @return this builder
+         */
+        public @NotNull Builder engine(final @NotNull EngineType engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Chooses the streaming mode.
+         *
+         * @param streaming <code>true</code> to read the file twice instead of loading all the instructions in memory
+         * @return this builder
+         */
+        public @NotNull Builder streaming(final boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Chooses the pipelined streaming mode.
+         *
+         * @param pipelined <code>true</code> to read the file twice, the second time parsing, executing and writing
+         *                  the mowers on separate threads (see {@link StreamingProgramRunner})
+         * @return this builder
+         */
+        public @NotNull Builder pipelined(final boolean pipelined) {
+            this.pipelined = pipelined;
+            return this;
+        }
+
+        /**
+         * Chooses how much of the diagnostics of each program is printed (on the error output).
+         *
+         * @param verbosity the level of the diagnostics
+         * @param limit     maximum number of mowers reported for each kind of event (and of regions and mowers
+         *                  listed in the coverage report)
+         * @return this builder
+         */
+        public @NotNull Builder diagnostics(final @NotNull Diagnostics.Verbosity verbosity, final int limit) {
+            this.verbosity = verbosity;
+            this.diagnosticsLimit = limit;
+            return this;
+        }
+
+        /**
+         * Chooses to track the mowed cells.
+         *
+         * @param coverage <code>true</code> to track the mowed cells, and print a coverage report for each program
+         *                 (on the error output)
+         * @return this builder
+         */
+        public @NotNull Builder coverage(final boolean coverage) {
+            this.coverage = coverage;
+            return this;
+        }
+
+        /**
+         * Creates the runner.
+         *
+         * @return a new {@link ProgramRunner}
+         * @throws IllegalArgumentException if another engine than the sequential one is chosen in streaming mode (the
+         *                                  streaming runner executes the mowers one at a time, while they are read)
+         */
+        public @NotNull ProgramRunner build() {
+            if ((streaming || pipelined) && engine != EngineType.SEQUENTIAL) {
+                throw new IllegalArgumentException(
+                        I18n.getMessage("readcommand.engine.with.streaming", engine)); //$NON-NLS-1$
+            }
+            return new ProgramRunner(this);
+        }
+    }
+}
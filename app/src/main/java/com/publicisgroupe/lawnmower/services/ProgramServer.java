@@ -0,0 +1,148 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class runs the 'lawnmower programming files (*.lpf)' sent by clients on a local socket.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import org.jetbrains.annotations.NotNull;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server executing the programs received on a socket (TCP or Unix-domain), with a warm JVM.
+ * <p>
+ * The protocol is one program per connection:
+ * <ol>
+ *     <li>the client sends the content of the program file, then shuts its output down (end of stream)</li>
+ *     <li>the server sends back the final position of each mower, in the chosen format (exactly like the command
+ *     line)</li>
+ *     <li>if the program is not valid, the server sends a line <code>ERROR &lt;message&gt;</code></li>
+ *     <li>the last line is always <code>END &lt;retcode&gt;</code>, the retcode being the one the command line would
+ *     return (see {@link com.publicisgroupe.lawnmower.Constants.Retcode}), then the connection is closed</li>
+ * </ol>
+ * The connections are accepted by the calling thread and handled by the given worker pool.
+ */
+public class ProgramServer {
+
+    /**
+     * Prefix of the line describing an error.
+     */
+    public static final @NotNull String ERROR_PREFIX = "ERROR "; //$NON-NLS-1$
+
+    /**
+     * Prefix of the last line of a response.
+     */
+    public static final @NotNull String END_PREFIX = "END "; //$NON-NLS-1$
+
+    /**
+     * Runner used for all the programs.
+     */
+    private final @NotNull ProgramRunner runner;
+
+    /**
+     * Format of the results.
+     */
+    private final @NotNull ResultFormat format;
+
+    /**
+     * Pool of threads handling the connections.
+     */
+    private final @NotNull ExecutorService workers;
+
+    /**
+     * Number of the last received request (used to name the programs in the error messages).
+     */
+    private final @NotNull AtomicLong requests = new AtomicLong();
+
+    /**
+     * Creates a server.
+     *
+     * @param runner  runner used for all the programs
+     * @param format  format of the results
+     * @param workers pool of threads handling the connections
+     */
+    public ProgramServer(final @NotNull ProgramRunner runner, final @NotNull ResultFormat format,
+                         final @NotNull ExecutorService workers) {
+        this.runner = runner;
+        this.format = format;
+        this.workers = workers;
+    }
+
+    /**
+     * Accepts the connections until the given channel is closed (by another thread).
+     *
+     * @param server a bound server channel, in blocking mode
+     * @throws IOException if an I/O error occurs while accepting a connection
+     */
+    public void serve(final @NotNull ServerSocketChannel server) throws IOException {
+        while (server.isOpen()) {
+            final SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (final ClosedChannelException ex) {
+                // the server is being stopped
+                return;
+            }
+            try {
+                workers.execute(() -> handle(client));
+            } catch (final RejectedExecutionException ex) {
+                // the workers are being stopped
+                client.close();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handles one connection: reads the program, executes it and sends back the results.
+     *
+     * @param client the connection to a client
+     */
+    void handle(final @NotNull SocketChannel client) {
+        final String name = "request-" + requests.incrementAndGet(); //$NON-NLS-1$
+        try (client; final InputStream in = Channels.newInputStream(client)) {
+            final ByteBuffer program = ByteBuffer.wrap(in.readAllBytes());
+            final StringBuilder trailer = new StringBuilder();
+            int retcode = CommandLine.ExitCode.OK;
+            try {
+                runner.run(new ProgramFileParser(name, program), format.open(client));
+
+            } catch (final LawnmowerFileFormatException ex) {
+                retcode = ex.getErrcode();
+                trailer.append(ERROR_PREFIX).append(ex.getMessage()).append(System.lineSeparator());
+
+            } catch (final UncheckedIOException ex) {
+                throw ex.getCause();
+
+            } catch (final RuntimeException ex) {
+                retcode = CommandLine.ExitCode.SOFTWARE;
+                trailer.append(ERROR_PREFIX).append(ex).append(System.lineSeparator());
+            }
+            trailer.append(END_PREFIX).append(retcode).append(System.lineSeparator());
+
+            final ByteBuffer bytes = StandardCharsets.UTF_8.encode(trailer.toString());
+            while (bytes.hasRemaining()) {
+                client.write(bytes);
+            }
+
+        } catch (final IOException ex) {
+            // the client has gone, nobody can be told
+            System.err.println(I18n.getMessage("serve.client.error", name, ex.getMessage())); //$NON-NLS-1$
+        }
+    }
+}
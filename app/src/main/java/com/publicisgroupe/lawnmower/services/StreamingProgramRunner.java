@@ -0,0 +1,537 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class runs a 'lawnmower programming file (*.lpf)' without loading all of its instructions in memory.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.events.ProgramParsingEvent;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Two-pass execution of a program file, with a memory footprint proportional to the number of mowers.
+ * <p>
+ * The mowers are executed one after the other, but all of them must be on the lawn before the first one moves
+ * (they may block it). So:
+ * <ol>
+ *     <li>the first pass reads the init positions of all the mowers and validates their instructions, without
+ *     storing them. Only the init positions and the position of the instruction lines in the file are kept</li>
+ *     <li>the second pass reads the instructions of one mower, executes them and writes the result before going to
+ *     the next mower</li>
+ * </ol>
+ * The output is the same as the one of {@link Lawn#moveAllMowers()}.
+ * <p>
+ * In pipelined mode, the second pass runs on 3 threads: a parser thread reads the instructions, the calling thread
+ * executes the mowers, and a writer thread writes the results. The stages hand over batches of mowers through
+ * bounded queues, so a stage ahead of the others waits for them (the memory stays bounded), and the wall time gets
+ * close to the one of the slowest stage. When the paths of the mowers are recorded, the results are written by the
+ * calling thread.
+ */
+public class StreamingProgramRunner {
+
+    private static final LawnmowerOrientation[] ORIENTATIONS = LawnmowerOrientation.values();
+
+    /**
+     * Maximum number of mowers of a batch handed over between two stages of the pipeline.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Number of instructions closing a batch of parsed mowers (so that a batch of long programs stays small).
+     */
+    private static final long BATCH_INSTRUCTIONS = 1L << 20;
+
+    /**
+     * Maximum number of batches waiting between two stages of the pipeline.
+     */
+    private static final int QUEUE_SIZE = 4;
+
+    /**
+     * Marker of a failure of the parser thread.
+     */
+    private static final InstructionProgram[] PARSING_FAILED = new InstructionProgram[0];
+
+    /**
+     * Marker of the end of the results.
+     */
+    private static final Results END = new Results(0);
+
+    /**
+     * Parser of the program file.
+     */
+    private final @NotNull ProgramFileParser parser;
+
+    /**
+     * Where the blocked moves and the ignored mowers are counted.
+     */
+    private final @NotNull Diagnostics diagnostics;
+
+    /**
+     * Where the mowed cells are tracked (<code>null</code> if the coverage is not tracked).
+     */
+    private final CoverageReport coverage;
+
+    /**
+     * Where the path of each mower is recorded (<code>null</code> if the paths are not recorded).
+     */
+    private final TraceWriter trace;
+
+    /**
+     * <code>true</code> to parse, execute and write the mowers of the second pass on separate threads.
+     */
+    private final boolean pipelined;
+
+    /**
+     * Error of the parser thread, thrown by the calling thread.
+     */
+    private volatile Exception parserFailure;
+
+    /**
+     * Error of the writer thread (the next results are ignored), thrown by the calling thread.
+     */
+    private volatile RuntimeException writerFailure;
+
+    /**
+     * Number of mowers on the lawn.
+     */
+    private int count;
+
+    /**
+     * Init X coordinate of each mower.
+     */
+    private int[] startX = new int[16];
+
+    /**
+     * Init Y coordinate of each mower.
+     */
+    private int[] startY = new int[16];
+
+    /**
+     * Init orientation (ordinal) of each mower.
+     */
+    private byte[] startOrientation = new byte[16];
+
+    /**
+     * Position of the instructions line of each mower in the file.
+     */
+    private long[] instructionOffsets = new long[16];
+
+    /**
+     * Creates a runner with the options of the given builder.
+     *
+     * @param builder the program and the options of the runner
+     */
+    private StreamingProgramRunner(final @NotNull Builder builder) {
+        this.parser = builder.parser;
+        this.diagnostics = builder.diagnostics;
+        this.coverage = builder.coverage;
+        this.trace = builder.trace;
+        this.pipelined = builder.pipelined;
+    }
+
+    /**
+     * Executes all the mowers, and writes their final position.
+     *
+     * @param sink where the final position of each mower is written (in pipelined mode, by the writer thread,
+     *             which is over when this method returns)
+     * @return the number of executed mowers
+     * @throws LawnmowerFileFormatException if the file is empty, or if its format is not valid (in this case, no
+     *                                      mower is executed)
+     */
+    public int run(final @NotNull ResultSink sink) throws LawnmowerFileFormatException {
+        final Lawn lawn = indexMowers();
+        if (pipelined) {
+            executeMowersPipelined(lawn, sink);
+        } else {
+            executeMowers(lawn, sink);
+        }
+        return count;
+    }
+
+    /**
+     * First pass: reads the lawn and the init positions of the mowers, and validates the whole file.
+     *
+     * @return the lawn, with all the valid init positions in its occupancy index
+     * @throws LawnmowerFileFormatException if the file is empty, or if its format is not valid
+     */
+    private @NotNull Lawn indexMowers() throws LawnmowerFileFormatException {
+        // if the file does not have AT LEAST 1 line, we cannot continue
+        if (!parser.hasNextLine()) {
+            throw new LawnmowerFileFormatException(
+                    Constants.Retcode.READCOMMAND_EMPTYFILE,
+                    I18n.getMessage("readcommand.empty.file.error", parser.getName())); //$NON-NLS-1$
+        }
+        final ProgramParsingEvent event = FlightEvents.isEnabled() ? ProgramParsingEvent.start() : null;
+
+        final Lawn lawn = coverage == null ? parser.readLawn() : coverage.attach(parser.readLawn());
+
+        // iterate on each lawnmower (1 lawnmower = 2 lines)
+        for (long index = 0; parser.hasNextLine(); index++) {
+            final LawnmowerInitRecord init = parser.readInitRecord();
+            final long offset = parser.position();
+            parser.skipInstructions();
+
+            if (!lawn.occupancy().isInside(init.startX(), init.startY())) {
+                // if out of bounds, we count it but continue (without the lawnmower)
+                diagnostics.record(Diagnostics.Kind.OUT_OF_BOUNDS, index, 1);
+            } else if (!lawn.occupancy().add(init.startX(), init.startY())) {
+                // if another mower already starts there, we count it but continue (without the lawnmower)
+                diagnostics.record(Diagnostics.Kind.POSITION_TAKEN, index, 1);
+            } else {
+                if (coverage != null) {
+                    // the init positions are mowed before any mower moves
+                    coverage.coverage().add(init.startX(), init.startY());
+                }
+                addMower(init, offset);
+            }
+        }
+        if (event != null) {
+            event.end(parser.getName(), false, parser.size(), count);
+        }
+        return lawn;
+    }
+
+    /**
+     * Second pass: executes the mowers one by one, reading their instructions again.
+     *
+     * @param lawn the lawn returned by the first pass
+     * @param sink where the final position of each mower is written
+     * @throws LawnmowerFileFormatException if the file has changed since the first pass
+     */
+    private void executeMowers(final @NotNull Lawn lawn, final @NotNull ResultSink sink)
+            throws LawnmowerFileFormatException {
+        // a single mower is in memory at a time
+        final MowerFleet mowers = new MowerFleet(1);
+        for (int i = 0; i < count; i++) {
+            sink.accept(mowers, execute(lawn, mowers, i, readInstructions(i)));
+        }
+    }
+
+    /**
+     * Second pass, pipelined: the parser thread reads the instructions of the next mowers while this thread executes
+     * the current ones, and the writer thread writes the results of the previous ones.
+     *
+     * @param lawn the lawn returned by the first pass
+     * @param sink where the final position of each mower is written
+     * @throws LawnmowerFileFormatException if the file has changed since the first pass
+     */
+    private void executeMowersPipelined(final @NotNull Lawn lawn, final @NotNull ResultSink sink)
+            throws LawnmowerFileFormatException {
+        final BlockingQueue<InstructionProgram[]> programs = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        final BlockingQueue<Results> results = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        final Thread reader = start("lawnmower-parser", () -> parseInstructions(programs)); //$NON-NLS-1$
+        // the sink wrapped by the trace writer takes the path of the mower: it is called by this thread
+        final Thread writer = trace != null ? null
+                : start("lawnmower-writer", () -> writeResults(results, sink)); //$NON-NLS-1$
+        boolean done = false;
+        try {
+            final MowerFleet mowers = new MowerFleet(1);
+            for (int i = 0; i < count; ) {
+                final InstructionProgram[] batch = programs.take();
+                if (batch == PARSING_FAILED) {
+                    if (parserFailure instanceof LawnmowerFileFormatException e) {
+                        throw e;
+                    }
+                    throw (RuntimeException) parserFailure;
+                }
+                final Results executed = writer == null ? null : new Results(batch.length);
+                for (final InstructionProgram instructions : batch) {
+                    final int mower = execute(lawn, mowers, i++, instructions);
+                    if (executed == null) {
+                        sink.accept(mowers, mower);
+                    } else {
+                        executed.add(mowers, mower);
+                    }
+                }
+                if (executed != null) {
+                    checkWriter();
+                    results.put(executed);
+                }
+            }
+            if (writer != null) {
+                results.put(END);
+                writer.join();
+                checkWriter();
+            }
+            done = true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        } finally {
+            if (!done) {
+                // stop the other stages, waiting for a batch that will never come (or be taken)
+                reader.interrupt();
+                if (writer != null) {
+                    writer.interrupt();
+                }
+            }
+            join(reader);
+            if (writer != null) {
+                join(writer);
+            }
+        }
+    }
+
+    /**
+     * Body of the parser thread: reads the instructions of all the mowers, by batches.
+     */
+    private void parseInstructions(final @NotNull BlockingQueue<InstructionProgram[]> programs) {
+        try {
+            for (int i = 0; i < count; ) {
+                final InstructionProgram[] batch = new InstructionProgram[Math.min(BATCH_SIZE, count - i)];
+                int size = 0;
+                long instructions = 0;
+                while (size < batch.length && instructions < BATCH_INSTRUCTIONS) {
+                    batch[size] = readInstructions(i++);
+                    instructions += batch[size++].length();
+                }
+                programs.put(size == batch.length ? batch : Arrays.copyOf(batch, size));
+            }
+        } catch (final LawnmowerFileFormatException | RuntimeException e) {
+            parserFailure = e;
+            try {
+                programs.put(PARSING_FAILED);
+            } catch (final InterruptedException interrupted) {
+                // the execution is over
+            }
+        } catch (final InterruptedException e) {
+            // the execution failed, and reports its own error
+        }
+    }
+
+    /**
+     * Body of the writer thread: writes the results, by batches, until the end marker.
+     */
+    private void writeResults(final @NotNull BlockingQueue<Results> results, final @NotNull ResultSink sink) {
+        try {
+            for (Results batch = results.take(); batch != END; batch = results.take()) {
+                if (writerFailure == null) {
+                    try {
+                        batch.writeTo(sink);
+                    } catch (final RuntimeException e) {
+                        // thrown by the calling thread, the next results are only consumed
+                        writerFailure = e;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            // the execution failed, and reports its own error
+        }
+    }
+
+    private void checkWriter() {
+        final RuntimeException failure = writerFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Reads the instructions of a mower again.
+     *
+     * @param i number of the mower (in the order of the lawn)
+     * @throws LawnmowerFileFormatException if the file has changed since the first pass
+     */
+    private @NotNull InstructionProgram readInstructions(final int i) throws LawnmowerFileFormatException {
+        parser.position(instructionOffsets[i]);
+        return parser.readInstructions();
+    }
+
+    /**
+     * Executes a mower, in a fleet holding only this one.
+     *
+     * @param i number of the mower (in the order of the lawn)
+     * @return the index of the executed mower in the fleet
+     */
+    private int execute(final @NotNull Lawn lawn, final @NotNull MowerFleet mowers, final int i,
+                        final @NotNull InstructionProgram instructions) {
+        mowers.clear();
+        final int mower = mowers.add(
+                new LawnmowerInitRecord(startX[i], startY[i], ORIENTATIONS[startOrientation[i]]),
+                instructions);
+
+        if (coverage != null) {
+            // its init position was mowed by the first pass
+            mowers.trackCoverage(mower, coverage.coverage());
+            mowers.addMowedCells(mower, 1);
+        }
+        if (trace != null) {
+            trace.attach(mowers, mower);
+        }
+
+        mowers.execute(mower, lawn.occupancy());
+        diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, i, mowers.getBlockedMoves(mower));
+        if (coverage != null) {
+            coverage.recordMower(i, mowers.getMowedCells(mower));
+        }
+        return mower;
+    }
+
+    private static @NotNull Thread start(final @NotNull String name, final @NotNull Runnable stage) {
+        final Thread thread = new Thread(stage, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits for a stage to be over, even if this thread is interrupted (its interrupt status is then restored).
+     */
+    private static void join(final @NotNull Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void addMower(final @NotNull LawnmowerInitRecord init, final long offset) {
+        if (count == startX.length) {
+            final int capacity = count << 1;
+            startX = Arrays.copyOf(startX, capacity);
+            startY = Arrays.copyOf(startY, capacity);
+            startOrientation = Arrays.copyOf(startOrientation, capacity);
+            instructionOffsets = Arrays.copyOf(instructionOffsets, capacity);
+        }
+        startX[count] = init.startX();
+        startY[count] = init.startY();
+        startOrientation[count] = (byte) init.startOrientation().ordinal();
+        instructionOffsets[count] = offset;
+        count++;
+    }
+
+    /**
+     * Final positions of a batch of executed mowers, handed over to the writer thread.
+     */
+    private static final class Results {
+
+        private final int[] x;
+
+        private final int[] y;
+
+        private final LawnmowerOrientation[] orientations;
+
+        private int size;
+
+        private Results(final int capacity) {
+            x = new int[capacity];
+            y = new int[capacity];
+            orientations = new LawnmowerOrientation[capacity];
+        }
+
+        private void add(final @NotNull MowerFleet fleet, final int mower) {
+            x[size] = fleet.getX(mower);
+            y[size] = fleet.getY(mower);
+            orientations[size] = fleet.getOrientation(mower);
+            size++;
+        }
+
+        private void writeTo(final @NotNull ResultSink sink) {
+            for (int i = 0; i < size; i++) {
+                sink.accept(x[i], y[i], orientations[i]);
+            }
+        }
+    }
+
+    /**
+     * Builds a {@link StreamingProgramRunner}: by default, the diagnostics are not kept, the mowed cells and the
+     * paths are not tracked, and the mowers are executed on the calling thread.
+     */
+    public static final class Builder {
+
+        private final @NotNull ProgramFileParser parser;
+
+        private @NotNull Diagnostics diagnostics = new Diagnostics(Diagnostics.Verbosity.QUIET, 0);
+
+        private CoverageReport coverage;
+
+        private TraceWriter trace;
+
+        private boolean pipelined;
+
+        /**
+         * Creates a builder for the given program.
+         *
+         * @param parser parser of the program file
+         */
+        public Builder(final @NotNull ProgramFileParser parser) {
+            this.parser = parser;
+        }
+
+        /**
+         * Chooses where the diagnostics are counted.
+         *
+         * @param diagnostics where the blocked moves and the ignored mowers are counted (they are not printed)
+         * @return this builder
+         */
+        public @NotNull Builder diagnostics(final @NotNull Diagnostics diagnostics) {
+            this.diagnostics = diagnostics;
+            return this;
+        }
+
+        /**
+         * Chooses where the mowed cells are tracked.
+         *
+         * @param coverage where the mowed cells are tracked (they are not printed), or <code>null</code>
+         * @return this builder
+         */
+        public @NotNull Builder coverage(final CoverageReport coverage) {
+            this.coverage = coverage;
+            return this;
+        }
+
+        /**
+         * Chooses where the path of each mower is recorded.
+         *
+         * @param trace where the path of each mower is recorded (the sink given to
+         *              {@link StreamingProgramRunner#run(ResultSink)} must be wrapped by
+         *              {@link TraceWriter#wrap(ResultSink)}), or <code>null</code>
+         * @return this builder
+         */
+        public @NotNull Builder trace(final TraceWriter trace) {
+            this.trace = trace;
+            return this;
+        }
+
+        /**
+         * Chooses the pipelined mode.
+         *
+         * @param pipelined <code>true</code> to parse, execute and write the mowers on separate threads
+         * @return this builder
+         */
+        public @NotNull Builder pipelined(final boolean pipelined) {
+            this.pipelined = pipelined;
+            return this;
+        }
+
+        /**
+         * Creates the runner.
+         *
+         * @return a new {@link StreamingProgramRunner}
+         */
+        public @NotNull StreamingProgramRunner build() {
+            return new StreamingProgramRunner(this);
+        }
+    }
+}
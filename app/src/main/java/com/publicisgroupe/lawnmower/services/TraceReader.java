@@ -0,0 +1,296 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class reads a trace file (*.lpft), written by {@link TraceWriter}.
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.Trajectory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Random access to the recorded paths of the mowers.
+ * <p>
+ * The state of a mower after a given step is found without decoding the whole file, nor the whole path of the mower:
+ * its index entry gives the position of its path, the closest keyframe before the step is found by a binary search,
+ * and only the tokens following it are decoded.
+ */
+public class TraceReader implements Closeable {
+
+    /**
+     * Directions, in quarter turns to the right from the north.
+     */
+    private static final LawnmowerOrientation[] DIRECTIONS = {
+            LawnmowerOrientation.NORTH, LawnmowerOrientation.EAST, LawnmowerOrientation.SOUTH,
+            LawnmowerOrientation.WEST
+    };
+
+    /**
+     * State of a mower after a step.
+     *
+     * @param x           X coordinate of the mower
+     * @param y           Y coordinate of the mower
+     * @param orientation orientation of the mower
+     */
+    public record Position(int x, int y, @NotNull LawnmowerOrientation orientation) {
+
+        /**
+         * Returns the position like the results of a program are displayed.
+         *
+         * @return the coordinates and the orientation letter
+         */
+        @Override
+        public String toString() {
+            return x + " " + y + " " + orientation.instruction; //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Name of the trace file (used in the error messages).
+     */
+    private final @NotNull String name;
+
+    /**
+     * The trace file.
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * Position of the index in the file.
+     */
+    private final long indexPosition;
+
+    /**
+     * Number of mowers.
+     */
+    private final long mowers;
+
+    private TraceReader(final @NotNull String name, final @NotNull FileChannel channel)
+            throws IOException, LawnmowerFileFormatException {
+        this.name = name;
+        this.channel = channel;
+        final long size = channel.size();
+        if (size < TraceWriter.HEADER_SIZE + TraceWriter.TRAILER_SIZE) {
+            throw invalid();
+        }
+        final ByteBuffer header = read(0, TraceWriter.HEADER_SIZE);
+        if (header.getInt() != TraceWriter.MAGIC || header.getInt() != TraceWriter.VERSION) {
+            throw invalid();
+        }
+        final ByteBuffer trailer = read(size - TraceWriter.TRAILER_SIZE, TraceWriter.TRAILER_SIZE);
+        this.indexPosition = trailer.getLong();
+        this.mowers = trailer.getLong();
+        if (indexPosition < TraceWriter.HEADER_SIZE || mowers < 0
+                || mowers > (size - TraceWriter.TRAILER_SIZE - indexPosition) / TraceWriter.ENTRY_SIZE
+                || indexPosition + mowers * TraceWriter.ENTRY_SIZE != size - TraceWriter.TRAILER_SIZE) {
+            throw invalid();
+        }
+    }
+
+    /**
+     * Opens the given trace file.
+     *
+     * @param file the trace file
+     * @return the trace, that must be closed
+     * @throws LawnmowerFileFormatException if the file is not a trace file (or not of this version)
+     * @throws IOException                  if the file cannot be read
+     */
+    public static @NotNull TraceReader open(final @NotNull Path file)
+            throws LawnmowerFileFormatException, IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new TraceReader(file.getFileName().toString(), channel);
+        } catch (final IOException | LawnmowerFileFormatException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the number of mowers of the trace (executed or not).
+     *
+     * @return the number of results of the traced program
+     */
+    public long mowerCount() {
+        return mowers;
+    }
+
+    /**
+     * Checks if the path of a mower has been recorded (it is not when the mower was restored from a checkpoint).
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @return <code>true</code> if the path of the mower is in the trace
+     * @throws LawnmowerFileFormatException if the entry of the mower is not valid
+     */
+    public boolean contains(final long mower) throws LawnmowerFileFormatException {
+        return new Entry(mower).offset >= 0;
+    }
+
+    /**
+     * Returns the number of recorded steps of a mower.
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @return its number of executed instructions
+     * @throws LawnmowerFileFormatException if the entry of the mower is not valid
+     * @throws NoSuchElementException       if the path of the mower has not been recorded
+     */
+    public long steps(final long mower) throws LawnmowerFileFormatException {
+        return new Entry(mower).recorded().steps;
+    }
+
+    /**
+     * Returns the state of a mower after the given step.
+     *
+     * @param mower index of the mower (from 0 to {@link #mowerCount()} excluded)
+     * @param step  number of executed instructions (from 0 for the init position to {@link #steps(long)} for the
+     *              final position)
+     * @return the position and the orientation of the mower
+     * @throws LawnmowerFileFormatException if the path of the mower is not valid
+     * @throws NoSuchElementException       if the path of the mower has not been recorded
+     */
+    public @NotNull Position position(final long mower, final long step) throws LawnmowerFileFormatException {
+        final Entry entry = new Entry(mower).recorded();
+        if (step < 0 || step > entry.steps) {
+            throw new IndexOutOfBoundsException(Long.toString(step));
+        }
+
+        // the last keyframe at or before the step (or the init position)
+        final int[] state = {entry.startX, entry.startY, entry.startDirection};
+        long done = 0;
+        int tokenOffset = 0;
+        int low = 0;
+        int high = entry.keyframes - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final ByteBuffer keyframe = read(entry.offset + entry.tokenBytes + (long) middle * Trajectory.KEYFRAME_SIZE,
+                    Trajectory.KEYFRAME_SIZE);
+            final long keyframeStep = keyframe.getLong();
+            if (keyframeStep <= step) {
+                done = keyframeStep;
+                state[0] = keyframe.getInt();
+                state[1] = keyframe.getInt();
+                state[2] = keyframe.get() & 3;
+                tokenOffset = keyframe.getInt();
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (tokenOffset < 0 || tokenOffset > entry.tokenBytes) {
+            throw invalid();
+        }
+
+        // then the tokens, until the step
+        final ByteBuffer tokens = read(entry.offset + tokenOffset,
+                Math.min(entry.tokenBytes - tokenOffset, 10 * Trajectory.KEYFRAME_INTERVAL));
+        while (done < step) {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (!tokens.hasRemaining() || shift > 63) {
+                    throw invalid();
+                }
+                final byte b = tokens.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            final long count = Math.min(value >>> 2, step - done);
+            Trajectory.apply(state, (int) (value & 3), count);
+            done += count;
+        }
+        return new Position(state[0], state[1], DIRECTIONS[state[2]]);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads a region of the file.
+     */
+    private @NotNull ByteBuffer read(final long position, final int length) {
+        final ByteBuffer bytes = ByteBuffer.allocate(length);
+        try {
+            while (bytes.hasRemaining() && channel.read(bytes, position + bytes.position()) >= 0) {
+                // read until the region is complete, or the end of the file
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.flip();
+    }
+
+    private @NotNull LawnmowerFileFormatException invalid() {
+        return new LawnmowerFileFormatException(
+                Constants.Retcode.READCOMMAND_FORMAT_ERROR,
+                I18n.getMessage("readcommand.trace.invalid", name, TraceWriter.VERSION)); //$NON-NLS-1$
+    }
+
+    /**
+     * The index entry of a mower.
+     */
+    private final class Entry {
+
+        private final long offset;
+
+        private final int tokenBytes;
+
+        private final int keyframes;
+
+        private final long steps;
+
+        private final int startX;
+
+        private final int startY;
+
+        private final int startDirection;
+
+        private Entry(final long mower) throws LawnmowerFileFormatException {
+            if (mower < 0 || mower >= mowers) {
+                throw new IndexOutOfBoundsException(Long.toString(mower));
+            }
+            final ByteBuffer entry = read(indexPosition + mower * TraceWriter.ENTRY_SIZE, TraceWriter.ENTRY_SIZE);
+            this.offset = entry.getLong();
+            this.tokenBytes = entry.getInt();
+            this.keyframes = entry.getInt();
+            this.steps = entry.getLong();
+            this.startX = entry.getInt();
+            this.startY = entry.getInt();
+            this.startDirection = entry.get();
+            if (offset >= 0 && (offset < TraceWriter.HEADER_SIZE || tokenBytes < 0 || keyframes < 0 || steps < 0
+                    || startDirection < 0 || startDirection > 3
+                    || offset + tokenBytes + (long) keyframes * Trajectory.KEYFRAME_SIZE > indexPosition)) {
+                throw invalid();
+            }
+        }
+
+        /**
+         * Returns this entry, if the path of the mower has been recorded.
+         */
+        private @NotNull Entry recorded() {
+            if (offset < 0) {
+                throw new NoSuchElementException(I18n.getMessage("trace.not.recorded", name)); //$NON-NLS-1$
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/**
+ * Publicis Lawnmower Project
+ * <p>
+ * This class writes the paths of the mowers of a 'lawnmower programming file (*.lpf)' into a trace file (*.lpft).
+ */
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.models.Trajectory;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writer of the trace files: the {@link Trajectory} of each mower, step by step.
+ * <p>
+ * The trajectories are recorded by the execution threads, and handed over to a writer thread once their mower is
+ * done (when its result is written): the file is written through a buffered channel, off the execution path. The
+ * file is made of (all the numbers are big-endian):
+ * <ol>
+ *     <li>a header of {@link #HEADER_SIZE} bytes: the magic number <code>LPFT</code> and the version of the format
+ *     (ints)</li>
+ *     <li>the trajectory of each recorded mower: its tokens, then its keyframes
+ *     ({@link Trajectory#KEYFRAME_SIZE} bytes each)</li>
+ *     <li>the index, {@link #ENTRY_SIZE} bytes per mower in the order of the results: the position of its
+ *     trajectory (long, <code>-1</code> if it is not recorded), the size of its tokens (int), its number of keyframes
+ *     (int), its number of steps (long), its init position (2 ints) and direction (byte)</li>
+ *     <li>a trailer of {@link #TRAILER_SIZE} bytes: the position of the index and the number of mowers (longs)</li>
+ * </ol>
+ * So {@link TraceReader} finds the state of any mower after any step by reading its index entry, a keyframe and at
+ * most {@link Trajectory#KEYFRAME_INTERVAL} tokens.
+ */
+public class TraceWriter implements Closeable {
+
+    /**
+     * Extension of the trace files.
+     */
+    public static final @NotNull String EXTENSION = ".lpft"; //$NON-NLS-1$
+
+    /**
+     * First bytes of a trace file ("LPFT").
+     */
+    static final int MAGIC = 0x4C504654;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * Size of an entry of the index, in bytes.
+     */
+    static final int ENTRY_SIZE = 33;
+
+    /**
+     * Size of the trailer, in bytes.
+     */
+    static final int TRAILER_SIZE = 16;
+
+    /**
+     * Size of the buffer of the channel.
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Maximum number of trajectories waiting for the writer thread.
+     */
+    private static final int QUEUE_SIZE = 1024;
+
+    /**
+     * Marker of a mower whose trajectory is not recorded, and of the end of the trajectories.
+     */
+    private static final Trajectory NOT_RECORDED = new Trajectory(0, 0, LawnmowerOrientation.NORTH);
+
+    private static final Trajectory END = new Trajectory(0, 0, LawnmowerOrientation.NORTH);
+
+    /**
+     * The trace file.
+     */
+    private final @NotNull FileChannel channel;
+
+    /**
+     * Trajectories of the done mowers, in the order of the results.
+     */
+    private final @NotNull BlockingQueue<Trajectory> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+    /**
+     * The writer thread.
+     */
+    private final @NotNull Thread writer;
+
+    /**
+     * Error of the writer thread (the next trajectories are ignored).
+     */
+    private volatile IOException failure;
+
+    /**
+     * Buffer of the channel (used by the writer thread).
+     */
+    private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Position of the buffer in the file.
+     */
+    private long position;
+
+    /**
+     * The index entries (used by the writer thread).
+     */
+    private ByteBuffer index = ByteBuffer.allocate(ENTRY_SIZE * 1024);
+
+    private long mowers;
+
+    private TraceWriter(final @NotNull FileChannel channel) {
+        this.channel = channel;
+        buffer.putInt(MAGIC).putInt(VERSION);
+        this.writer = new Thread(this::writeTrajectories, "trace-writer"); //$NON-NLS-1$
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a trace file.
+     *
+     * @param file the trace file (replaced if it exists)
+     * @return a new writer
+     * @throws IOException if an I/O error occurs
+     */
+    public static @NotNull TraceWriter open(final @NotNull Path file) throws IOException {
+        return new TraceWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Starts recording the trajectory of the mowers of the lawn (from the given one).
+     *
+     * @param lawn the lawn, before the mowers move
+     * @param from index of the first mower to record
+     */
+    public void attach(final @NotNull Lawn lawn, final int from) {
+        for (int i = from; i < lawn.fleet().size(); i++) {
+            attach(lawn.fleet(), i);
+        }
+    }
+
+    /**
+     * Starts recording the trajectory of a mower.
+     *
+     * @param mower the mower, before it moves
+     */
+    public void attach(final @NotNull Lawnmower mower) {
+        attach(mower.getFleet(), mower.getIndex());
+    }
+
+    /**
+     * Starts recording the trajectory of a mower of a fleet.
+     *
+     * @param fleet the fleet of the mower
+     * @param mower index of the mower in the fleet, before it moves
+     */
+    public void attach(final @NotNull MowerFleet fleet, final int mower) {
+        fleet.recordTrajectory(mower,
+                new Trajectory(fleet.getX(mower), fleet.getY(mower), fleet.getOrientation(mower)));
+    }
+
+    /**
+     * Returns a sink writing the results to the given one, and the trajectory of each mower to the trace file.
+     * <p>
+     * The mowers are numbered in the order of their results.
+     *
+     * @param sink where the results are written
+     * @return a new sink
+     */
+    public @NotNull ResultSink wrap(final @NotNull ResultSink sink) {
+        return new ResultSink() {
+            @Override
+            public void accept(final int x, final int y, final @NotNull LawnmowerOrientation orientation) {
+                enqueue(NOT_RECORDED);
+                sink.accept(x, y, orientation);
+            }
+
+            @Override
+            public void accept(final @NotNull MowerFleet fleet, final int mower) {
+                final Trajectory trajectory = fleet.getTrajectory(mower);
+                if (trajectory == null) {
+                    enqueue(NOT_RECORDED);
+                } else {
+                    trajectory.finish();
+                    // the mower does not record anything anymore
+                    fleet.recordTrajectory(mower, null);
+                    enqueue(trajectory);
+                }
+                sink.accept(fleet.getX(mower), fleet.getY(mower), fleet.getOrientation(mower));
+            }
+
+            @Override
+            public void flush() {
+                sink.flush();
+            }
+        };
+    }
+
+    /**
+     * Waits for the writer thread, then writes the index and closes the file.
+     *
+     * @throws IOException if an I/O error occurs (here or in the writer thread)
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            enqueue(END);
+            writer.join();
+            if (failure != null) {
+                throw failure;
+            }
+            final long indexPosition = position + buffer.position();
+            index.flip();
+            write(index);
+            write(ByteBuffer.allocate(TRAILER_SIZE).putLong(indexPosition).putLong(mowers).flip());
+            flushBuffer();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void enqueue(final @NotNull Trajectory trajectory) {
+        try {
+            queue.put(trajectory);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+    }
+
+    /**
+     * Body of the writer thread.
+     */
+    private void writeTrajectories() {
+        try {
+            for (Trajectory trajectory = queue.take(); trajectory != END; trajectory = queue.take()) {
+                if (failure == null) {
+                    try {
+                        writeTrajectory(trajectory);
+                    } catch (final IOException e) {
+                        // reported by close(), the next trajectories are only consumed
+                        failure = e;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            failure = new InterruptedIOException();
+        }
+    }
+
+    private void writeTrajectory(final @NotNull Trajectory trajectory) throws IOException {
+        if (index.remaining() < ENTRY_SIZE) {
+            index = ByteBuffer.allocate(index.capacity() << 1).put(index.flip());
+        }
+        mowers++;
+        if (trajectory == NOT_RECORDED) {
+            index.putLong(-1).putInt(0).putInt(0).putLong(0).putInt(0).putInt(0).put((byte) 0);
+            return;
+        }
+        final ByteBuffer tokens = trajectory.tokens();
+        index.putLong(position + buffer.position())
+                .putInt(tokens.remaining())
+                .putInt(trajectory.keyframeCount())
+                .putLong(trajectory.steps())
+                .putInt(trajectory.startX())
+                .putInt(trajectory.startY())
+                .put((byte) trajectory.startDirection());
+        write(tokens);
+        final ByteBuffer keyframes = ByteBuffer.allocate(trajectory.keyframeCount() * Trajectory.KEYFRAME_SIZE);
+        trajectory.writeKeyframes(keyframes);
+        write(keyframes.flip());
+    }
+
+    /**
+     * Writes bytes through the buffer (directly when they are bigger than it).
+     */
+    private void write(final @NotNull ByteBuffer bytes) throws IOException {
+        if (bytes.remaining() > buffer.remaining()) {
+            flushBuffer();
+            if (bytes.remaining() > buffer.capacity()) {
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes);
+                }
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.publicisgroupe.lawnmower;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing App")
+public class AppTest {
+
+    @Test
+    void shouldFindTheLocaleWithAllTheSyntaxes() {
+        assertEquals("fr", App.findLocale(new String[]{"--locale=fr", "--file=test.lpf"}));
+        assertEquals("fr", App.findLocale(new String[]{"--file", "test.lpf", "--locale", "fr"}));
+        assertEquals("fr", App.findLocale(new String[]{"batch", "-L", "fr", "programs"}));
+        assertEquals("fr", App.findLocale(new String[]{"-L=fr"}));
+        assertEquals("fr", App.findLocale(new String[]{"-Lfr"}));
+    }
+
+    @Test
+    void shouldKeepTheLastLocale() {
+        assertEquals("en", App.findLocale(new String[]{"--locale=fr", "-L", "en"}));
+    }
+
+    @Test
+    void shouldNotFindAnyLocale() {
+        assertNull(App.findLocale(new String[]{"--file=test.lpf"}));
+        assertNull(App.findLocale(new String[]{"--locale"}));
+        assertNull(App.findLocale(new String[]{"--", "--locale=fr"}));
+    }
+}
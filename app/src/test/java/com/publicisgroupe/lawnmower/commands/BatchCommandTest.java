@@ -0,0 +1,64 @@
+package com.publicisgroupe.lawnmower.commands;
+
+import com.publicisgroupe.lawnmower.Constants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing BatchCommand")
+public class BatchCommandTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String content) throws IOException {
+        final Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static int execute(String... args) {
+        return new CommandLine(new ReadProgramCommand()).execute(args);
+    }
+
+    @Test
+    void shouldRunAllTheProgramsOfADirectory() throws IOException {
+        write("programs/a.lpf", "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+        write("programs/b.lpf", "5 5\n0 0 N\nAAZ\n");
+        write("programs/ignored.txt", "not a program");
+        final Path output = directory.resolve("out");
+
+        final int retcode = execute("batch", directory.resolve("programs").toString(), "-O", output.toString());
+
+        assertEquals(Constants.Retcode.BATCHCOMMAND_FAILED_PROGRAMS, retcode);
+        assertEquals(List.of("1 3 N", "5 1 E"), Files.readAllLines(output.resolve("a.lpf.out")));
+        assertTrue(Files.exists(output.resolve("b.lpf.err")));
+        assertFalse(Files.exists(output.resolve("a.lpf.err")));
+        assertFalse(Files.exists(output.resolve("ignored.txt.out")));
+        assertEquals(List.of("0 a.lpf", Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS + " b.lpf"),
+                Files.readAllLines(output.resolve("retcodes.txt")));
+    }
+
+    @Test
+    void shouldRunAllTheProgramsMatchingAGlobWithTheParentOptions() throws IOException {
+        write("programs/a.lpf", "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+        write("programs/sub/c.lpf", "5 5\n0 0 E\nAAAAAAA\n");
+        final Path output = directory.resolve("out");
+
+        final int retcode = execute("batch", "--engine=JUMP_AHEAD", "-P", "1",
+                directory.resolve("programs").toString() + "/**.lpf", "-O", output.toString());
+
+        assertEquals(Constants.Retcode.OK, retcode);
+        assertEquals(List.of("1 3 N", "5 1 E"), Files.readAllLines(output.resolve("a.lpf.out")));
+        assertEquals(List.of("5 0 E"), Files.readAllLines(output.resolve("sub/c.lpf.out")));
+    }
+}
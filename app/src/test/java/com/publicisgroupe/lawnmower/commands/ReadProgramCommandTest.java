@@ -11,8 +11,17 @@ package com.publicisgroupe.lawnmower.commands;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import picocli.CommandLine;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -30,4 +39,27 @@ public class ReadProgramCommandTest {
             // with no argument in command line, this test should fail
         }
     }
+
+    @Test
+    void shouldRejectTheOptionsIgnoredInStreamingMode(@TempDir Path directory) throws IOException {
+        final String program = Files.writeString(directory.resolve("test.lpf"), "5 5\n1 2 N\nGAGAGAGAA\n",
+                StandardCharsets.UTF_8).toString();
+        final String checkpoint = directory.resolve("test.ckpt").toString();
+
+        assertEquals(CommandLine.ExitCode.USAGE, execute("--streaming", "--checkpoint", checkpoint, "-F", program));
+        assertEquals(CommandLine.ExitCode.USAGE, execute("--pipelined", "--checkpoint", checkpoint, "-F", program));
+        assertFalse(Files.exists(directory.resolve("test.ckpt")));
+        assertEquals(CommandLine.ExitCode.USAGE, execute("--streaming", "--engine=JUMP_AHEAD", "-F", program));
+        assertEquals(CommandLine.ExitCode.USAGE, execute("--pipelined", "--engine=PARALLEL", "-F", program));
+        assertEquals(CommandLine.ExitCode.USAGE,
+                execute("batch", "--streaming", "--engine=PARALLEL", directory.toString(), "-O",
+                        directory.resolve("out").toString()));
+
+        assertEquals(CommandLine.ExitCode.OK, execute("--pipelined", "--engine=SEQUENTIAL", "-F", program));
+        assertEquals(CommandLine.ExitCode.OK, execute("--checkpoint", checkpoint, "-F", program));
+    }
+
+    private static int execute(String... args) {
+        return new CommandLine(new ReadProgramCommand()).execute(args);
+    }
 }
@@ -0,0 +1,104 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.publicisgroupe.lawnmower.models.RandomLawns.randomLawn;
+import static com.publicisgroupe.lawnmower.models.RandomLawns.repeatedLawn;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing JumpAheadEngine")
+public class JumpAheadEngineTest {
+
+    @Test
+    void shouldStopInFrontOfAnotherMower() {
+        Lawn lawn = new Lawn(1_000_000, 5);
+        Lawnmower mower = new Lawnmower(new LawnmowerInitRecord(0, 0, LawnmowerOrientation.EAST),
+                InstructionProgram.of("A".repeat(10_000)));
+        Lawnmower blocking = new Lawnmower(new LawnmowerInitRecord(500, 0, LawnmowerOrientation.NORTH), List.of());
+        lawn.addMower(mower);
+        lawn.addMower(blocking);
+
+        new JumpAheadEngine(lawn).execute(mower);
+
+        assertEquals(499, mower.getX());
+        assertEquals(0, mower.getY());
+        assertTrue(lawn.occupancy().contains(499, 0));
+        assertFalse(lawn.occupancy().contains(0, 0));
+    }
+
+    @Test
+    void shouldStopAtTheLawnEdge() {
+        Lawn lawn = new Lawn(1_000_000, 1_000_000);
+        Lawnmower mower = new Lawnmower(new LawnmowerInitRecord(10, 10, LawnmowerOrientation.NORTH),
+                InstructionProgram.of("A".repeat(2_000_000) + "GG" + "A".repeat(20)));
+        lawn.addMower(mower);
+
+        new JumpAheadEngine(lawn).execute(mower);
+
+        assertEquals(10, mower.getX());
+        assertEquals(999_980, mower.getY());
+        assertEquals(LawnmowerOrientation.SOUTH, mower.getOrientation());
+    }
+
+    @Test
+    void shouldMatchTheStepByStepExecution() {
+        Random random = new Random(7);
+        for (int run = 0; run < 50; run++) {
+            int size = 2 + random.nextInt(10);
+            long seed = random.nextLong();
+
+            Lawn reference = randomLawn(size, size, new Random(seed));
+            Lawn jumping = randomLawn(size, size, new Random(seed));
+            for (Lawnmower mower : reference.mowers()) {
+                mower.executeInstructions(reference.occupancy());
+            }
+            JumpAheadEngine engine = new JumpAheadEngine(jumping);
+            for (Lawnmower mower : jumping.mowers()) {
+                engine.execute(mower);
+            }
+
+            for (int i = 0; i < reference.mowers().size(); i++) {
+                assertEquals(reference.mowers().get(i).toString(), jumping.mowers().get(i).toString(),
+                        "mower " + i + " of run " + run);
+                assertEquals(reference.mowers().get(i).getBlockedMoves(), jumping.mowers().get(i).getBlockedMoves(),
+                        "blocked moves of mower " + i + " of run " + run);
+            }
+        }
+    }
+
+    @Test
+    void shouldExecuteRepeatedBlocksLikeTheExpandedProgram() {
+        Random random = new Random(17);
+        for (int run = 0; run < 100; run++) {
+            int size = 5 + random.nextInt(60);
+            int count = 1 + random.nextInt(6);
+            long seed = random.nextLong();
+
+            Lawn reference = repeatedLawn(size, count, new Random(seed), true);
+            Lawn jumping = repeatedLawn(size, count, new Random(seed), false);
+            for (Lawnmower mower : reference.mowers()) {
+                mower.executeInstructions(reference.occupancy());
+            }
+            JumpAheadEngine engine = new JumpAheadEngine(jumping);
+            for (Lawnmower mower : jumping.mowers()) {
+                engine.execute(mower);
+            }
+
+            for (int i = 0; i < reference.mowers().size(); i++) {
+                assertEquals(reference.mowers().get(i).toString(), jumping.mowers().get(i).toString(),
+                        "mower " + i + " of run " + run);
+                assertEquals(reference.mowers().get(i).getBlockedMoves(), jumping.mowers().get(i).getBlockedMoves(),
+                        "blocked moves of mower " + i + " of run " + run);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing LineIndex")
+public class LineIndexTest {
+
+    @Test
+    void shouldFindTheFirstMowerInFrontOfACell() {
+        LineIndex index = new LineIndex();
+        index.add(3, 10);
+        index.add(3, 2);
+        index.add(3, 6);
+
+        assertEquals(3, index.distanceToObstacle(3, 6, true, 100));
+        assertEquals(3, index.distanceToObstacle(3, 6, false, 100));
+        assertEquals(1, index.distanceToObstacle(3, 6, true, 1));
+        assertEquals(100, index.distanceToObstacle(3, 10, true, 100));
+        assertEquals(2, index.distanceToObstacle(3, 2, false, 2));
+        // a cell without mower
+        assertEquals(2, index.distanceToObstacle(3, 5, false, 100));
+        // a line without mower
+        assertEquals(7, index.distanceToObstacle(4, 6, true, 7));
+
+        index.move(3, 6, 9);
+        assertEquals(0, index.distanceToObstacle(3, 9, true, 100));
+        assertEquals(6, index.distanceToObstacle(3, 9, false, 100));
+        index.remove(3, 10);
+        index.remove(3, 9);
+        index.remove(3, 2);
+        assertEquals(5, index.distanceToObstacle(3, 0, true, 5));
+    }
+
+    @Test
+    void shouldMatchSortedSetsOnRandomMoves() {
+        Random random = new Random(7);
+        LineIndex index = new LineIndex();
+        Map<Integer, TreeSet<Integer>> expected = new HashMap<>();
+        for (int step = 0; step < 100_000; step++) {
+            int line = random.nextInt(200);
+            TreeSet<Integer> values = expected.computeIfAbsent(line, k -> new TreeSet<>());
+            int value = random.nextInt(50);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (values.add(value)) {
+                        index.add(line, value);
+                    }
+                }
+                case 1 -> {
+                    if (values.remove(value)) {
+                        index.remove(line, value);
+                    }
+                }
+                default -> {
+                    int to = random.nextInt(50);
+                    if (values.contains(value) && !values.contains(to)) {
+                        values.remove(value);
+                        values.add(to);
+                        index.move(line, value, to);
+                    }
+                }
+            }
+            Integer higher = values.higher(value);
+            Integer lower = values.lower(value);
+            assertEquals(higher == null ? 1000 : higher - value - 1, index.distanceToObstacle(line, value, true, 1000));
+            assertEquals(lower == null ? 1000 : value - lower - 1, index.distanceToObstacle(line, value, false, 1000));
+        }
+    }
+
+    @Test
+    void shouldUpdateACrowdedLineQuickly() {
+        int count = 200_000;
+        LineIndex index = new LineIndex();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < count; i++) {
+                index.add(0, 2 * i);
+            }
+            // the first mower of the line jumps over all the others, again and again
+            for (int i = 0; i < count; i++) {
+                index.move(0, 2 * i, 2 * (count + i));
+            }
+        });
+
+        assertEquals(2 * count - 1, index.distanceToObstacle(0, 0, true, Long.MAX_VALUE));
+        assertEquals(1, index.distanceToObstacle(0, 2 * count, true, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, index.distanceToObstacle(0, 2 * count, false, Long.MAX_VALUE));
+    }
+}
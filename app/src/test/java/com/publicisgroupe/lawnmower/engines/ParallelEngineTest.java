@@ -0,0 +1,110 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.publicisgroupe.lawnmower.models.RandomLawns.randomLawn;
+import static com.publicisgroupe.lawnmower.models.RandomLawns.repeatedLawn;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ParallelEngine")
+public class ParallelEngineTest {
+
+    @Test
+    void shouldMatchTheSequentialExecution() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(3);
+            for (int run = 0; run < 20; run++) {
+                int size = 20 + random.nextInt(200);
+                int count = 1 + random.nextInt(300);
+                long seed = random.nextLong();
+
+                Lawn reference = randomLawn(size, count, new Random(seed));
+                Lawn parallel = randomLawn(size, count, new Random(seed));
+                String expected = output(reference::moveAllMowers);
+                String actual = output(() -> new ParallelEngine(parallel, pool).moveAllMowers());
+
+                assertEquals(expected, actual, "run " + run);
+                for (Lawnmower mower : parallel.mowers()) {
+                    assertTrue(parallel.occupancy().contains(mower.getX(), mower.getY()));
+                }
+                assertEquals(reference.occupancy().size(), parallel.occupancy().size());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldMatchTheSequentialExecutionOfRepeatedBlocks() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(5);
+            for (int run = 0; run < 20; run++) {
+                int size = 20 + random.nextInt(200);
+                int count = 1 + random.nextInt(100);
+                long seed = random.nextLong();
+
+                Lawn reference = repeatedLawn(size, count, new Random(seed), true);
+                Lawn parallel = repeatedLawn(size, count, new Random(seed), false);
+                String expected = output(reference::moveAllMowers);
+                String actual = output(() -> new ParallelEngine(parallel, pool).moveAllMowers());
+
+                assertEquals(expected, actual, "run " + run);
+                assertEquals(reference.occupancy().size(), parallel.occupancy().size());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldLinkWideOverlappingEnvelopesQuickly() {
+        // two rows of mowers going towards each other: all the envelopes of a row cross the whole lawn
+        int count = 100_000;
+        Lawn reference = rowsLawn(count);
+        Lawn parallel = rowsLawn(count);
+        String expected = output(reference::moveAllMowers);
+        String actual = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> output(() -> new ParallelEngine(parallel).moveAllMowers()));
+
+        assertEquals(expected, actual);
+        assertEquals(2 * count, parallel.occupancy().size());
+    }
+
+    private static String output(Runnable execution) {
+        PrintStream previous = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            execution.run();
+        } finally {
+            System.setOut(previous);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Lawn rowsLawn(int count) {
+        Lawn lawn = new Lawn(2 * count, 2);
+        InstructionProgram program = InstructionProgram.of("(A)*1000000");
+        for (int i = 0; i < count; i++) {
+            lawn.addMower(new Lawnmower(new LawnmowerInitRecord(i, 0, LawnmowerOrientation.EAST), program));
+            lawn.addMower(new Lawnmower(new LawnmowerInitRecord(2 * count - i, 2, LawnmowerOrientation.WEST),
+                    program));
+        }
+        return lawn;
+    }
+}
@@ -0,0 +1,196 @@
+package com.publicisgroupe.lawnmower.engines;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.services.InstructionMix;
+import com.publicisgroupe.lawnmower.services.ProgramFileParser;
+import com.publicisgroupe.lawnmower.services.ProgramGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests: every engine must give the final positions and the blocked moves of a literal simulation,
+ * executing the expanded instructions one cell at a time.
+ */
+@DisplayName("Testing SimulationEngine")
+public class SimulationEngineTest {
+
+    private static final Pattern BLOCK = Pattern.compile("\\(([ADG]+)\\)\\*(\\d+)");
+
+    @Test
+    void shouldMatchTheReferenceOnRandomPrograms() throws LawnmowerFileFormatException {
+        Random random = new Random(11);
+        for (int run = 0; run < 40; run++) {
+            assertSameExecution(randomProgram(random), "run " + run);
+        }
+    }
+
+    @Test
+    void shouldMatchTheReferenceOnGeneratedPrograms() throws IOException, LawnmowerFileFormatException {
+        for (InstructionMix mix : InstructionMix.values()) {
+            for (long seed = 1; seed <= 3; seed++) {
+                ByteArrayOutputStream program = new ByteArrayOutputStream();
+                new ProgramGenerator(60, 40, 500, 200, mix, seed).write(program);
+                assertSameExecution(program.toByteArray(), mix + " seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void shouldCreateAnEngineOfEachType() {
+        Lawn lawn = new Lawn(5, 5);
+        assertInstanceOf(SequentialEngine.class, EngineType.SEQUENTIAL.create(lawn));
+        assertInstanceOf(JumpAheadEngine.class, EngineType.JUMP_AHEAD.create(lawn));
+        assertInstanceOf(ParallelEngine.class, EngineType.PARALLEL.create(lawn));
+    }
+
+    private static void assertSameExecution(byte[] program, String name) throws LawnmowerFileFormatException {
+        String expected = reference(new String(program, StandardCharsets.UTF_8));
+        for (EngineType engine : EngineType.values()) {
+            assertEquals(expected, execute(engine, program, true), name + " with " + engine);
+            assertEquals(expected, execute(engine, program, false), name + " with " + engine + " mower by mower");
+        }
+    }
+
+    /**
+     * Executes a program with an engine (all the mowers at once, or one at a time like after a checkpoint), and
+     * returns the final position and the blocked moves of each mower.
+     */
+    private static String execute(EngineType engine, byte[] program, boolean allMowers)
+            throws LawnmowerFileFormatException {
+        ProgramFileParser parser = new ProgramFileParser("random.lpf", ByteBuffer.wrap(program));
+        Lawn lawn = parser.readLawn();
+        while (parser.hasNextLine()) {
+            MowerFleet mowers = new MowerFleet(1);
+            mowers.add(parser.readInitRecord(), parser.readInstructions());
+            if (lawn.occupancy().isInside(mowers.getX(0), mowers.getY(0))) {
+                lawn.addMower(mowers, 0);
+            }
+        }
+        SimulationEngine simulation = engine.create(lawn);
+        MowerFleet fleet = lawn.fleet();
+        if (allMowers) {
+            simulation.moveAllMowers(ResultFormat.TEXT.open(OutputStream.nullOutputStream()));
+        } else {
+            for (int mower = 0; mower < fleet.size(); mower++) {
+                simulation.execute(mower);
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            result.append(fleet.toString(mower)).append(' ').append(fleet.getBlockedMoves(mower)).append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Executes a program literally: the repeated blocks are expanded, and the mowers move one cell per 'A', checking
+     * the lawn edges and the other mowers at each step. Returns the final position and the blocked moves of each
+     * mower.
+     */
+    private static String reference(String program) {
+        String[] lines = program.split("\n", -1);
+        String[] size = lines[0].trim().split(" ");
+        int maxX = Integer.parseInt(size[0]);
+        int maxY = Integer.parseInt(size[1]);
+        List<int[]> mowers = new ArrayList<>();
+        List<String> instructions = new ArrayList<>();
+        Set<Long> taken = new HashSet<>();
+        for (int line = 1; line + 1 < lines.length; line += 2) {
+            String[] start = lines[line].trim().split(" ");
+            int x = Integer.parseInt(start[0]);
+            int y = Integer.parseInt(start[1]);
+            if (x > maxX || y > maxY || !taken.add(cell(x, y))) {
+                // out of the lawn, or on the cell of another mower: not executed
+                continue;
+            }
+            mowers.add(new int[]{x, y, "NESW".indexOf(start[2].charAt(0)), 0});
+            instructions.add(expand(lines[line + 1].trim()));
+        }
+
+        int[] dx = {0, 1, 0, -1};
+        int[] dy = {1, 0, -1, 0};
+        StringBuilder result = new StringBuilder();
+        for (int m = 0; m < mowers.size(); m++) {
+            int[] mower = mowers.get(m);
+            for (char instruction : instructions.get(m).toCharArray()) {
+                switch (instruction) {
+                    case 'D' -> mower[2] = (mower[2] + 1) % 4;
+                    case 'G' -> mower[2] = (mower[2] + 3) % 4;
+                    default -> {
+                        int x = mower[0] + dx[mower[2]];
+                        int y = mower[1] + dy[mower[2]];
+                        if (x < 0 || y < 0 || x > maxX || y > maxY || taken.contains(cell(x, y))) {
+                            mower[3]++;
+                        } else {
+                            taken.remove(cell(mower[0], mower[1]));
+                            taken.add(cell(x, y));
+                            mower[0] = x;
+                            mower[1] = y;
+                        }
+                    }
+                }
+            }
+            result.append(mower[0]).append(' ').append(mower[1]).append(' ').append("NESW".charAt(mower[2]))
+                    .append(' ').append(mower[3]).append('\n');
+        }
+        return result.toString();
+    }
+
+    private static String expand(String instructions) {
+        Matcher block = BLOCK.matcher(instructions);
+        StringBuilder expanded = new StringBuilder();
+        while (block.find()) {
+            block.appendReplacement(expanded, block.group(1).repeat(Integer.parseInt(block.group(2))));
+        }
+        return block.appendTail(expanded).toString();
+    }
+
+    private static long cell(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a random program: mowers crowded on a small lawn (some out of it, or on a taken cell), with or without
+     * repeated blocks.
+     */
+    private static byte[] randomProgram(Random random) {
+        int maxX = 1 + random.nextInt(30);
+        int maxY = 1 + random.nextInt(30);
+        StringBuilder program = new StringBuilder().append(maxX).append(' ').append(maxY).append('\n');
+        for (int mower = random.nextInt(2 * (maxX + 1) * (maxY + 1) / 3 + 1); mower > 0; mower--) {
+            program.append(random.nextInt(maxX + 3)).append(' ').append(random.nextInt(maxY + 3)).append(' ')
+                    .append("NESW".charAt(random.nextInt(4))).append('\n');
+            for (int part = random.nextInt(4); part > 0; part--) {
+                StringBuilder body = new StringBuilder();
+                for (int j = 1 + random.nextInt(8); j > 0; j--) {
+                    body.append("AAADG".charAt(random.nextInt(5)));
+                }
+                if (random.nextBoolean()) {
+                    program.append('(').append(body).append(")*").append(1 + random.nextInt(100));
+                } else {
+                    program.append(body);
+                }
+            }
+            program.append('\n');
+        }
+        return program.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
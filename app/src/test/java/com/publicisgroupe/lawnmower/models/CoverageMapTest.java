@@ -0,0 +1,158 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing CoverageMap")
+public class CoverageMapTest {
+
+    @Test
+    void shouldRecordEachCellOnce() {
+        CoverageMap coverage = new CoverageMap();
+
+        assertTrue(coverage.add(3, 4));
+        assertFalse(coverage.add(3, 4));
+        assertTrue(coverage.add(4, 3));
+        assertEquals(2, coverage.cardinality());
+        assertEquals(1, coverage.tileCount());
+        assertTrue(coverage.contains(3, 4));
+        assertFalse(coverage.contains(3, 5));
+        assertFalse(coverage.contains(-1, 4));
+    }
+
+    @Test
+    void shouldMatchASetOfCells() {
+        // many cells in a few tiles: the tiles switch from arrays to bitmaps
+        CoverageMap coverage = new CoverageMap();
+        Set<Long> cells = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            int x = random.nextInt(600);
+            int y = random.nextInt(300);
+            assertEquals(cells.add(((long) x << 32) | y), coverage.add(x, y));
+        }
+
+        assertEquals(cells.size(), coverage.cardinality());
+        for (int x = 0; x < 600; x++) {
+            for (int y = 0; y < 300; y++) {
+                assertEquals(cells.contains(((long) x << 32) | y), coverage.contains(x, y));
+            }
+        }
+    }
+
+    @Test
+    void fullTileShouldNotUseMemory() {
+        CoverageMap coverage = new CoverageMap();
+        for (int y = 0; y < CoverageMap.TILE_SIZE; y++) {
+            for (int x = 0; x < CoverageMap.TILE_SIZE; x++) {
+                coverage.add(x, y);
+            }
+        }
+        long tableSize = coverage.sizeInBytes();
+        coverage.add(CoverageMap.TILE_SIZE, 0);
+
+        assertEquals((long) CoverageMap.TILE_SIZE * CoverageMap.TILE_SIZE + 1, coverage.cardinality());
+        assertFalse(coverage.add(17, 42));
+        assertTrue(coverage.contains(255, 255));
+        assertTrue(tableSize < 1024, Long.toString(tableSize));
+
+        CoverageMap copy = new CoverageMap();
+        copy.addAll(coverage);
+        assertEquals(coverage.cardinality(), copy.cardinality());
+        assertTrue(copy.contains(CoverageMap.TILE_SIZE, 0));
+    }
+
+    @Test
+    void shouldMergeAnotherMap() {
+        CoverageMap coverage = new CoverageMap();
+        coverage.add(1, 20);
+        coverage.add(300, 2);
+        CoverageMap other = new CoverageMap();
+        for (int x = 0; x < 5000; x++) {
+            other.add(x % 400, x / 400);
+        }
+        other.add(255, 255);
+
+        coverage.addAll(other);
+
+        assertEquals(5002, coverage.cardinality());
+        assertTrue(coverage.contains(255, 255));
+        assertTrue(coverage.contains(399, 11));
+        assertTrue(coverage.contains(1, 20));
+    }
+
+    @Test
+    void shouldListTheVisitedTiles() {
+        CoverageMap coverage = new CoverageMap();
+        coverage.add(0, 0);
+        coverage.add(1, 0);
+        coverage.add(999_999, 512);
+        Set<String> tiles = new HashSet<>();
+
+        coverage.forEachTile((tileX, tileY, cells) -> tiles.add(tileX + "," + tileY + ":" + cells));
+
+        assertEquals(Set.of("0,0:2", "3906,2:1"), tiles);
+    }
+
+    @Test
+    void hugeLawnShouldStaySmall() {
+        // a mower crossing a 10^6 x 10^6 lawn, and cells scattered all over it
+        CoverageMap coverage = new CoverageMap();
+        for (int x = 0; x < 1_000_000; x++) {
+            coverage.add(x, 500_000);
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            coverage.add(random.nextInt(1_000_000), random.nextInt(1_000_000));
+        }
+
+        assertTrue(coverage.cardinality() > 1_090_000);
+        assertTrue(coverage.sizeInBytes() < 16_000_000, Long.toString(coverage.sizeInBytes()));
+    }
+
+    @Test
+    void shouldBeWrittenAndReadAgain() throws IOException {
+        CoverageMap coverage = new CoverageMap();
+        // a tile with a few cells, a bitmap tile and a full tile
+        coverage.add(1000, 1000);
+        coverage.add(1001, 1003);
+        for (int i = 0; i < 10_000; i++) {
+            coverage.add(i % 256, i / 256);
+        }
+        for (int x = 256; x < 512; x++) {
+            for (int y = 0; y < 256; y++) {
+                coverage.add(x, y);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        coverage.write(new DataOutputStream(bytes));
+
+        CoverageMap read = CoverageMap.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(coverage.cardinality(), read.cardinality());
+        assertEquals(3, read.tileCount());
+        assertTrue(read.contains(1001, 1003));
+        assertTrue(read.contains(9999 % 256, 9999 / 256));
+        assertFalse(read.contains(10_000 % 256, 10_000 / 256));
+        assertTrue(read.contains(511, 255));
+        CoverageMap merged = new CoverageMap();
+        merged.addAll(read);
+        assertEquals(coverage.sizeInBytes(), merged.sizeInBytes());
+
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        assertThrows(IOException.class,
+                () -> CoverageMap.read(new DataInputStream(new ByteArrayInputStream(truncated))));
+    }
+}
@@ -0,0 +1,89 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing InstructionProgram")
+public class InstructionProgramTest {
+
+    @Test
+    void shouldPackAndUnpackInstructions() {
+        InstructionProgram program = InstructionProgram.of("AADAADADDAGGA");
+
+        assertEquals(13, program.length());
+        assertEquals(InstructionProgram.FORWARD, program.get(0));
+        assertEquals(InstructionProgram.RIGHT, program.get(2));
+        assertEquals(InstructionProgram.LEFT, program.get(10));
+        assertEquals("AADAADADDAGGA", program.toString());
+    }
+
+    @Test
+    void shouldAcceptEmptyPrograms() {
+        assertSame(InstructionProgram.EMPTY, InstructionProgram.of(""));
+        assertSame(InstructionProgram.EMPTY, InstructionProgram.of(List.of()));
+    }
+
+    @Test
+    void shouldRejectInvalidInstructions() {
+        assertThrows(IllegalArgumentException.class, () -> InstructionProgram.of("AADX"));
+        assertThrows(IllegalArgumentException.class, () -> InstructionProgram.of("aad"));
+        assertThrows(IllegalArgumentException.class, () -> InstructionProgram.of("AD\u00e9"));
+        assertThrows(IllegalArgumentException.class, () -> InstructionProgram.of(List.of('A', ' ')));
+    }
+
+    @Test
+    void shouldStoreTheBodyOfARepeatedBlockOnce() {
+        InstructionProgram program = InstructionProgram.of("GA(AAAD)*5000D(AG)*2");
+
+        assertEquals(9, program.length());
+        assertEquals(2 + 4 * 5000 + 1 + 2 * 2, program.steps());
+        assertEquals(2, program.blockCount());
+        assertEquals(new RepeatBlock(2, 6, 5000, 1, 0, 3, 0, 0, 0, 3), program.block(0));
+        assertEquals(4, program.forwardRun(1));
+        assertEquals(1, program.forwardRun(1, 2));
+        assertEquals("GA(AAAD)*5000D(AG)*2", program.toString());
+    }
+
+    @Test
+    void shouldRejectInvalidRepeatedBlocks() {
+        for (String invalid : List.of("(A", "(A)", "(A)*", "(A)*0", "()*3", "A)*2", "((A)*2)*2", "(A)*D",
+                "(A)*2147483648", "(A)2")) {
+            assertThrows(IllegalArgumentException.class, () -> InstructionProgram.of(invalid), invalid);
+        }
+        assertEquals(Integer.MAX_VALUE, InstructionProgram.of("(A)*2147483647").block(0).count());
+    }
+
+    @Test
+    void shouldReadPackedOpcodesInPlace() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.position(3);
+        buffer.put(InstructionProgram.of("AADAADADDAGGA").packed());
+        buffer.position(3);
+
+        InstructionProgram program = InstructionProgram.wrap(buffer, 13);
+
+        assertEquals("AADAADADDAGGA", program.toString());
+        assertEquals(3, buffer.position());
+        assertEquals(2, program.forwardRun(0));
+        assertThrows(IllegalArgumentException.class, () -> InstructionProgram.wrap(ByteBuffer.allocate(3), 13));
+    }
+
+    @Test
+    void builderShouldGrow() {
+        InstructionProgram.Builder builder = new InstructionProgram.Builder(0);
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i % 3);
+        }
+        InstructionProgram program = builder.build();
+
+        assertEquals(1000, program.length());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3, program.get(i));
+        }
+    }
+}
@@ -119,4 +119,35 @@ public class LawnmowerTest {
         assertEquals(mower.getY(), 0);
         assertEquals(mower.getOrientation(), LawnmowerOrientation.SOUTH);
     }
+
+    @Test
+    void shouldNotLeaveTheLawn() {
+        Lawn lawn = new Lawn(5, 5);
+        Lawnmower mower = getDefaultMower(List.of('G', 'A', 'G', 'A', 'G', 'A'));
+        assertTrue(lawn.addMower(mower));
+
+        lawn.moveAllMowers();
+
+        // both the west and south moves are blocked by the lawn edges
+        assertEquals(mower.getX(), 1);
+        assertEquals(mower.getY(), 0);
+        assertEquals(mower.getOrientation(), LawnmowerOrientation.EAST);
+    }
+
+    @Test
+    void shouldNotMoveIfAnotherMowerBlockingOnTheLawn() {
+        Lawn lawn = new Lawn(5, 5);
+        Lawnmower blockingMower = new Lawnmower(new LawnmowerInitRecord(1, 0, LawnmowerOrientation.NORTH), List.of());
+        Lawnmower mower = getDefaultMower(List.of('D', 'A', 'G', 'A'));
+        assertTrue(lawn.addMower(blockingMower));
+        assertTrue(lawn.addMower(mower));
+
+        lawn.moveAllMowers();
+
+        assertEquals(mower.getX(), 0);
+        assertEquals(mower.getY(), 1);
+        // the occupancy index follows the mower
+        assertTrue(lawn.occupancy().isFree(0, 0));
+        assertFalse(lawn.occupancy().isFree(0, 1));
+    }
 }
@@ -0,0 +1,136 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("Testing MowerFleet")
+public class MowerFleetTest {
+
+    @Test
+    void shouldExecuteTheMowersByIndex() {
+        Lawn lawn = new Lawn(5, 5);
+        MowerFleet mowers = new MowerFleet(1);
+        mowers.add(new LawnmowerInitRecord(1, 2, LawnmowerOrientation.NORTH), InstructionProgram.of("GAGAGAGAA"));
+        mowers.add(new LawnmowerInitRecord(3, 3, LawnmowerOrientation.EAST), InstructionProgram.of("AADAADADDA"));
+        mowers.add(new LawnmowerInitRecord(3, 3, LawnmowerOrientation.WEST), InstructionProgram.of("A"));
+        assertTrue(lawn.addMower(mowers, 0));
+        assertTrue(lawn.addMower(mowers, 1));
+        // the position is taken
+        assertFalse(lawn.addMower(mowers, 2));
+
+        MowerFleet fleet = lawn.fleet();
+        assertEquals(2, fleet.size());
+        for (int mower = 0; mower < fleet.size(); mower++) {
+            fleet.execute(mower, lawn.occupancy());
+        }
+
+        assertEquals("1 3 N", fleet.toString(0));
+        assertEquals("5 1 E", fleet.toString(1));
+        assertEquals(LawnmowerOrientation.EAST, fleet.getOrientation(1));
+        // the mowers of the program are not moved
+        assertEquals("1 2 N", mowers.toString(0));
+    }
+
+    @Test
+    void lawnmowerShouldFollowTheMowerAddedToTheLawn() {
+        Lawn lawn = new Lawn(5, 5);
+        Lawnmower mower = new Lawnmower(new LawnmowerInitRecord(0, 0, LawnmowerOrientation.NORTH), List.of('A'));
+        mower.addBlockedMoves(2);
+        assertNotSame(lawn.fleet(), mower.getFleet());
+
+        assertTrue(lawn.addMower(mower));
+        assertSame(lawn.fleet(), mower.getFleet());
+        assertEquals(2, lawn.fleet().getBlockedMoves(mower.getIndex()));
+
+        lawn.fleet().execute(mower.getIndex(), lawn.occupancy());
+        assertEquals("0 1 N", mower.toString());
+
+        // the lawn gives other views of the same mower
+        Lawnmower view = lawn.mowers().get(0);
+        view.setOrientation(LawnmowerOrientation.WEST);
+        assertEquals(LawnmowerOrientation.WEST, mower.getOrientation());
+        assertThrows(IndexOutOfBoundsException.class, () -> lawn.mowers().get(1));
+    }
+
+    @Test
+    void shouldTurnAndMoveLikeTheOrientations() {
+        MowerFleet fleet = new MowerFleet();
+        int mower = fleet.add(new LawnmowerInitRecord(0, 0, LawnmowerOrientation.SOUTH), InstructionProgram.EMPTY);
+
+        fleet.turnRight(mower);
+        assertEquals(LawnmowerOrientation.WEST, fleet.getOrientation(mower));
+        fleet.moveForward(mower);
+        assertEquals(-1, fleet.getX(mower));
+        fleet.turnLeft(mower);
+        fleet.turnLeft(mower);
+        assertEquals(LawnmowerOrientation.EAST, fleet.getOrientation(mower));
+        fleet.moveBackward(mower);
+        assertEquals(-2, fleet.getX(mower));
+        assertEquals(0, fleet.getY(mower));
+    }
+
+    @Test
+    void shouldBeEmptyOnceCleared() {
+        MowerFleet fleet = new MowerFleet(1);
+        CoverageMap coverage = new CoverageMap();
+        for (int i = 0; i < 100; i++) {
+            int mower = fleet.add(new LawnmowerInitRecord(i, i, LawnmowerOrientation.NORTH), InstructionProgram.EMPTY);
+            fleet.trackCoverage(mower, coverage);
+            fleet.mow(mower, i, i);
+        }
+        assertEquals(100, fleet.size());
+        assertEquals(1, fleet.getMowedCells(99));
+
+        fleet.clear();
+        assertEquals(0, fleet.size());
+        int mower = fleet.add(new LawnmowerInitRecord(5, 5, LawnmowerOrientation.NORTH), InstructionProgram.EMPTY);
+        assertEquals(0, mower);
+        assertEquals(0, fleet.getMowedCells(mower));
+        assertFalse(fleet.tracksCoverage(mower));
+    }
+
+    @Test
+    void shouldNotAllocateWhileExecuting() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        long thread = Thread.currentThread().getId();
+
+        // turns and moves in a square, blocked on the edges of the lawn
+        StringBuilder instructions = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            instructions.append(i % 7 == 0 ? "GAAAAAAAAAAAAAD" : "AADAAG");
+        }
+        InstructionProgram program = InstructionProgram.of(instructions);
+        Lawn lawn = new Lawn(20, 20);
+        MowerFleet mowers = new MowerFleet(1);
+        mowers.add(new LawnmowerInitRecord(3, 3, LawnmowerOrientation.NORTH), program);
+        lawn.addMower(mowers, 0);
+        MowerFleet fleet = lawn.fleet();
+
+        // warm up, then measure
+        for (int run = 0; run < 5; run++) {
+            fleet.execute(0, lawn.occupancy());
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        fleet.execute(0, lawn.occupancy());
+        Optional<LawnmowerOrientation> orientation = Optional.empty();
+        for (int i = 0; i < 10_000; i++) {
+            orientation = LawnmowerOrientation.valueOfInstruction("NESWX".charAt(i % 5));
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(program.length() > 300_000);
+        assertTrue(orientation.isEmpty());
+        assertTrue(fleet.getBlockedMoves(0) > 0);
+        // a few bytes at most, whatever the number of instructions
+        assertTrue(allocated < 1024, allocated + " bytes allocated");
+    }
+}
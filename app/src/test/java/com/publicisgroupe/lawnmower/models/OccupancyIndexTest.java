@@ -0,0 +1,102 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing OccupancyIndex")
+public class OccupancyIndexTest {
+
+    @Test
+    void smallLawnShouldUseTheGrid() {
+        OccupancyIndex index = new OccupancyIndex(5, 5);
+
+        assertTrue(index.isDense());
+        assertTrue(index.add(1, 2));
+        assertTrue(index.contains(1, 2));
+        assertFalse(index.contains(2, 1));
+    }
+
+    @Test
+    void hugeLawnShouldStartSparse() {
+        OccupancyIndex index = new OccupancyIndex(1_000_000, 1_000_000);
+
+        assertFalse(index.isDense());
+        assertTrue(index.add(999_999, 3));
+        assertTrue(index.contains(999_999, 3));
+        assertFalse(index.contains(3, 999_999));
+    }
+
+    @Test
+    void shouldSwitchToTheGridWhenCheaper() {
+        // 1000 x 1000 cells, the grid becomes cheaper after ~7800 mowers
+        OccupancyIndex index = new OccupancyIndex(999, 999);
+        assertFalse(index.isDense());
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.add(i % 1000, i / 1000));
+        }
+
+        assertTrue(index.isDense());
+        assertEquals(10_000, index.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.contains(i % 1000, i / 1000));
+        }
+        assertFalse(index.contains(0, 10));
+    }
+
+    @Test
+    void shouldRefuseCellsOutsideTheLawn() {
+        OccupancyIndex index = new OccupancyIndex(5, 5);
+
+        assertFalse(index.add(-1, 0));
+        assertFalse(index.add(6, 0));
+        assertFalse(index.add(0, 6));
+        assertFalse(index.isFree(0, -1));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void shouldRefuseOccupiedCells() {
+        OccupancyIndex index = new OccupancyIndex(5, 5);
+
+        assertTrue(index.add(1, 1));
+        assertFalse(index.add(1, 1));
+        assertFalse(index.move(1, 2, 1, 1));
+        assertTrue(index.move(1, 1, 1, 2));
+        assertFalse(index.contains(1, 1));
+        assertTrue(index.contains(1, 2));
+    }
+
+    @Test
+    void sparseIndexShouldBehaveLikeASet() {
+        OccupancyIndex index = new OccupancyIndex(1_000_000, 1_000_000);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // random adds and removes on a small window, to stress the collision chains of the hash table
+        for (int i = 0; i < 50_000; i++) {
+            int x = random.nextInt(64);
+            int y = random.nextInt(64);
+            long key = ((long) x << 32) | y;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), index.add(x, y));
+            } else {
+                assertEquals(expected.remove(key), index.remove(x, y));
+            }
+        }
+
+        assertFalse(index.isDense());
+        assertEquals(expected.size(), index.size());
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                assertEquals(expected.contains(((long) x << 32) | y), index.contains(x, y));
+            }
+        }
+    }
+}
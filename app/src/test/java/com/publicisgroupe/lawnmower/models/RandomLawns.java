@@ -0,0 +1,63 @@
+package com.publicisgroupe.lawnmower.models;
+
+import java.util.Random;
+
+/**
+ * Builds random lawns for the tests comparing an execution strategy with the step by step one.
+ */
+public final class RandomLawns {
+
+    private static final LawnmowerOrientation[] ORIENTATIONS = LawnmowerOrientation.values();
+
+    private RandomLawns() {
+    }
+
+    /**
+     * Builds a lawn whose mowers have short random programs (mostly forward moves, to get collisions).
+     */
+    public static Lawn randomLawn(int size, int count, Random random) {
+        Lawn lawn = new Lawn(size, size);
+        for (int i = 0; i < count; i++) {
+            StringBuilder instructions = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                instructions.append(randomInstruction(random));
+            }
+            lawn.addMower(randomMower(size, random, instructions));
+        }
+        return lawn;
+    }
+
+    /**
+     * Builds a lawn whose mowers repeat blocks of instructions (written with the repeat syntax, or expanded).
+     */
+    public static Lawn repeatedLawn(int size, int count, Random random, boolean expand) {
+        Lawn lawn = new Lawn(size, size);
+        for (int i = 0; i < count; i++) {
+            StringBuilder instructions = new StringBuilder();
+            for (int part = random.nextInt(4); part >= 0; part--) {
+                for (int j = random.nextInt(4); j > 0; j--) {
+                    instructions.append(randomInstruction(random));
+                }
+                StringBuilder body = new StringBuilder();
+                for (int j = 1 + random.nextInt(8); j > 0; j--) {
+                    body.append(randomInstruction(random));
+                }
+                int repeat = 1 + random.nextInt(100);
+                instructions.append(expand ? body.toString().repeat(repeat) : "(" + body + ")*" + repeat);
+            }
+            lawn.addMower(randomMower(size, random, instructions));
+        }
+        return lawn;
+    }
+
+    private static char randomInstruction(Random random) {
+        return "AAAADG".charAt(random.nextInt(6));
+    }
+
+    private static Lawnmower randomMower(int size, Random random, CharSequence instructions) {
+        return new Lawnmower(
+                new LawnmowerInitRecord(random.nextInt(size + 1), random.nextInt(size + 1),
+                        ORIENTATIONS[random.nextInt(4)]),
+                InstructionProgram.of(instructions));
+    }
+}
@@ -0,0 +1,92 @@
+package com.publicisgroupe.lawnmower.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing RepeatBlock")
+public class RepeatBlockTest {
+
+    @Test
+    void shouldComputeTheGeometryOfOneIteration() {
+        RepeatBlock block = InstructionProgram.of("G(AADAGG)*3").block(0);
+
+        assertEquals(1, block.start());
+        assertEquals(7, block.end());
+        assertEquals(3, block.count());
+        assertEquals(3, block.turns());
+        assertEquals(4, block.period());
+        // facing north: 2 cells north, then 1 cell east
+        assertEquals(1, block.dx(0));
+        assertEquals(2, block.dy(0));
+        // facing west: 2 cells west, then 1 cell north
+        assertEquals(-2, block.dx(3));
+        assertEquals(1, block.dy(3));
+        assertEquals(-2, block.minDx(3));
+        assertEquals(0, block.maxDx(3));
+        assertEquals(0, block.minDy(3));
+        assertEquals(1, block.maxDy(3));
+    }
+
+    @Test
+    void shouldSweepAFreeLawnInClosedForm() {
+        // 1000 back and forth sweeps of a 1000 x 2000 lawn
+        Lawn lawn = new Lawn(999, 1999);
+        Lawnmower mower = new Lawnmower(new LawnmowerInitRecord(0, 0, LawnmowerOrientation.NORTH),
+                InstructionProgram.of("(D" + "A".repeat(999) + "GAG" + "A".repeat(999) + "DA)*999"));
+        lawn.addMower(mower);
+
+        mower.executeInstructions(lawn.occupancy());
+
+        assertEquals("0 1998 N", mower.toString());
+        assertEquals(0, mower.getBlockedMoves());
+        assertTrue(lawn.occupancy().contains(0, 1998));
+        assertEquals(1, lawn.occupancy().size());
+    }
+
+    @Test
+    void shouldSkipTheIterationsOfACycle() {
+        Lawn lawn = new Lawn(2, 2);
+        InstructionProgram program = InstructionProgram.of("(AAAD)*2000000000");
+        Lawnmower mower = new Lawnmower(new LawnmowerInitRecord(0, 0, LawnmowerOrientation.NORTH), program);
+        lawn.addMower(mower);
+
+        mower.executeInstructions(lawn.occupancy());
+
+        // each iteration follows a side of the lawn and is blocked once at its corner
+        assertEquals(8_000_000_000L, program.steps());
+        assertEquals("0 0 N", mower.toString());
+        assertEquals(2_000_000_000L, mower.getBlockedMoves());
+    }
+
+    @Test
+    void shouldMatchTheExpandedProgram() {
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            int size = 5 + random.nextInt(60);
+            int count = 1 + random.nextInt(8);
+            long seed = random.nextLong();
+
+            Lawn expanded = RandomLawns.repeatedLawn(size, count, new Random(seed), true);
+            Lawn repeated = RandomLawns.repeatedLawn(size, count, new Random(seed), false);
+            assertEquals(expanded.mowers().size(), repeated.mowers().size());
+            for (int i = 0; i < expanded.mowers().size(); i++) {
+                expanded.mowers().get(i).executeInstructions(expanded.occupancy());
+                repeated.mowers().get(i).executeInstructions(repeated.occupancy());
+            }
+
+            for (int i = 0; i < expanded.mowers().size(); i++) {
+                Lawnmower reference = expanded.mowers().get(i);
+                Lawnmower mower = repeated.mowers().get(i);
+                assertEquals(reference.toString(), mower.toString(), "mower " + i + " of run " + run);
+                assertEquals(reference.getBlockedMoves(), mower.getBlockedMoves(),
+                        "blocked moves of mower " + i + " of run " + run);
+                assertTrue(repeated.occupancy().contains(mower.getX(), mower.getY()));
+            }
+        }
+    }
+}
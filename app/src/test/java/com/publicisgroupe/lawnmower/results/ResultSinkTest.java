@@ -0,0 +1,77 @@
+package com.publicisgroupe.lawnmower.results;
+
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ResultSink")
+public class ResultSinkTest {
+
+    private static byte[] write(ResultFormat format, int mowers) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ResultSink sink = format.open(out);
+        for (int i = 0; i < mowers; i++) {
+            sink.accept(i, -i, LawnmowerOrientation.values()[i % 4]);
+        }
+        sink.flush();
+        return out.toByteArray();
+    }
+
+    @Test
+    void textShouldWriteOneLinePerMower() {
+        assertEquals(String.format("0 0 N%n1 -1 S%n2 -2 E%n"),
+                new String(write(ResultFormat.TEXT, 3), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void ndjsonShouldWriteOneObjectPerLine() {
+        assertEquals("{\"mower\":0,\"x\":0,\"y\":0,\"orientation\":\"N\"}\n"
+                        + "{\"mower\":1,\"x\":1,\"y\":-1,\"orientation\":\"S\"}\n",
+                new String(write(ResultFormat.NDJSON, 2), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void csvShouldStartWithAHeader() {
+        assertEquals("mower,x,y,orientation\n0,0,0,N\n1,1,-1,S\n",
+                new String(write(ResultFormat.CSV, 2), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void binaryShouldWriteFixedWidthRecords() {
+        final ByteBuffer bytes = ByteBuffer.wrap(write(ResultFormat.BINARY, 2));
+
+        assertEquals(18, bytes.remaining());
+        assertEquals(0, bytes.getInt());
+        assertEquals(0, bytes.getInt());
+        assertEquals('N', bytes.get());
+        assertEquals(1, bytes.getInt());
+        assertEquals(-1, bytes.getInt());
+        assertEquals('S', bytes.get());
+    }
+
+    @Test
+    void shouldDrainTheBufferWhenItIsFull() {
+        final String[] lines = new String(write(ResultFormat.TEXT, 100_000), StandardCharsets.US_ASCII)
+                .split(System.lineSeparator());
+
+        assertEquals(100_000, lines.length);
+        assertEquals("99999 -99999 W", lines[99_999]);
+    }
+
+    @Test
+    void shouldWriteTheExtremeNumbers() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ResultSink sink = ResultFormat.TEXT.open(out);
+        sink.accept(Integer.MIN_VALUE, Integer.MAX_VALUE, LawnmowerOrientation.NORTH);
+        sink.flush();
+
+        assertEquals(String.format("%d %d N%n", Integer.MIN_VALUE, Integer.MAX_VALUE),
+                out.toString(StandardCharsets.US_ASCII));
+    }
+}
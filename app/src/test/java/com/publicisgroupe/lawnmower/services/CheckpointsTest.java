@@ -0,0 +1,140 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing Checkpoints")
+public class CheckpointsTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Thrown by the sink to interrupt an execution.
+     */
+    private static final class Interrupted extends RuntimeException {
+    }
+
+    /**
+     * Runs a program, and returns its results followed by its diagnostics and coverage report.
+     */
+    private static String run(Path program, EngineType engine, Checkpoints checkpoints, int interruptAfter)
+            throws IOException, LawnmowerFileFormatException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ResultSink text = ResultFormat.TEXT.open(out);
+        ResultSink sink = new ResultSink() {
+            private int results;
+
+            @Override
+            public void accept(int x, int y, @NotNull LawnmowerOrientation orientation) {
+                if (results++ == interruptAfter) {
+                    throw new Interrupted();
+                }
+                text.accept(x, y, orientation);
+            }
+
+            @Override
+            public void flush() {
+                text.flush();
+            }
+        };
+        PrintStream previous = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            new ProgramRunner.Builder().engine(engine).diagnostics(Diagnostics.Verbosity.DETAILED, 5).coverage(true)
+                    .build().run(program, sink, checkpoints);
+        } finally {
+            System.setErr(previous);
+        }
+        return out.toString(StandardCharsets.UTF_8) + err.toString(StandardCharsets.UTF_8);
+    }
+
+    private Path randomProgram(String name, long seed) throws IOException {
+        Path program = directory.resolve(name);
+        try (OutputStream out = Files.newOutputStream(program)) {
+            new ProgramGenerator(40, 40, 300, 60, InstructionMix.BALANCED, seed).write(out);
+        }
+        return program;
+    }
+
+    @Test
+    void resumedRunShouldGiveTheSameOutput() throws IOException, LawnmowerFileFormatException {
+        Path program = randomProgram("test.lpf", 42);
+        Path checkpoint = directory.resolve("test.ckpt");
+        for (EngineType engine : EngineType.values()) {
+            String expected = run(program, engine, null, -1);
+
+            assertThrows(Interrupted.class,
+                    () -> run(program, engine, new Checkpoints(checkpoint, Duration.ZERO, false), 170));
+            assertTrue(Files.exists(checkpoint));
+            String resumed = run(program, engine, new Checkpoints(checkpoint, Duration.ZERO, true), -1);
+
+            assertEquals(expected, resumed, engine.name());
+            assertFalse(Files.exists(checkpoint));
+        }
+    }
+
+    @Test
+    void shouldStartFromScratchWithoutCheckpoint() throws IOException, LawnmowerFileFormatException {
+        Path program = randomProgram("test.lpf", 7);
+
+        String resumed = run(program, EngineType.SEQUENTIAL,
+                new Checkpoints(directory.resolve("none.ckpt"), Duration.ofHours(1), true), -1);
+
+        assertEquals(run(program, EngineType.SEQUENTIAL, null, -1), resumed);
+    }
+
+    @Test
+    void shouldNotResumeAnotherProgram() throws IOException, LawnmowerFileFormatException {
+        Path checkpoint = directory.resolve("test.ckpt");
+        Path program = randomProgram("test.lpf", 1);
+        Path other = randomProgram("other.lpf", 2);
+        assertThrows(Interrupted.class, () -> run(program, EngineType.SEQUENTIAL,
+                new Checkpoints(checkpoint, Duration.ZERO, false), 10));
+
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> run(other, EngineType.SEQUENTIAL, new Checkpoints(checkpoint, Duration.ZERO, true), -1));
+        assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 1));
+        ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> run(program, EngineType.SEQUENTIAL, new Checkpoints(checkpoint, Duration.ZERO, true), -1));
+        assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+    }
+
+    @Test
+    void shouldNotBeUsedInStreamingMode() throws IOException {
+        Path program = randomProgram("test.lpf", 3);
+        Path checkpoint = directory.resolve("test.ckpt");
+        for (ProgramRunner.Builder builder : new ProgramRunner.Builder[]{
+                new ProgramRunner.Builder().streaming(true), new ProgramRunner.Builder().pipelined(true)}) {
+            ProgramRunner runner = builder.diagnostics(Diagnostics.Verbosity.QUIET, 0).build();
+            Checkpoints checkpoints = new Checkpoints(checkpoint, Duration.ZERO, false);
+            assertThrows(IllegalArgumentException.class,
+                    () -> runner.run(program, ResultFormat.TEXT.open(new ByteArrayOutputStream()), checkpoints));
+        }
+        assertFalse(Files.exists(checkpoint));
+    }
+}
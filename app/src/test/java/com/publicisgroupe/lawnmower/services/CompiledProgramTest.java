@@ -0,0 +1,134 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing CompiledProgram")
+public class CompiledProgramTest {
+
+    @TempDir
+    Path directory;
+
+    private Path compile(String content) throws IOException, LawnmowerFileFormatException {
+        Path program = Files.writeString(directory.resolve("test.lpf"), content, StandardCharsets.UTF_8);
+        Path compiled = directory.resolve("test.lpfb");
+        try (ProgramFileParser parser = ProgramFileParser.open(program)) {
+            new ProgramCompiler(parser).compile(compiled);
+        }
+        return compiled;
+    }
+
+    private static String run(Path file, EngineType engine) throws IOException, LawnmowerFileFormatException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ProgramRunner.Builder().engine(engine).diagnostics(Diagnostics.Verbosity.QUIET, 0).build()
+                .run(file, ResultFormat.TEXT.open(out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldGiveTheSameResultsAsTheTextProgram() throws IOException, LawnmowerFileFormatException {
+        Path compiled = compile("5 5\n1 2 N\nGAGAGAGAA\n9 9 N\nA\n3 3 E\nAADAADADDA\n1 2 S\n\n");
+
+        assertTrue(CompiledProgram.isCompiled(compiled));
+        assertFalse(CompiledProgram.isCompiled(directory.resolve("test.lpf")));
+        for (EngineType engine : EngineType.values()) {
+            assertEquals(run(directory.resolve("test.lpf"), engine), run(compiled, engine), engine.name());
+        }
+        assertEquals(String.format("1 3 N%n5 1 E%n"), run(compiled, EngineType.SEQUENTIAL));
+    }
+
+    @Test
+    void shouldKeepTheRepeatedBlocks() throws IOException, LawnmowerFileFormatException {
+        Path compiled = compile("50 50\n1 2 N\nG(AAD)*1000A(DA)*7\n30 30 E\n(A)*40G(AGAD)*9\n");
+        Path expanded = Files.writeString(directory.resolve("expanded.lpf"),
+                "50 50\n1 2 N\nG" + "AAD".repeat(1000) + "A" + "DA".repeat(7) + "\n30 30 E\n"
+                        + "A".repeat(40) + "G" + "AGAD".repeat(9) + "\n", StandardCharsets.UTF_8);
+
+        try (CompiledProgram program = CompiledProgram.open(compiled)) {
+            assertEquals("G(AAD)*1000A(DA)*7", program.readInstructions(0).toString());
+            assertEquals(2, program.readInstructions(0).blockCount());
+        }
+        for (EngineType engine : EngineType.values()) {
+            String expected = run(expanded, engine);
+            assertEquals(expected, run(directory.resolve("test.lpf"), engine), engine.name());
+            assertEquals(expected, run(compiled, engine), engine.name());
+        }
+    }
+
+    @Test
+    void shouldReadAnyMowerByIndex() throws IOException, LawnmowerFileFormatException {
+        StringBuilder content = new StringBuilder("1000 1000\n");
+        for (int i = 0; i < 1000; i++) {
+            content.append(i).append(' ').append(i).append(" E\n").append("A".repeat(i)).append("G\n");
+        }
+
+        try (CompiledProgram program = CompiledProgram.open(compile(content.toString()))) {
+            assertEquals(1000, program.mowerCount());
+            assertEquals(1000, program.readLawn().maxX());
+
+            Lawnmower mower = program.readMower(742);
+            assertEquals(742, mower.getX());
+            assertEquals(742, mower.getY());
+            assertEquals(LawnmowerOrientation.EAST, mower.getOrientation());
+            assertEquals("A".repeat(742) + "G", mower.getInstructions().toString());
+            assertEquals("G", program.readInstructions(0).toString());
+            assertThrows(IndexOutOfBoundsException.class, () -> program.readMower(1000));
+        }
+    }
+
+    @Test
+    void shouldNotCompileAnInvalidProgram() {
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> compile("5 5\n1 2 N\nGAZ\n"));
+
+        assertEquals(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, ex.getErrcode());
+        assertFalse(Files.exists(directory.resolve("test.lpfb")));
+    }
+
+    @Test
+    void shouldRejectATruncatedFile() throws IOException, LawnmowerFileFormatException {
+        Path compiled = compile("5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+        byte[] bytes = Files.readAllBytes(compiled);
+        Files.write(compiled, Arrays.copyOf(bytes, bytes.length - 3));
+
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> run(compiled, EngineType.SEQUENTIAL));
+        assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+    }
+
+    @Test
+    void shouldRejectACorruptBlockCount() throws IOException, LawnmowerFileFormatException {
+        Path compiled = compile("5 5\n1 2 N\nG(AAD)*3\n");
+        byte[] bytes = Files.readAllBytes(compiled);
+        int entry = CompiledProgram.HEADER_SIZE + CompiledProgram.POSITION_SIZE;
+        // counts whose sizes overflow an int, and a count too big for the file
+        for (int blocks : new int[]{1 << 30, Integer.MAX_VALUE / CompiledProgram.BLOCK_SIZE + 1, 2}) {
+            ByteBuffer.wrap(bytes).putInt(entry + Long.BYTES, Integer.MAX_VALUE)
+                    .putInt(entry + Long.BYTES + Integer.BYTES, blocks);
+            Files.write(compiled, bytes);
+
+            try (CompiledProgram program = CompiledProgram.open(compiled)) {
+                LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                        () -> program.readInstructions(0));
+                assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+            }
+        }
+    }
+}
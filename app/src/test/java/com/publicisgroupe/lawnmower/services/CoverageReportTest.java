@@ -0,0 +1,88 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing CoverageReport")
+public class CoverageReportTest {
+
+    // 5 cells mowed by the first mower, 6 by the second one (their init positions included), no blocked move
+    private static final String PROGRAM = "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n";
+
+    private Locale previousLocale;
+
+    @BeforeEach
+    void useEnglish() {
+        previousLocale = I18n.getLocale();
+        I18n.setLocale(Locale.ENGLISH);
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        I18n.setLocale(previousLocale);
+    }
+
+    private static String run(EngineType engine, boolean streaming, String program)
+            throws LawnmowerFileFormatException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream previousErr = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            new ProgramRunner.Builder().engine(engine).streaming(streaming)
+                    .diagnostics(Diagnostics.Verbosity.SUMMARY, 10).coverage(true).build().run(
+                    new ProgramFileParser("test.lpf", ByteBuffer.wrap(program.getBytes(StandardCharsets.UTF_8))),
+                    ResultFormat.TEXT.open(OutputStream.nullOutputStream()));
+        } finally {
+            System.setErr(previousErr);
+        }
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldReportTheMowedCells() throws LawnmowerFileFormatException {
+        String[] lines = run(EngineType.SEQUENTIAL, false, PROGRAM).split(System.lineSeparator());
+
+        assertEquals(4, lines.length);
+        assertEquals("Region [0,0]-[5,5]: 11 cell(s) mowed (30.56%).", lines[0]);
+        assertEquals("The lawn mower number 1 mowed 6 new cell(s).", lines[1]);
+        assertEquals("The lawn mower number 0 mowed 5 new cell(s).", lines[2]);
+        assertTrue(lines[3].startsWith("test.lpf: 11 of 36 cell(s) mowed (30.56%), 0 untouched region(s)"),
+                lines[3]);
+    }
+
+    @Test
+    void allEnginesShouldReportTheSameCoverage() throws LawnmowerFileFormatException, IOException {
+        // crossing paths, blocked moves, and independent groups of mowers
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ProgramGenerator(99, 99, 200, 60, InstructionMix.BALANCED, 11).write(out);
+        String program = out.toString(StandardCharsets.UTF_8);
+        String expected = run(EngineType.SEQUENTIAL, false, program);
+
+        assertEquals(expected, run(EngineType.JUMP_AHEAD, false, program));
+        assertEquals(expected, run(EngineType.PARALLEL, false, program));
+        assertEquals(expected, run(EngineType.SEQUENTIAL, true, program));
+    }
+
+    @Test
+    void hugeLawnShouldCountTheUntouchedRegions() throws LawnmowerFileFormatException {
+        String report = run(EngineType.JUMP_AHEAD, false, "999999 999999\n0 0 E\nAAAAAAAAAA\n");
+
+        assertTrue(report.contains("test.lpf: 11 of 1000000000000 cell(s) mowed (0%), 15264648 untouched"
+                + " region(s) of 256x256 cells"), report);
+    }
+}
@@ -0,0 +1,114 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing Diagnostics")
+public class DiagnosticsTest {
+
+    // 2 blocked moves for the first mower, 1 mower out of the lawn, 1 mower on a taken position
+    private static final String PROGRAM = "2 2\n0 0 N\nAAAA\n9 9 N\nA\n0 0 E\nA\n";
+
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private Locale previousLocale;
+
+    @BeforeEach
+    void useEnglish() {
+        previousLocale = I18n.getLocale();
+        I18n.setLocale(Locale.ENGLISH);
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        I18n.setLocale(previousLocale);
+    }
+
+    private String report(Diagnostics diagnostics) {
+        diagnostics.print("test.lpf", new PrintStream(err, true, StandardCharsets.UTF_8));
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String run(Diagnostics.Verbosity verbosity, boolean streaming)
+            throws LawnmowerFileFormatException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream previousErr = System.err;
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            new ProgramRunner.Builder().streaming(streaming).diagnostics(verbosity, 10).build().run(
+                    new ProgramFileParser("test.lpf", ByteBuffer.wrap(PROGRAM.getBytes(StandardCharsets.UTF_8))),
+                    ResultFormat.TEXT.open(OutputStream.nullOutputStream()));
+        } finally {
+            System.setErr(previousErr);
+        }
+        return err.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldCountTheEventsPerKind() {
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.Verbosity.SUMMARY, 10);
+        diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, 0, 3);
+        diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, 1, 0);
+        diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, 2, 4);
+        diagnostics.record(Diagnostics.Kind.POSITION_TAKEN, 5, 1);
+
+        assertEquals(7, diagnostics.count(Diagnostics.Kind.BLOCKED_MOVE));
+        assertEquals(0, diagnostics.count(Diagnostics.Kind.OUT_OF_BOUNDS));
+        assertEquals(1, diagnostics.count(Diagnostics.Kind.POSITION_TAKEN));
+        assertFalse(diagnostics.isEmpty());
+    }
+
+    @Test
+    void shouldPrintNothingWithoutEvents() {
+        assertEquals("", report(new Diagnostics(Diagnostics.Verbosity.DETAILED, 10)));
+    }
+
+    @Test
+    void shouldPrintNothingWhenQuiet() {
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.Verbosity.QUIET, 10);
+        diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, 0, 3);
+
+        assertEquals("", report(diagnostics));
+    }
+
+    @Test
+    void shouldPrintASingleSummaryLine() throws LawnmowerFileFormatException {
+        String report = run(Diagnostics.Verbosity.SUMMARY, false);
+
+        assertEquals(String.format("test.lpf: 2 blocked move(s) for 1 mower(s), 1 mower(s) ignored out of the lawn,"
+                + " 1 mower(s) ignored on a taken position.%n"), report);
+    }
+
+    @Test
+    void streamingShouldReportTheSameEvents() throws LawnmowerFileFormatException {
+        assertEquals(run(Diagnostics.Verbosity.DETAILED, false), run(Diagnostics.Verbosity.DETAILED, true));
+    }
+
+    @Test
+    void shouldLimitTheDetailedReport() {
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.Verbosity.DETAILED, 2);
+        for (int i = 0; i < 1000; i++) {
+            diagnostics.record(Diagnostics.Kind.BLOCKED_MOVE, i, 1);
+        }
+
+        String[] lines = report(diagnostics).split(System.lineSeparator());
+
+        assertEquals(4, lines.length);
+        assertEquals("The lawn mower number 0 could not move forward 1 time(s) (collision or lawn edge).", lines[0]);
+        assertEquals("... and 998 more mower(s).", lines[2]);
+        assertTrue(lines[3].startsWith("test.lpf: 1,000 blocked move(s)"), lines[3]);
+    }
+}
@@ -0,0 +1,67 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.events.FlightEvents;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing FlightRecording")
+public class FlightRecordingTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    void recordingShouldContainTheEventsOfTheProgram() throws IOException, LawnmowerFileFormatException {
+        Path program = Files.writeString(directory.resolve("test.lpf"),
+                "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n9 9 N\nA\n0 0 S\n(AD)*4\n", StandardCharsets.UTF_8);
+
+        for (EngineType engine : EngineType.values()) {
+            Path file = directory.resolve(engine + ".jfr");
+            try (FlightRecording recording = FlightRecording.start(file)) {
+                new ProgramRunner.Builder().engine(engine).diagnostics(Diagnostics.Verbosity.QUIET, 0).build()
+                        .run(program, ResultFormat.TEXT.open(new ByteArrayOutputStream()));
+            }
+            assertFalse(FlightEvents.isEnabled());
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            List<RecordedEvent> parsing = events(events, "com.publicisgroupe.lawnmower.ProgramParsing");
+            assertEquals(1, parsing.size(), engine.name());
+            assertEquals("test.lpf", parsing.get(0).getString("program"));
+            assertFalse(parsing.get(0).getBoolean("compiled"));
+            assertEquals(Files.size(program), parsing.get(0).getLong("size"));
+            assertEquals(3, parsing.get(0).getInt("mowers"));
+
+            List<RecordedEvent> mowers = events(events, "com.publicisgroupe.lawnmower.MowerExecution");
+            assertEquals(3, mowers.size(), engine.name());
+            assertEquals(9 + 10 + 8, mowers.stream().mapToLong(event -> event.getLong("instructions")).sum());
+            assertEquals(1, mowers.stream().mapToInt(event -> event.getInt("repeatedBlocks")).sum());
+
+            List<RecordedEvent> lawns = events(events, "com.publicisgroupe.lawnmower.LawnExecution");
+            assertEquals(1, lawns.size(), engine.name());
+            assertEquals(engine.name(), lawns.get(0).getString("engine"));
+            assertEquals(6, lawns.get(0).getInt("width"));
+            assertEquals(3, lawns.get(0).getInt("mowers"));
+            assertEquals(mowers.stream().mapToLong(event -> event.getLong("blockedMoves")).sum(),
+                    lawns.get(0).getLong("blockedMoves"));
+        }
+    }
+}
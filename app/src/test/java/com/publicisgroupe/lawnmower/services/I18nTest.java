@@ -0,0 +1,80 @@
+package com.publicisgroupe.lawnmower.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing I18n")
+public class I18nTest {
+
+    private Locale previousLocale;
+
+    @BeforeEach
+    void saveLocale() {
+        previousLocale = I18n.getLocale();
+    }
+
+    @AfterEach
+    void restoreLocale() {
+        I18n.setLocale(previousLocale);
+    }
+
+    @Test
+    void shouldFormatTheArguments() {
+        I18n.setLocale(Locale.ENGLISH);
+
+        assertEquals("Listening on localhost:7878", I18n.getMessage("serve.listening", "localhost:7878"));
+        assertEquals("The lawn has 1,000 cells, it cannot hold 2,000 mowers",
+                I18n.getMessage("generate.too.many.mowers", 2000, 1000L));
+    }
+
+    @Test
+    void shouldFollowTheLocaleChanges() {
+        I18n.setLocale(Locale.ENGLISH);
+        assertEquals("Listening on here", I18n.getMessage("serve.listening", "here"));
+
+        I18n.setLocale(Locale.FRENCH);
+        assertNotEquals("Listening on here", I18n.getMessage("serve.listening", "here"));
+        assertTrue(I18n.getMessage("diagnostics.more", 3).contains("3 autre(s)"));
+
+        I18n.setLocale(Locale.ENGLISH);
+        assertEquals("Listening on here", I18n.getMessage("serve.listening", "here"));
+    }
+
+    @Test
+    void shouldFormatFromManyThreads() throws Exception {
+        I18n.setLocale(Locale.ENGLISH);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        String expected = "... and " + i % 100 + " more mower(s).";
+                        if (!expected.equals(I18n.getMessage("diagnostics.more", i % 100))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            for (Future<Boolean> result : threads.invokeAll(tasks, 1, TimeUnit.MINUTES)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.MowerFleet;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ParallelProgramParser")
+public class ParallelProgramParserTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static final long[] CHUNK_SIZES = {1, 5, 17, 64, 1000};
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static ProgramFileParser parserOf(String content) {
+        return new ProgramFileParser("test.lpf", ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<String> lines(int mowers) {
+        String[] instructions = {"GAGAGAGAA", "", "(AD)*4", "AADAADADDA", "A(GA)*12D", "D"};
+        List<String> lines = new ArrayList<>(List.of("50 50"));
+        for (int i = 0; i < mowers; i++) {
+            lines.add((i % 51) + " " + (i / 51) + " " + "NESW".charAt(i % 4));
+            lines.add(instructions[i % instructions.length]);
+        }
+        return lines;
+    }
+
+    private static String program(List<String> lines) {
+        String[] endings = {"\n", "\r\n", "\r"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            String ending = endings[i % 3];
+            // a "\r" followed by an empty "\n" line would be a single line ending
+            if (ending.equals("\r") && i + 1 < lines.size() && lines.get(i + 1).isEmpty()) {
+                ending = "\r\n";
+            }
+            sb.append(lines.get(i)).append(ending);
+        }
+        return sb.toString();
+    }
+
+    private static int initLine(int mower) {
+        return 1 + 2 * mower;
+    }
+
+    private static List<String> readSequentially(ProgramFileParser parser) throws LawnmowerFileFormatException {
+        parser.readLawn();
+        List<String> mowers = new ArrayList<>();
+        while (parser.hasNextLine()) {
+            Lawnmower mower = new Lawnmower(parser.readInitRecord(), parser.readInstructions());
+            mowers.add(mower + " " + mower.getInstructions());
+        }
+        return mowers;
+    }
+
+    private static List<String> readConcurrently(ProgramFileParser parser, long chunkSize)
+            throws LawnmowerFileFormatException {
+        parser.readLawn();
+        List<String> mowers = new ArrayList<>();
+        MowerFleet fleet = new ParallelProgramParser(parser, POOL, chunkSize).readMowers();
+        for (int i = 0; i < fleet.size(); i++) {
+            mowers.add(fleet.toString(i) + " " + fleet.getInstructions(i));
+        }
+        assertFalse(parser.hasNextLine());
+        return mowers;
+    }
+
+    @Test
+    void shouldReadTheMowersInTheFileOrder() throws LawnmowerFileFormatException {
+        String content = program(lines(300));
+        List<String> expected = readSequentially(parserOf(content));
+
+        assertEquals(300, expected.size());
+        for (long chunkSize : CHUNK_SIZES) {
+            assertEquals(expected, readConcurrently(parserOf(content), chunkSize), "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void shouldReadAMappedFile(@TempDir Path dir) throws IOException, LawnmowerFileFormatException {
+        Path file = Files.writeString(dir.resolve("test.lpf"), program(lines(100)));
+
+        try (ProgramFileParser sequential = ProgramFileParser.open(file);
+             ProgramFileParser concurrent = ProgramFileParser.open(file)) {
+            assertEquals(readSequentially(sequential), readConcurrently(concurrent, 16));
+        }
+    }
+
+    @Test
+    void shouldThrowTheFirstErrorOfTheFile() {
+        // an invalid instruction
+        List<String> invalid = lines(200);
+        invalid.set(initLine(40) + 1, "A(GA)*12X");
+        assertSameError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, invalid);
+
+        // a missing init line: the following instructions are read as an init line
+        List<String> shifted = lines(200);
+        shifted.remove(initLine(120));
+        assertSameError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, shifted);
+
+        // both: the first one wins
+        invalid.remove(initLine(120));
+        assertSameError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, invalid);
+
+        // an init line without any space, not seen as a mower by the other chunks
+        List<String> unaligned = lines(200);
+        unaligned.set(initLine(150), "151N");
+        assertSameError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, unaligned);
+
+        // an extra init line, read as the instructions of the previous mower
+        List<String> extra = lines(200);
+        extra.add(initLine(100) + 1, "7 7 N");
+        assertSameError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, extra);
+
+        // the last mower has no instructions line
+        List<String> truncated = lines(200);
+        truncated.add("5 5 N");
+        assertSameError(Constants.Retcode.READCOMMAND_MOWER_MISSING_LINE, truncated);
+    }
+
+    private static void assertSameError(int errcode, List<String> lines) {
+        String content = program(lines);
+        LawnmowerFileFormatException expected = assertThrows(LawnmowerFileFormatException.class,
+                () -> readSequentially(parserOf(content)));
+        assertEquals(errcode, expected.getErrcode());
+
+        for (long chunkSize : CHUNK_SIZES) {
+            LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                    () -> readConcurrently(parserOf(content), chunkSize));
+            assertEquals(expected.getErrcode(), ex.getErrcode(), "chunk size " + chunkSize);
+            assertEquals(expected.getMessage(), ex.getMessage(), "chunk size " + chunkSize);
+        }
+    }
+}
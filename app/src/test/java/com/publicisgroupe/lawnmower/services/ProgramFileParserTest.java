@@ -0,0 +1,93 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ProgramFileParser")
+public class ProgramFileParserTest {
+
+    private static ProgramFileParser parserOf(String content) {
+        return new ProgramFileParser("test.lpf", ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldReadAMappedFile(@TempDir Path dir) throws IOException, LawnmowerFileFormatException {
+        Path file = Files.writeString(dir.resolve("test.lpf"), "5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+
+        try (ProgramFileParser parser = ProgramFileParser.open(file)) {
+            Lawn lawn = parser.readLawn();
+            assertEquals(5, lawn.maxX());
+            assertEquals(5, lawn.maxY());
+
+            assertEquals(new LawnmowerInitRecord(1, 2, LawnmowerOrientation.NORTH), parser.readInitRecord());
+            assertEquals("GAGAGAGAA", parser.readInstructions().toString());
+            assertEquals(new LawnmowerInitRecord(3, 3, LawnmowerOrientation.EAST), parser.readInitRecord());
+            assertEquals("AADAADADDA", parser.readInstructions().toString());
+            assertFalse(parser.hasNextLine());
+        }
+    }
+
+    @Test
+    void shouldAcceptAllLineEndings() throws LawnmowerFileFormatException {
+        ProgramFileParser parser = parserOf("5 5\r\n-1 +2 W \r\rGA");
+
+        parser.readLawn();
+        assertEquals(new LawnmowerInitRecord(-1, 2, LawnmowerOrientation.WEST), parser.readInitRecord());
+        assertEquals("", parser.readInstructions().toString());
+        assertEquals("GA", parser.readInstructions().toString());
+        assertFalse(parser.hasNextLine());
+    }
+
+    @Test
+    void shouldRejectWrongNumberOfTokens() {
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 5 5\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5  5\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 5\n1 2\nA\n");
+    }
+
+    @Test
+    void shouldRejectInvalidValues() {
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 x\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 -\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 2147483648\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_FORMAT_ERROR, "5 5\n1 2 X\nA\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, "5 5\n1 2 N\nAAB\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, "5 5\n1 2 N\n(AD)*0\n");
+        assertFormatError(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, "5 5\n1 2 N\nA(AD\n");
+    }
+
+    @Test
+    void shouldReportTheInvalidInstructionLine() {
+        LawnmowerFileFormatException ex = assertFormatError(
+                Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, "5 5\n1 2 N\nAAxD\n");
+
+        assertTrue(ex.getMessage().contains("AAxD"));
+    }
+
+    private static LawnmowerFileFormatException assertFormatError(int errcode, String content) {
+        ProgramFileParser parser = parserOf(content);
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class, () -> {
+            parser.readLawn();
+            while (parser.hasNextLine()) {
+                parser.readInitRecord();
+                parser.readInstructions();
+            }
+        });
+        assertEquals(errcode, ex.getErrcode());
+        return ex;
+    }
+}
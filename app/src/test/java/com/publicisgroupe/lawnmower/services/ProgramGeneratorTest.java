@@ -0,0 +1,101 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.OccupancyIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ProgramGenerator")
+public class ProgramGeneratorTest {
+
+    private static byte[] generate(int maxX, int maxY, long mowers, int instructions, InstructionMix mix, long seed)
+            throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ProgramGenerator(maxX, maxY, mowers, instructions, mix, seed).write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Parses the program, checking that the mowers start on distinct cells, and returns the number of forward moves.
+     */
+    private static long checkProgram(byte[] program, int maxX, int maxY, long mowers, int instructions)
+            throws LawnmowerFileFormatException {
+        final ProgramFileParser parser = new ProgramFileParser("generated.lpf", ByteBuffer.wrap(program));
+        final Lawn lawn = parser.readLawn();
+        assertEquals(maxX, lawn.maxX());
+        assertEquals(maxY, lawn.maxY());
+
+        final OccupancyIndex starts = new OccupancyIndex(maxX, maxY);
+        long count = 0;
+        long forward = 0;
+        while (parser.hasNextLine()) {
+            final LawnmowerInitRecord init = parser.readInitRecord();
+            assertTrue(starts.add(init.startX(), init.startY()), "distinct start cells inside the lawn");
+            final InstructionProgram mowerInstructions = parser.readInstructions();
+            assertEquals(instructions, mowerInstructions.length());
+            for (int i = 0; i < mowerInstructions.length(); i++) {
+                forward += mowerInstructions.get(i) == InstructionProgram.FORWARD ? 1 : 0;
+            }
+            count++;
+        }
+        assertEquals(mowers, count);
+        return forward;
+    }
+
+    @Test
+    void shouldBeReproducible() throws IOException {
+        assertArrayEquals(generate(50, 40, 30, 20, InstructionMix.BALANCED, 7),
+                generate(50, 40, 30, 20, InstructionMix.BALANCED, 7));
+        assertFalse(Arrays.equals(generate(50, 40, 30, 20, InstructionMix.BALANCED, 7),
+                generate(50, 40, 30, 20, InstructionMix.BALANCED, 8)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(InstructionMix.class)
+    void shouldGenerateValidPrograms(InstructionMix mix) throws IOException, LawnmowerFileFormatException {
+        final long forward = checkProgram(generate(99, 49, 200, 1000, mix, 1), 99, 49, 200, 1000);
+
+        assertEquals(mix.forwardRatio, forward / 200_000.0, 0.02);
+    }
+
+    @Test
+    void shouldFillTheWholeLawn() throws IOException, LawnmowerFileFormatException {
+        checkProgram(generate(9, 4, 50, 3, InstructionMix.BALANCED, 1), 9, 4, 50, 3);
+        checkProgram(generate(9, 4, 50, 3, InstructionMix.COLLISION_HEAVY, 1), 9, 4, 50, 3);
+    }
+
+    @Test
+    void shouldPackTheMowersForCollisions() throws IOException, LawnmowerFileFormatException {
+        final byte[] program = generate(999, 999, 100, 0, InstructionMix.COLLISION_HEAVY, 1);
+        checkProgram(program, 999, 999, 100, 0);
+
+        final ProgramFileParser parser = new ProgramFileParser("generated.lpf", ByteBuffer.wrap(program));
+        parser.readLawn();
+        while (parser.hasNextLine()) {
+            final LawnmowerInitRecord init = parser.readInitRecord();
+            parser.readInstructions();
+            // 100 mowers at 80% density: a 12 x 12 square at the center
+            assertTrue(Math.abs(init.startX() - 500) <= 6 && Math.abs(init.startY() - 500) <= 6, init.toString());
+        }
+    }
+
+    @Test
+    void shouldRefuseTooManyMowers() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProgramGenerator(9, 4, 51, 3, InstructionMix.BALANCED, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ProgramGenerator(9, 4, -1, 3, InstructionMix.BALANCED, 1));
+    }
+}
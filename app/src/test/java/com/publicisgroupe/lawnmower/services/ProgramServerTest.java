@@ -0,0 +1,94 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing ProgramServer")
+public class ProgramServerTest {
+
+    private ServerSocketChannel server;
+
+    private ExecutorService workers;
+
+    private Future<?> serving;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        workers = Executors.newFixedThreadPool(2);
+        final ProgramServer programServer = new ProgramServer(new ProgramRunner.Builder().build(),
+                ResultFormat.TEXT, workers);
+        serving = Executors.newSingleThreadExecutor().submit(() -> {
+            programServer.serve(server);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.close();
+        serving.get(10, TimeUnit.SECONDS);
+        workers.shutdown();
+    }
+
+    private String send(String program) throws IOException {
+        try (SocketChannel client = SocketChannel.open(server.getLocalAddress())) {
+            client.write(ByteBuffer.wrap(program.getBytes(StandardCharsets.UTF_8)));
+            client.shutdownOutput();
+            return new String(Channels.newInputStream(client).readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void shouldSendBackTheFinalPositions() throws IOException {
+        assertEquals(String.format("1 3 N%n5 1 E%nEND 0%n"),
+                send("5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n"));
+    }
+
+    @Test
+    void shouldSendBackTheErrorAndItsRetcode() throws IOException {
+        final String response = send("5 5\n1 2 N\nGAZ\n");
+
+        assertTrue(response.startsWith(ProgramServer.ERROR_PREFIX), response);
+        assertTrue(response.endsWith(String.format("END %d%n",
+                Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS)), response);
+    }
+
+    @Test
+    void shouldHandleConcurrentClients() throws Exception {
+        final ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                responses.add(clients.submit(() -> send("5 5\n0 0 E\nAAA\n")));
+            }
+            for (final Future<String> response : responses) {
+                assertEquals(String.format("3 0 E%nEND 0%n"), response.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing StreamingProgramRunner")
+public class StreamingProgramRunnerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private final ResultSink sink = ResultFormat.TEXT.open(out);
+
+    private void run(String content) throws LawnmowerFileFormatException {
+        new StreamingProgramRunner.Builder(
+                new ProgramFileParser("test.lpf", ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8))))
+                .build()
+                .run(sink);
+        sink.flush();
+    }
+
+    @Test
+    void shouldPrintTheFinalPositions() throws LawnmowerFileFormatException {
+        run("5 5\n1 2 N\nGAGAGAGAA\n3 3 E\nAADAADADDA\n");
+
+        assertEquals(String.format("1 3 N%n5 1 E%n"), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void laterMowersShouldBlockEarlierOnes() throws LawnmowerFileFormatException {
+        // the second mower is on the lawn before the first one moves, and the out of bounds one is ignored
+        run("5 5\n0 0 N\nAA\n9 9 N\nA\n0 1 E\nA\n");
+
+        assertEquals(String.format("0 0 N%n1 1 E%n"), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldNotExecuteAnythingIfTheFileIsInvalid() {
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> run("5 5\n1 2 N\nGAGA\n3 3 E\nAAZ\n"));
+
+        assertEquals(Constants.Retcode.READCOMMAND_MOWER_INVALID_INSTRUCTIONS, ex.getErrcode());
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String runPipelined(byte[] program, boolean pipelined, Diagnostics diagnostics)
+            throws LawnmowerFileFormatException {
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        ResultSink sink = ResultFormat.TEXT.open(results);
+        new StreamingProgramRunner.Builder(new ProgramFileParser("test.lpf", ByteBuffer.wrap(program)))
+                .diagnostics(diagnostics)
+                .pipelined(pipelined)
+                .build()
+                .run(sink);
+        sink.flush();
+        return results.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldGiveTheSameResultsWhenPipelined() throws IOException, LawnmowerFileFormatException {
+        // more mowers and instructions than a batch of the pipeline
+        ByteArrayOutputStream program = new ByteArrayOutputStream();
+        new ProgramGenerator(60, 60, 3000, 500, InstructionMix.COLLISION_HEAVY, 7).write(program);
+        Diagnostics expectedDiagnostics = new Diagnostics(Diagnostics.Verbosity.SUMMARY, 0);
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.Verbosity.SUMMARY, 0);
+
+        String expected = runPipelined(program.toByteArray(), false, expectedDiagnostics);
+        String actual = runPipelined(program.toByteArray(), true, diagnostics);
+
+        assertEquals(3000, expected.lines().count());
+        assertEquals(expected, actual);
+        assertTrue(diagnostics.count(Diagnostics.Kind.BLOCKED_MOVE) > 0);
+        assertEquals(expectedDiagnostics.count(Diagnostics.Kind.BLOCKED_MOVE),
+                diagnostics.count(Diagnostics.Kind.BLOCKED_MOVE));
+    }
+
+    @Test
+    void shouldThrowTheErrorOfTheWriterThread() throws IOException {
+        ByteArrayOutputStream program = new ByteArrayOutputStream();
+        new ProgramGenerator(99, 99, 5000, 10, InstructionMix.BALANCED, 3).write(program);
+        ResultSink failing = new ResultSink() {
+            @Override
+            public void accept(int x, int y, @NotNull LawnmowerOrientation orientation) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+
+        ProgramFileParser parser = new ProgramFileParser("test.lpf", ByteBuffer.wrap(program.toByteArray()));
+
+        UncheckedIOException ex = assertThrows(UncheckedIOException.class,
+                () -> new StreamingProgramRunner.Builder(parser).pipelined(true).build().run(failing));
+        assertEquals("disk full", ex.getCause().getMessage());
+    }
+
+    @Test
+    void shouldOnlyExecuteTheMowersSequentially() {
+        for (EngineType engine : new EngineType[]{EngineType.JUMP_AHEAD, EngineType.PARALLEL}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ProgramRunner.Builder().engine(engine).streaming(true).build());
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ProgramRunner.Builder().engine(engine).pipelined(true).build());
+            assertNotNull(new ProgramRunner.Builder().engine(engine).build());
+        }
+        assertNotNull(new ProgramRunner.Builder().engine(EngineType.SEQUENTIAL).pipelined(true).build());
+    }
+}
@@ -0,0 +1,214 @@
+package com.publicisgroupe.lawnmower.services;
+
+import com.publicisgroupe.lawnmower.Constants;
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testing TraceReader")
+public class TraceReaderTest {
+
+    private static final Pattern REPEAT = Pattern.compile("\\(([ADG]+)\\)\\*(\\d+)");
+
+    @TempDir
+    Path directory;
+
+    private Path randomProgram(long seed) throws IOException {
+        Path program = directory.resolve("test.lpf");
+        try (OutputStream out = Files.newOutputStream(program)) {
+            new ProgramGenerator(30, 30, 150, 200, InstructionMix.COLLISION_HEAVY, seed).write(out);
+            // then a long repeated path, with many keyframes, from a corner left free by the clustered mowers
+            out.write("0 0 N\n(ADAG)*3000AAAAAAAAAA\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return program;
+    }
+
+    /**
+     * Replays the program step by step: the state of each executed mower after each of its steps.
+     */
+    private static List<List<String>> replay(Path program) throws IOException {
+        List<String> lines = Files.readAllLines(program, StandardCharsets.UTF_8);
+        String[] size = lines.get(0).split(" ");
+        int maxX = Integer.parseInt(size[0]);
+        int maxY = Integer.parseInt(size[1]);
+        Set<Long> taken = new HashSet<>();
+        List<int[]> mowers = new ArrayList<>();
+        List<String> instructions = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i += 2) {
+            String[] init = lines.get(i).split(" ");
+            int x = Integer.parseInt(init[0]);
+            int y = Integer.parseInt(init[1]);
+            if (x <= maxX && y <= maxY && taken.add(((long) x << 32) | y)) {
+                mowers.add(new int[]{x, y, "NESW".indexOf(init[2])});
+                Matcher matcher = REPEAT.matcher(lines.get(i + 1));
+                StringBuilder expanded = new StringBuilder();
+                while (matcher.find()) {
+                    matcher.appendReplacement(expanded, matcher.group(1).repeat(Integer.parseInt(matcher.group(2))));
+                }
+                instructions.add(matcher.appendTail(expanded).toString());
+            }
+        }
+
+        int[] dx = {0, 1, 0, -1};
+        int[] dy = {1, 0, -1, 0};
+        List<List<String>> paths = new ArrayList<>();
+        for (int m = 0; m < mowers.size(); m++) {
+            int[] state = mowers.get(m);
+            List<String> path = new ArrayList<>();
+            path.add(state[0] + " " + state[1] + " " + "NESW".charAt(state[2]));
+            for (char instruction : instructions.get(m).toCharArray()) {
+                switch (instruction) {
+                    case 'D' -> state[2] = (state[2] + 1) & 3;
+                    case 'G' -> state[2] = (state[2] + 3) & 3;
+                    default -> {
+                        int x = state[0] + dx[state[2]];
+                        int y = state[1] + dy[state[2]];
+                        if (x >= 0 && y >= 0 && x <= maxX && y <= maxY && taken.add(((long) x << 32) | y)) {
+                            taken.remove(((long) state[0] << 32) | state[1]);
+                            state[0] = x;
+                            state[1] = y;
+                        }
+                    }
+                }
+                path.add(state[0] + " " + state[1] + " " + "NESW".charAt(state[2]));
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    private static void assertTrace(List<List<String>> expected, Path trace, String message)
+            throws IOException, LawnmowerFileFormatException {
+        try (TraceReader reader = TraceReader.open(trace)) {
+            assertEquals(expected.size(), reader.mowerCount(), message);
+            for (int m = 0; m < expected.size(); m++) {
+                List<String> path = expected.get(m);
+                assertEquals(path.size() - 1, reader.steps(m), message);
+                for (int step = 0; step < path.size(); step++) {
+                    assertEquals(path.get(step), reader.position(m, step).toString(), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void tracedRunShouldRecordEveryStep() throws IOException, LawnmowerFileFormatException {
+        Path program = randomProgram(42);
+        List<List<String>> expected = replay(program);
+        Path compiled = directory.resolve("test" + CompiledProgram.EXTENSION);
+        try (ProgramFileParser parser = ProgramFileParser.open(program)) {
+            new ProgramCompiler(parser).compile(compiled);
+        }
+
+        for (EngineType engine : EngineType.values()) {
+            for (boolean streaming : new boolean[]{false, true}) {
+                if (streaming && engine != EngineType.SEQUENTIAL) {
+                    // only the sequential engine can stream
+                    continue;
+                }
+                for (Path file : List.of(program, compiled)) {
+                    String message = engine + (streaming ? " streaming " : " ") + file.getFileName();
+                    Path trace = directory.resolve("test" + TraceWriter.EXTENSION);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    try (TraceWriter writer = TraceWriter.open(trace)) {
+                        new ProgramRunner.Builder().engine(engine).streaming(streaming)
+                                .diagnostics(Diagnostics.Verbosity.QUIET, 0).build()
+                                .run(file, ResultFormat.TEXT.open(out), null, writer);
+                    }
+
+                    assertTrace(expected, trace, message);
+                    String[] results = out.toString(StandardCharsets.UTF_8).split("\\R");
+                    for (int m = 0; m < expected.size(); m++) {
+                        List<String> path = expected.get(m);
+                        assertEquals(path.get(path.size() - 1), results[m], message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void restoredMowersShouldNotBeRecorded() throws IOException, LawnmowerFileFormatException {
+        Path program = randomProgram(7);
+        List<List<String>> expected = replay(program);
+        Path checkpoint = directory.resolve("test.ckpt");
+        Path trace = directory.resolve("test" + TraceWriter.EXTENSION);
+        ResultSink interrupted = new ResultSink() {
+            private int results;
+
+            @Override
+            public void accept(int x, int y, @NotNull LawnmowerOrientation orientation) {
+                if (results++ == 50) {
+                    throw new IllegalStateException();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+        ProgramRunner runner = new ProgramRunner.Builder().diagnostics(Diagnostics.Verbosity.QUIET, 0).build();
+        assertThrows(IllegalStateException.class,
+                () -> runner.run(program, interrupted, new Checkpoints(checkpoint, Duration.ZERO, false)));
+
+        try (TraceWriter writer = TraceWriter.open(trace)) {
+            runner.run(program, ResultFormat.TEXT.open(new ByteArrayOutputStream()),
+                    new Checkpoints(checkpoint, Duration.ZERO, true), writer);
+        }
+
+        try (TraceReader reader = TraceReader.open(trace)) {
+            assertEquals(expected.size(), reader.mowerCount());
+            for (int m = 0; m < expected.size(); m++) {
+                assertEquals(m >= 50, reader.contains(m));
+            }
+            assertThrows(NoSuchElementException.class, () -> reader.position(0, 0));
+            List<String> path = expected.get(60);
+            assertEquals(path.get(path.size() / 2), reader.position(60, path.size() / 2).toString());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.position(60, path.size()));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.position(expected.size(), 0));
+        }
+    }
+
+    @Test
+    void shouldRejectAnInvalidTrace() throws IOException, LawnmowerFileFormatException {
+        Path program = randomProgram(1);
+        Path trace = directory.resolve("test" + TraceWriter.EXTENSION);
+        try (TraceWriter writer = TraceWriter.open(trace)) {
+            new ProgramRunner.Builder().diagnostics(Diagnostics.Verbosity.QUIET, 0).build()
+                    .run(program, ResultFormat.TEXT.open(new ByteArrayOutputStream()), null, writer);
+        }
+
+        byte[] bytes = Files.readAllBytes(trace);
+        Files.write(trace, Arrays.copyOf(bytes, bytes.length - 1));
+        LawnmowerFileFormatException ex = assertThrows(LawnmowerFileFormatException.class,
+                () -> TraceReader.open(trace));
+        assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+
+        ex = assertThrows(LawnmowerFileFormatException.class, () -> TraceReader.open(program));
+        assertEquals(Constants.Retcode.READCOMMAND_FORMAT_ERROR, ex.getErrcode());
+    }
+}
@@ -0,0 +1,91 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.InstructionProgram;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.models.LawnmowerOrientation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Cost of a forward move checking the collisions: with a scan of all the mowers, or with the occupancy index.
+ * <p>
+ * A mower goes back and forth between two cells, among the mowers of a generated program.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CollisionBenchmark {
+
+    @Param({"100", "10000"})
+    public int lawnSize;
+
+    @Param({"10", "1000"})
+    public int mowers;
+
+    private Lawn lawn;
+
+    private List<Lawnmower> allMowers;
+
+    private Lawnmower mower;
+
+    private PrintStream previousErr;
+
+    @Setup(Level.Trial)
+    public void setUp() throws LawnmowerFileFormatException {
+        // the collision messages are not part of the measure
+        previousErr = System.err;
+        System.setErr(Programs.NULL_OUTPUT);
+
+        lawn = Programs.parse(Programs.generate(lawnSize, mowers, 0));
+        // the moving mower is put on the first free cell with a free cell on its east side
+        for (int x = 0; x < lawnSize - 1 && mower == null; x++) {
+            for (int y = 0; y < lawnSize && mower == null; y++) {
+                if (lawn.occupancy().isFree(x, y) && lawn.occupancy().isFree(x + 1, y)) {
+                    mower = new Lawnmower(new LawnmowerInitRecord(x, y, LawnmowerOrientation.EAST),
+                            InstructionProgram.of("A")); //$NON-NLS-1$
+                }
+            }
+        }
+        lawn.addMower(mower);
+        allMowers = lawn.mowers();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setErr(previousErr);
+    }
+
+    @Benchmark
+    public int mowerList() {
+        mower.moveForwardIfPossible(allMowers);
+        mower.turnRight();
+        mower.turnRight();
+        return mower.getX();
+    }
+
+    @Benchmark
+    public int occupancyIndex() {
+        mower.moveForwardIfPossible(lawn.occupancy());
+        mower.turnRight();
+        mower.turnRight();
+        return mower.getX();
+    }
+}
@@ -0,0 +1,83 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import com.publicisgroupe.lawnmower.engines.EngineType;
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.results.ResultFormat;
+import com.publicisgroupe.lawnmower.results.ResultSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Cost of executing all the mowers of a program (already parsed), with each engine.
+ * <p>
+ * The mowers move, so a new lawn is parsed before each invocation (out of the measure): the programs are big
+ * enough for the invocation to last much longer than the timestamps taken by JMH around it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExecutionBenchmark {
+
+    @Param({"100", "10000"})
+    public int lawnSize;
+
+    @Param({"10", "1000"})
+    public int mowers;
+
+    @Param({"100", "10000"})
+    public int instructions;
+
+    @Param({"SEQUENTIAL", "JUMP_AHEAD", "PARALLEL"})
+    public EngineType engine;
+
+    private byte[] program;
+
+    private Lawn lawn;
+
+    private PrintStream previousErr;
+
+    private final ResultSink sink = ResultFormat.TEXT.open(OutputStream.nullOutputStream());
+
+    @Setup(Level.Trial)
+    public void generate() {
+        // the collision messages are not part of the measure
+        previousErr = System.err;
+        System.setErr(Programs.NULL_OUTPUT);
+        program = Programs.generate(lawnSize, mowers, instructions);
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() throws LawnmowerFileFormatException {
+        lawn = Programs.parse(program);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setErr(previousErr);
+    }
+
+    @Benchmark
+    public Lawn moveAllMowers(final Throughput throughput) {
+        engine.create(lawn).moveAllMowers(sink);
+        sink.flush();
+        throughput.mowers += mowers;
+        throughput.instructions += (long) mowers * instructions;
+        return lawn;
+    }
+}
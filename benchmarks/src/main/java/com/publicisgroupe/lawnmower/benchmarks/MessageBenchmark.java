@@ -0,0 +1,42 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import com.publicisgroupe.lawnmower.services.I18n;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.MessageFormat;
+
+/**
+ * Cost of a message with arguments: parsed on every call, or with the formatters cached by {@link I18n}.
+ * <p>
+ * Run on 4 threads, since the cache is shared by all the threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MessageBenchmark {
+
+    private static final String KEY = "batch.summary"; //$NON-NLS-1$
+
+    private static final Object[] ARGUMENTS = {120, 118, 2, 1_000_000L, 1500L, 80.0, 666_666.7};
+
+    @Benchmark
+    public String parsedOnEachCall() {
+        return new MessageFormat(I18n.getMessage(KEY), I18n.getLocale()).format(ARGUMENTS);
+    }
+
+    @Benchmark
+    public String cached() {
+        return I18n.getMessage(KEY, ARGUMENTS);
+    }
+}
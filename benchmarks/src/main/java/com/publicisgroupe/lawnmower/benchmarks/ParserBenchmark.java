@@ -0,0 +1,53 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.services.ProgramFileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cost of parsing a program file (already in memory), instructions included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+
+    @Param({"10", "1000"})
+    public int mowers;
+
+    @Param({"10", "10000"})
+    public int instructions;
+
+    private byte[] program;
+
+    @Setup
+    public void generate() {
+        program = Programs.generate(1000, mowers, instructions);
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole, final Throughput throughput) throws LawnmowerFileFormatException {
+        final ProgramFileParser parser = new ProgramFileParser("benchmark", ByteBuffer.wrap(program)); //$NON-NLS-1$
+        blackhole.consume(parser.readLawn());
+        while (parser.hasNextLine()) {
+            blackhole.consume(parser.readInitRecord());
+            blackhole.consume(parser.readInstructions());
+        }
+        throughput.mowers += mowers;
+        throughput.instructions += (long) mowers * instructions;
+    }
+}
@@ -0,0 +1,67 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import com.publicisgroupe.lawnmower.exceptions.LawnmowerFileFormatException;
+import com.publicisgroupe.lawnmower.models.Lawn;
+import com.publicisgroupe.lawnmower.models.Lawnmower;
+import com.publicisgroupe.lawnmower.models.LawnmowerInitRecord;
+import com.publicisgroupe.lawnmower.services.InstructionMix;
+import com.publicisgroupe.lawnmower.services.ProgramFileParser;
+import com.publicisgroupe.lawnmower.services.ProgramGenerator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Programs used by the benchmarks.
+ */
+final class Programs {
+
+    /**
+     * Stream dropping everything written to it (the collision messages).
+     */
+    static final @NotNull PrintStream NULL_OUTPUT = new PrintStream(OutputStream.nullOutputStream());
+
+    private Programs() {
+    }
+
+    /**
+     * Generates a valid program, always the same for the same arguments.
+     *
+     * @param lawnSize     number of cells of each side of the (square) lawn
+     * @param mowers       number of mowers (at most the number of cells)
+     * @param instructions number of instructions of each mower
+     * @return the content of the program file
+     */
+    static byte @NotNull [] generate(final int lawnSize, final int mowers, final int instructions) {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            new ProgramGenerator(lawnSize - 1, lawnSize - 1, mowers, instructions, InstructionMix.BALANCED, 42)
+                    .write(content);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Parses a program, and puts its mowers on the lawn.
+     *
+     * @param program the content of the program file
+     * @return the lawn and its mowers
+     * @throws LawnmowerFileFormatException if the program is not valid
+     */
+    static @NotNull Lawn parse(final byte @NotNull [] program) throws LawnmowerFileFormatException {
+        final ProgramFileParser parser = new ProgramFileParser("benchmark", ByteBuffer.wrap(program)); //$NON-NLS-1$
+        final Lawn lawn = parser.readLawn();
+        while (parser.hasNextLine()) {
+            final LawnmowerInitRecord init = parser.readInitRecord();
+            lawn.addMower(new Lawnmower(init, parser.readInstructions()));
+        }
+        return lawn;
+    }
+}
@@ -0,0 +1,31 @@
+package com.publicisgroupe.lawnmower.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary results of the benchmarks: JMH reports these counters as throughputs (per second).
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Throughput {
+
+    /**
+     * Number of processed instructions.
+     */
+    public long instructions;
+
+    /**
+     * Number of processed mowers.
+     */
+    public long mowers;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        instructions = 0;
+        mowers = 0;
+    }
+}